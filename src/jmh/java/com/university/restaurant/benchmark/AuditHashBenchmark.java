@@ -0,0 +1,63 @@
+package com.university.restaurant.benchmark;
+
+import com.university.restaurant.repository.AuditHasher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing the original audit-entry hashing (string concatenation,
+ * a new MessageDigest per call and String.format per byte) with AuditHasher.
+ * Run with -prof gc to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditHashBenchmark {
+
+    private final String userId = "m1";
+    private final String role = "Manager";
+    private final String action = "REDUCE_STOCK";
+    private final String entityType = "InventoryItem";
+    private final String entityId = "item-42";
+    private final String details = "Reduced stock by 3";
+    private final LocalDateTime timestamp = LocalDateTime.of(2024, 3, 9, 14, 5, 7, 123_456_789);
+    private final String prevHash = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Benchmark
+    public String legacyHash() throws Exception {
+        String data = userId + role + action + entityType + entityId + details + timestamp + prevHash;
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        byte[] bytes = md.digest(data.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String hasherHex() {
+        return AuditHasher.hash(userId, role, action, entityType, entityId, details, timestamp, prevHash);
+    }
+
+    @Benchmark
+    public byte[] hasherRaw() {
+        return AuditHasher.digest(userId, role, action, entityType, entityId, details, timestamp, prevHash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(AuditHashBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.university.restaurant.benchmark;
+
+import com.university.restaurant.model.inventory.InventoryItem;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.repository.ConcurrentInventoryRepo;
+import com.university.restaurant.repository.ConcurrentMenuRepo;
+import com.university.restaurant.repository.RestaurantAuditEntry;
+import com.university.restaurant.repository.RestaurantAuditLogRepository;
+import com.university.restaurant.service.concurrent.ConcurrentInventoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark measuring ConcurrentInventoryService throughput under contention.
+ * With one stripe every item shares a single lock (the old global-lock
+ * behaviour); with 64 stripes threads working on different items no longer
+ * block each other. The audit log is a no-op so only inventory locking is
+ * measured. main() runs the benchmark at 1, 2, 4 and 8 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryContentionBenchmark {
+
+    private static final int ITEM_COUNT = 32;
+
+    @Param({"1", "64"})
+    private int stripes;
+
+    private ConcurrentInventoryService service;
+    private Manager manager;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadItem {
+        String itemId;
+
+        @Setup
+        public void setup(InventoryContentionBenchmark bench) {
+            // Each thread hammers its own item
+            itemId = "item_" + (bench.nextThread.getAndIncrement() % ITEM_COUNT);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        ConcurrentInventoryRepo repo = new ConcurrentInventoryRepo();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            repo.save(new InventoryItem("item_" + i, "Item " + i, "kg", 1_000_000, 10, 2_000_000));
+        }
+        service = new ConcurrentInventoryService(repo, new ConcurrentMenuRepo(), new NoOpAuditRepo(), stripes);
+        manager = new Manager("m1", "Bench");
+    }
+
+    @Benchmark
+    public void reduceThenRestock(ThreadItem item) {
+        service.reduceStock(manager, item.itemId, 1);
+        service.increaseStock(manager, item.itemId, 1);
+    }
+
+    private static final class NoOpAuditRepo implements RestaurantAuditLogRepository {
+        @Override public void append(RestaurantAuditEntry entry) { }
+        @Override public List<RestaurantAuditEntry> all() { return List.of(); }
+        @Override public boolean verifyChain() { return true; }
+        @Override public String tailHash() { return "GENESIS"; }
+
+        @Override
+        public RestaurantAuditEntry appendChained(String userId, String role, String action,
+                                                  String entityType, String entityId, String details) {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            Options opt = new OptionsBuilder()
+                    .include(InventoryContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.university.restaurant.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.university.restaurant.model.menu.Dessert;
+import com.university.restaurant.model.menu.DietaryType;
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.Entree;
+import com.university.restaurant.model.menu.MenuItem;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics;
+import com.university.restaurant.service.analytics.LatencyHistogram;
+import com.university.restaurant.service.concurrent.ExecutionMode;
+import com.university.restaurant.service.concurrent.KitchenBatching;
+import com.university.restaurant.service.concurrent.KitchenIntake;
+import com.university.restaurant.service.concurrent.KitchenSchedulingPolicy;
+import com.university.restaurant.service.concurrent.KitchenService;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and order-to-ready latency of the kitchen with and without
+ * ticket batching, under a Poisson stream of orders. Like the other kitchen
+ * simulations it is a plain program rather than a JMH benchmark.
+ * <p>
+ * The menu has six entrees, three desserts and three drinks whose
+ * popularity follows a Zipf distribution, so a few dishes make up most
+ * tickets; each order has one to three items. Costs are scaled down 10x to
+ * keep runs short: a single item takes 50 ms unbatched, and a batch takes
+ * 40 ms plus 10 ms per item, collected over a 20 ms window. Each load runs
+ * until its last order is READY, on six workers, two per station.
+ * </p>
+ */
+public class KitchenBatchingBenchmark {
+
+    private static final int ORDERS = 1_500;
+    private static final int WORKERS = 6;
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    public static void main(String[] args) throws InterruptedException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        KitchenBatching unbatched = new KitchenBatching(Duration.ZERO, 1, Duration.ZERO, Duration.ofMillis(50));
+        KitchenBatching batched = new KitchenBatching(Duration.ofMillis(20), 8,
+                Duration.ofMillis(40), Duration.ofMillis(10));
+
+        System.out.printf("%-10s %14s %14s %12s %12s %12s %12s%n", "batching", "offered/s", "completed/s",
+                "mean batch", "p50 (ms)", "p99 (ms)", "max (ms)");
+        for (int ordersPerSecond : new int[]{20, 40, 80, 160}) {
+            run("none", unbatched, ordersPerSecond);
+            run("window", batched, ordersPerSecond);
+        }
+    }
+
+    private static void run(String name, KitchenBatching batching, int ordersPerSecond) throws InterruptedException {
+        List<Order> orders = generate(new Random(42));
+        long[] gaps = arrivalGaps(new Random(7), ordersPerSecond);
+
+        KitchenLatencyMetrics metrics = new KitchenLatencyMetrics();
+        KitchenService kitchen = new KitchenService(WORKERS, metrics, KitchenSchedulingPolicy.fifo(),
+                ExecutionMode.PLATFORM, KitchenIntake.unbounded(), batching);
+        CountDownLatch ready = new CountDownLatch(orders.size());
+        kitchen.addOrderEventListener((order, from, to) -> {
+            if (to == OrderStatus.READY) {
+                ready.countDown();
+            }
+        });
+
+        long start = System.nanoTime();
+        long next = start;
+        for (int i = 0; i < orders.size(); i++) {
+            next += gaps[i];
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            kitchen.submitOrder(orders.get(i));
+        }
+        if (!ready.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Kitchen did not drain");
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        kitchen.shutdown();
+
+        LatencyHistogram.Snapshot toReady = metrics.latency(new Manager("m1", "Benchmark"))
+                .stages().get(KitchenLatencyMetrics.Stage.ORDER_TO_READY).total();
+        System.out.printf("%-10s %14d %14.1f %12.2f %12.0f %12.0f %12.0f%n", name, ordersPerSecond,
+                orders.size() / seconds, (double) kitchen.getPreparedTickets() / kitchen.getPreparedBatches(),
+                toReady.valueAtPercentile(50) / 1e6, toReady.valueAtPercentile(99) / 1e6, toReady.max() / 1e6);
+    }
+
+    private static List<Order> generate(Random random) {
+        List<MenuItem> menu = List.of(
+                new Entree("e1", "Burger", "desc", 12.0, DietaryType.REGULAR, List.of("beef"), 10),
+                new Drink("d1", "Coke", "desc", 2.5, false),
+                new Entree("e2", "Margherita", "desc", 11.0, DietaryType.VEGETARIAN, List.of("cheese"), 12),
+                new Dessert("s1", "Tiramisu", "desc", 6.0, DietaryType.VEGETARIAN, List.of()),
+                new Drink("d2", "Lemonade", "desc", 3.0, false),
+                new Entree("e3", "Caesar Salad", "desc", 9.0, DietaryType.REGULAR, List.of("egg"), 5),
+                new Entree("e4", "Steak", "desc", 24.0, DietaryType.REGULAR, List.of("beef"), 25),
+                new Dessert("s2", "Cheesecake", "desc", 6.5, DietaryType.VEGETARIAN, List.of("milk")),
+                new Drink("d3", "Espresso", "desc", 2.0, false),
+                new Entree("e5", "Salmon", "desc", 19.0, DietaryType.REGULAR, List.of("fish"), 18),
+                new Dessert("s3", "Sorbet", "desc", 5.0, DietaryType.VEGAN, List.of()),
+                new Entree("e6", "Risotto", "desc", 15.0, DietaryType.VEGETARIAN, List.of("milk"), 20));
+
+        double[] cumulative = new double[menu.size()];
+        double total = 0;
+        for (int rank = 0; rank < menu.size(); rank++) {
+            total += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = total;
+        }
+
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(1 + i % 40, "w1");
+            int items = 1 + random.nextInt(3);
+            for (int j = 0; j < items; j++) {
+                double pick = random.nextDouble() * total;
+                int rank = 0;
+                while (cumulative[rank] < pick) {
+                    rank++;
+                }
+                order.addItem(menu.get(rank));
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /** Exponential inter-arrival times for a Poisson stream of {@code ordersPerSecond}. */
+    private static long[] arrivalGaps(Random random, int ordersPerSecond) {
+        long[] gaps = new long[ORDERS];
+        double meanNanos = TimeUnit.SECONDS.toNanos(1) / (double) ordersPerSecond;
+        for (int i = 0; i < ORDERS; i++) {
+            gaps[i] = (long) (-Math.log(1 - random.nextDouble()) * meanNanos);
+        }
+        return gaps;
+    }
+}
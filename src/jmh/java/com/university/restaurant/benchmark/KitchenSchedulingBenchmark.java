@@ -0,0 +1,141 @@
+package com.university.restaurant.benchmark;
+
+import com.university.restaurant.model.menu.Dessert;
+import com.university.restaurant.model.menu.DietaryType;
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.Entree;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.service.analytics.LatencyHistogram;
+import com.university.restaurant.service.concurrent.KitchenSchedulingPolicy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discrete-event simulation comparing kitchen scheduling policies on
+ * ticket-to-ready latency. Unlike the JMH benchmarks next to it, it measures
+ * simulated time, so a day of service runs in seconds.
+ * <p>
+ * Orders arrive as a Poisson stream at about 90% of kitchen capacity: a
+ * third are long entrees (25-40 min), a third short entrees (8-15 min) and
+ * a third dessert or drink tickets (1 min per item). Each worker prepares
+ * one order at a time for its full prep time, and orders are queued by the
+ * same {@link KitchenSchedulingPolicy} keys the kitchen uses. Results are
+ * reported overall and for the long entrees, which starve first.
+ * </p>
+ */
+public class KitchenSchedulingBenchmark {
+
+    private static final int WORKERS = 8;
+    private static final int ORDERS = 200_000;
+    private static final double UTILISATION = 0.9;
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    /** An order in the simulation, with its arrival time and whether it is a long entree. */
+    private record Arrival(Order order, long submittedNanos, long prepNanos, boolean longEntree) {
+    }
+
+    private record Queued(Arrival arrival, long priority, long sequence) {
+    }
+
+    public static void main(String[] args) {
+        List<Arrival> arrivals = generate(new Random(42));
+
+        Map<String, KitchenSchedulingPolicy> policies = new LinkedHashMap<>();
+        policies.put("fifo", KitchenSchedulingPolicy.fifo());
+        policies.put("shortest-prep-first", KitchenSchedulingPolicy.shortestPrepFirst());
+        policies.put("shortest-prep-first+aging(0.5)", KitchenSchedulingPolicy.shortestPrepFirst().withAging(0.5));
+        policies.put("earliest-deadline-first(20m)", KitchenSchedulingPolicy.earliestDeadlineFirst(Duration.ofMinutes(20)));
+        policies.put("earliest-deadline-first(prep+10m)", KitchenSchedulingPolicy.earliestDeadlineFirst(
+                order -> Duration.ofNanos(KitchenSchedulingPolicy.prepNanos(order)).plusMinutes(10)));
+
+        System.out.printf("%-36s %12s %12s %16s %16s%n",
+                "policy", "mean (min)", "p99 (min)", "long mean (min)", "long p99 (min)");
+        policies.forEach((name, policy) -> {
+            LatencyHistogram all = new LatencyHistogram(7, TimeUnit.DAYS.toNanos(7));
+            LatencyHistogram longEntrees = new LatencyHistogram(7, TimeUnit.DAYS.toNanos(7));
+            simulate(arrivals, policy, all, longEntrees);
+            LatencyHistogram.Snapshot a = all.snapshot();
+            LatencyHistogram.Snapshot l = longEntrees.snapshot();
+            System.out.printf("%-36s %12.1f %12.1f %16.1f %16.1f%n", name,
+                    a.mean() / MINUTE, (double) a.valueAtPercentile(99) / MINUTE,
+                    l.mean() / MINUTE, (double) l.valueAtPercentile(99) / MINUTE);
+        });
+    }
+
+    private static List<Arrival> generate(Random random) {
+        Drink coke = new Drink("d1", "Coke", "desc", 2.5, false);
+        Dessert tiramisu = new Dessert("s1", "Tiramisu", "desc", 6.0, DietaryType.VEGETARIAN, List.of());
+
+        List<Arrival> arrivals = new ArrayList<>(ORDERS);
+        List<Order> orders = new ArrayList<>(ORDERS);
+        long totalPrep = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(1 + random.nextInt(40), "w1");
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                order.addItem(entree(25 + random.nextInt(16)));
+            } else if (kind == 1) {
+                order.addItem(entree(8 + random.nextInt(8)));
+            } else {
+                order.addItem(tiramisu);
+                order.addItem(random.nextBoolean() ? tiramisu : coke);
+            }
+            orders.add(order);
+            totalPrep += KitchenSchedulingPolicy.prepNanos(order);
+        }
+
+        double meanGap = totalPrep / (double) ORDERS / WORKERS / UTILISATION;
+        long now = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            now += (long) (-Math.log(1 - random.nextDouble()) * meanGap);
+            Order order = orders.get(i);
+            long prep = KitchenSchedulingPolicy.prepNanos(order);
+            arrivals.add(new Arrival(order, now, prep, prep >= 25 * MINUTE));
+        }
+        return arrivals;
+    }
+
+    private static Entree entree(int prepMinutes) {
+        return new Entree("e" + prepMinutes, "Entree", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), prepMinutes);
+    }
+
+    private static void simulate(List<Arrival> arrivals, KitchenSchedulingPolicy policy,
+                                 LatencyHistogram all, LatencyHistogram longEntrees) {
+        PriorityQueue<Queued> queue = new PriorityQueue<>(
+                Comparator.comparingLong(Queued::priority).thenComparingLong(Queued::sequence));
+        PriorityQueue<Long> workerFreeAt = new PriorityQueue<>();
+        for (int i = 0; i < WORKERS; i++) {
+            workerFreeAt.add(0L);
+        }
+
+        int next = 0;
+        while (next < arrivals.size() || !queue.isEmpty()) {
+            long free = workerFreeAt.poll();
+            // An idle worker waits for the next arrival
+            long start = queue.isEmpty() ? Math.max(free, arrivals.get(next).submittedNanos()) : free;
+            while (next < arrivals.size() && arrivals.get(next).submittedNanos() <= start) {
+                Arrival arrival = arrivals.get(next);
+                queue.add(new Queued(arrival, policy.priority(arrival.order(), arrival.submittedNanos()), next));
+                next++;
+            }
+
+            Arrival arrival = queue.poll().arrival();
+            long finish = start + arrival.prepNanos();
+            workerFreeAt.add(finish);
+
+            long latency = finish - arrival.submittedNanos();
+            all.record(latency);
+            if (arrival.longEntree()) {
+                longEntrees.record(latency);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.university.restaurant.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.university.restaurant.model.menu.Dessert;
+import com.university.restaurant.model.menu.DietaryType;
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.Entree;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics;
+import com.university.restaurant.service.concurrent.ExecutionMode;
+import com.university.restaurant.service.concurrent.KitchenSchedulingPolicy;
+import com.university.restaurant.service.concurrent.KitchenService;
+import com.university.restaurant.service.concurrent.KitchenStation;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and memory of the kitchen with 10k tickets in flight, on
+ * platform workers and on virtual threads. Like the scheduling simulation it
+ * is a plain program rather than a JMH benchmark: each run submits every
+ * ticket at once and waits for the last order to be READY.
+ * <p>
+ * Both modes get the same station capacity (slots per station), so they
+ * cook at the same rate; the difference is what holding that capacity and
+ * the waiting tickets costs. Each mode runs in a fresh JVM so peak RSS and
+ * thread counts are not shared. Run on Java 21 or later; on older runtimes
+ * the virtual mode falls back to platform threads.
+ * </p>
+ */
+public class KitchenVirtualThreadBenchmark {
+
+    private static final int TICKETS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int slotsPerStation = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        if (args.length > 0 && !args[0].equals("all")) {
+            run(ExecutionMode.valueOf(args[0]), slotsPerStation);
+            return;
+        }
+
+        System.out.printf("%-10s %8s %10s %14s %14s %14s %12s%n", "mode", "slots", "drain (s)",
+                "tickets/s", "peak threads", "peak heap MB", "peak RSS MB");
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            Process child = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    KitchenVirtualThreadBenchmark.class.getName(), mode.name(), String.valueOf(slotsPerStation))
+                    .inheritIO()
+                    .start();
+            child.waitFor();
+        }
+    }
+
+    private static void run(ExecutionMode mode, int slotsPerStation) throws InterruptedException, IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Map<KitchenStation, Integer> workers = new EnumMap<>(KitchenStation.class);
+        for (KitchenStation station : KitchenStation.values()) {
+            workers.put(station, slotsPerStation);
+        }
+        KitchenService kitchen = new KitchenService(workers, new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), mode);
+
+        // One ticket per station per order
+        int orders = TICKETS / KitchenStation.values().length;
+        List<Order> submitted = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order(1 + i % 40, "w1");
+            order.addItem(new Entree("e1", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 20));
+            order.addItem(new Dessert("s1", "Tiramisu", "desc", 6.0, DietaryType.VEGETARIAN, List.of()));
+            order.addItem(new Drink("d1", "Coke", "desc", 2.5, false));
+            submitted.add(order);
+        }
+        CountDownLatch ready = new CountDownLatch(orders);
+        kitchen.addOrderEventListener((order, from, to) -> {
+            if (to == OrderStatus.READY) {
+                ready.countDown();
+            }
+        });
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long[] peakHeap = {0};
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap[0] = Math.max(peakHeap[0], memory.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        for (Order order : submitted) {
+            kitchen.submitOrder(order);
+        }
+        if (!ready.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Kitchen did not drain");
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+        kitchen.shutdown();
+
+        System.out.printf("%-10s %8d %10.2f %14.0f %14d %14.1f %12s%n", kitchen.getExecutionMode(), slotsPerStation,
+                seconds, orders * 3 / seconds, threads.getPeakThreadCount(), peakHeap[0] / 1e6, peakRssMb());
+    }
+
+    /** Peak resident set size from /proc on Linux, or n/a elsewhere. */
+    private static String peakRssMb() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "n/a";
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmHWM:")) {
+                long kb = Long.parseLong(line.replaceAll("\\D+", ""));
+                return String.format("%.1f", kb / 1024.0);
+            }
+        }
+        return "n/a";
+    }
+}
@@ -0,0 +1,184 @@
+package com.university.restaurant.benchmark;
+
+import com.university.restaurant.RestaurantApplication;
+import com.university.restaurant.infrastructure.entity.OrderEntity;
+import com.university.restaurant.infrastructure.entity.OrderItemEntity;
+import com.university.restaurant.infrastructure.jpa.OrderJpaRepository;
+import com.university.restaurant.infrastructure.jpa.PaymentJpaRepository;
+import com.university.restaurant.infrastructure.adapter.SalesAnalyticsJpaAdapter;
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.order.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the SQL push-down analytics adapter against an embedded H2
+ * database seeded with a million orders (about three items each, 70% paid).
+ * The hydrating baseline loads PAID and SERVED order entities with their
+ * items and groups them in Java, which is what AnalyticsService would do if
+ * the JPA order store could return orders at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalesAnalyticsBenchmark {
+
+    private static final String[] ITEMS = {
+            "Burger", "Fries", "Coke", "Sprite", "Salad", "Pizza", "Pasta", "Soup",
+            "Steak", "Tiramisu", "Ice Cream", "Coffee", "Tea", "Water", "Wine", "Beer"
+    };
+    private static final Set<OrderStatus> SOLD = EnumSet.of(OrderStatus.SERVED, OrderStatus.PAID);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000000"})
+    public int orders;
+
+    private ConfigurableApplicationContext context;
+    private SalesAnalyticsJpaAdapter adapter;
+    private OrderJpaRepository orderRepo;
+    private TransactionTemplate tx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RestaurantApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate=WARN",
+                        "logging.level.com.university.restaurant=WARN")
+                .run();
+        orderRepo = context.getBean(OrderJpaRepository.class);
+        adapter = new SalesAnalyticsJpaAdapter(orderRepo, context.getBean(PaymentJpaRepository.class));
+        tx = context.getBean(TransactionTemplate.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    // Plain JDBC batches; going through JPA would take far longer than the benchmark
+    private void seed(JdbcTemplate jdbc) {
+        Random random = new Random(42);
+        int batch = 10_000;
+        List<Object[]> orderRows = new ArrayList<>(batch);
+        List<Object[]> itemRows = new ArrayList<>(batch * 4);
+        List<Object[]> paymentRows = new ArrayList<>(batch);
+        for (int i = 0; i < orders; i++) {
+            UUID id = UUID.randomUUID();
+            LocalDateTime created = START.plusSeconds(random.nextInt(365 * 24 * 3600));
+            int roll = random.nextInt(10);
+            OrderStatus status = roll < 7 ? OrderStatus.PAID : roll < 9 ? OrderStatus.SERVED : OrderStatus.PENDING;
+            int count = 1 + random.nextInt(5);
+            double total = 0;
+            for (int j = 0; j < count; j++) {
+                // Skewed item popularity
+                String name = ITEMS[Math.min(ITEMS.length - 1, (int) (-Math.log(random.nextDouble()) * 4))];
+                double price = 2 + name.length();
+                itemRows.add(new Object[]{id, name.toLowerCase(), name, price, 1});
+                total += price;
+            }
+            orderRows.add(new Object[]{id, 1 + random.nextInt(40), "w1", status.name(),
+                    created.atOffset(ZoneOffset.UTC), total});
+            if (status == OrderStatus.PAID) {
+                paymentRows.add(new Object[]{id.toString(), "CASH", total,
+                        Timestamp.valueOf(created.plusMinutes(45)), id});
+            }
+            if (orderRows.size() == batch || i == orders - 1) {
+                jdbc.batchUpdate("INSERT INTO orders (id, table_number, assigned_waiter_id, status, created_at, total_amount) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", orderRows);
+                jdbc.batchUpdate("INSERT INTO order_items (order_id, menu_item_id, menu_item_name, price_at_order, quantity) " +
+                        "VALUES (?, ?, ?, ?, ?)", itemRows);
+                jdbc.batchUpdate("INSERT INTO payments (transaction_id, payment_method, amount, timestamp, order_id) " +
+                        "VALUES (?, ?, ?, ?, ?)", paymentRows);
+                orderRows.clear();
+                itemRows.clear();
+                paymentRows.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Long> topSellingPushDown() {
+        return adapter.unitsSoldByItem(SOLD);
+    }
+
+    @Benchmark
+    public List<ItemSales> topFivePushDown() {
+        return adapter.topSellingItems(SOLD, 5);
+    }
+
+    @Benchmark
+    public double revenueOneWeekPushDown() {
+        LocalDateTime from = START.plusDays(100);
+        return adapter.paymentsBetween(from, from.plusDays(7));
+    }
+
+    @Benchmark
+    public double[] revenueByHourOneMonthPushDown() {
+        LocalDate from = START.toLocalDate().plusDays(30);
+        return adapter.paymentsByHourOfDay(from, from.plusDays(30));
+    }
+
+    @Benchmark
+    public double revenueOneDayPushDown() {
+        LocalDateTime from = START.plusDays(200);
+        return adapter.revenueOfOrdersCreatedBetween(from, from.plusDays(1));
+    }
+
+    @Benchmark
+    public Map<String, Long> topSellingHydrated() {
+        return tx.execute(status -> {
+            Map<String, Long> counts = new HashMap<>();
+            for (OrderStatus s : SOLD) {
+                for (OrderEntity order : orderRepo.findByStatus(s)) {
+                    for (OrderItemEntity item : order.getItems()) {
+                        counts.merge(item.getMenuItemName(), (long) item.getQuantity(), Long::sum);
+                    }
+                }
+            }
+            return counts;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SalesAnalyticsBenchmark.class.getSimpleName())
+                .jvmArgs("-Xmx4g")
+                .build();
+        new Runner(opt).run();
+    }
+}
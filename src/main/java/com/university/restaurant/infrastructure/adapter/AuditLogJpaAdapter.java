@@ -1,12 +1,21 @@
 package com.university.restaurant.infrastructure.adapter;
 
 import com.university.restaurant.infrastructure.entity.AuditLogEntity;
+import com.university.restaurant.infrastructure.jpa.AuditLinkView;
 import com.university.restaurant.infrastructure.jpa.AuditLogJpaRepository;
+import com.university.restaurant.repository.ChainVerification;
 import com.university.restaurant.repository.RestaurantAuditEntry;
 import com.university.restaurant.repository.RestaurantAuditLogRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
 
 /**
  * JPA Adapter implementing RestaurantAuditLogRepository port.
@@ -16,6 +25,8 @@ import java.util.List;
  */
 public class AuditLogJpaAdapter implements RestaurantAuditLogRepository {
 
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
     private final AuditLogJpaRepository jpaRepo;
 
     public AuditLogJpaAdapter(AuditLogJpaRepository jpaRepo) {
@@ -24,6 +35,19 @@ public class AuditLogJpaAdapter implements RestaurantAuditLogRepository {
 
     @Override
     public void append(RestaurantAuditEntry entry) {
+        jpaRepo.save(toEntity(entry));
+    }
+
+    @Override
+    public void appendAll(List<RestaurantAuditEntry> entries) {
+        List<AuditLogEntity> entities = new ArrayList<>(entries.size());
+        for (RestaurantAuditEntry entry : entries) {
+            entities.add(toEntity(entry));
+        }
+        jpaRepo.saveAll(entities);
+    }
+
+    private static AuditLogEntity toEntity(RestaurantAuditEntry entry) {
         // Use getters instead of direct field access
         AuditLogEntity entity = new AuditLogEntity(
                 entry.getUserId(),
@@ -35,7 +59,9 @@ public class AuditLogJpaAdapter implements RestaurantAuditLogRepository {
                 entry.getPrevHash(),
                 entry.getHash()
         );
-        jpaRepo.save(entity);
+        // Keep the timestamp the hash was computed over
+        entity.setTimestamp(entry.getTimestamp());
+        return entity;
     }
 
     @Override
@@ -48,20 +74,130 @@ public class AuditLogJpaAdapter implements RestaurantAuditLogRepository {
         );
     }
 
+    /**
+     * Streams the chain in id order, one page at a time, so memory use is
+     * bounded by the page size rather than the table size.
+     */
     @Override
     public boolean verifyChain() {
-        List<AuditLogEntity> logs = jpaRepo.findAllByOrderByTimestampDesc();
+        return verifyChain(DEFAULT_PAGE_SIZE, null).valid();
+    }
+
+    /**
+     * Verifies every link in id order using keyset pagination.
+     *
+     * @param pageSize rows fetched per query
+     * @param progress called with the running count of checked rows after
+     *                 each page; may be {@code null}
+     * @return the outcome, with the id of the first broken row if any
+     */
+    public ChainVerification verifyChain(int pageSize, LongConsumer progress) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        return verifyRange(0L, null, pageSize, progress == null ? null : new AtomicLong(), progress);
+    }
+
+    /**
+     * Verifies the chain by splitting the id space into {@code ranges}
+     * disjoint ranges checked concurrently. Each range starts from the hash
+     * of the row just before it, so the links between ranges are checked too.
+     *
+     * @param ranges   number of id ranges to verify concurrently
+     * @param pageSize rows fetched per query
+     * @param progress called with the total checked so far across all
+     *                 ranges; must be thread-safe; may be {@code null}
+     * @return the outcome, with the lowest broken id if any
+     */
+    public ChainVerification verifyChainParallel(int ranges, int pageSize, LongConsumer progress) {
+        if (ranges < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("ranges and pageSize must be positive");
+        }
+        Long minId = jpaRepo.findMinId();
+        Long maxId = jpaRepo.findMaxId();
+        if (minId == null || maxId == null) {
+            return ChainVerification.ok(0);
+        }
 
-        for (int i = 1; i < logs.size(); i++) {
-            AuditLogEntity current = logs.get(i);
-            AuditLogEntity previous = logs.get(i - 1);
+        long start = minId - 1;
+        long span = Math.max(1, (maxId - start + ranges - 1) / ranges);
+        AtomicLong checked = new AtomicLong();
+
+        List<ChainVerification> results = IntStream.range(0, ranges)
+                .parallel()
+                .mapToObj(r -> {
+                    long after = start + r * span;
+                    long upTo = Math.min(maxId, after + span);
+                    return after >= maxId
+                            ? ChainVerification.ok(0)
+                            : verifyRange(after, upTo, pageSize, checked, progress);
+                })
+                .toList();
+
+        long total = 0;
+        long firstBroken = -1;
+        for (ChainVerification r : results) {
+            total += r.entriesChecked();
+            if (!r.valid() && (firstBroken < 0 || r.firstBrokenAt() < firstBroken)) {
+                firstBroken = r.firstBrokenAt();
+            }
+        }
+        return firstBroken < 0 ? ChainVerification.ok(total) : ChainVerification.brokenAt(total, firstBroken);
+    }
 
-            if (!current.getPrevHash().equals(previous.getHash())) {
-                return false;
+    private ChainVerification verifyRange(long afterId, Long upToId, int pageSize,
+                                          AtomicLong total, LongConsumer progress) {
+        AuditLinkView boundary = afterId > 0 ? jpaRepo.findTopByIdLessThanEqualOrderByIdDesc(afterId) : null;
+        String prevHash = boundary != null ? boundary.getHash() : null;
+        Pageable page = PageRequest.of(0, pageSize);
+
+        long cursor = afterId;
+        long checked = 0;
+        while (true) {
+            List<AuditLinkView> rows = upToId == null
+                    ? jpaRepo.findByIdGreaterThanOrderByIdAsc(cursor, page)
+                    : jpaRepo.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(cursor, upToId, page);
+
+            for (AuditLinkView row : rows) {
+                if (prevHash != null && !prevHash.equals(row.getPrevHash())) {
+                    return ChainVerification.brokenAt(checked, row.getId());
+                }
+                prevHash = row.getHash();
+                cursor = row.getId();
+                checked++;
+            }
+            if (progress != null && !rows.isEmpty()) {
+                progress.accept(total.addAndGet(rows.size()));
+            }
+            if (rows.size() < pageSize) {
+                return ChainVerification.ok(checked);
             }
         }
+    }
 
-        return true;
+    /**
+     * Passes every stored entry hash to {@code action} in id order, one page
+     * at a time, e.g. to rebuild a Merkle tree on startup.
+     *
+     * @param pageSize rows fetched per query
+     * @param action   called with each hash
+     */
+    public void forEachHash(int pageSize, Consumer<String> action) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        Pageable page = PageRequest.of(0, pageSize);
+        long cursor = 0;
+        while (true) {
+            List<AuditLinkView> rows = jpaRepo.findByIdGreaterThanOrderByIdAsc(cursor, page);
+            for (AuditLinkView row : rows) {
+                action.accept(row.getHash());
+                cursor = row.getId();
+            }
+            if (rows.size() < pageSize) {
+                return;
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,83 @@
+package com.university.restaurant.infrastructure.adapter;
+
+import com.university.restaurant.infrastructure.jpa.HourlyRevenueView;
+import com.university.restaurant.infrastructure.jpa.ItemSalesView;
+import com.university.restaurant.infrastructure.jpa.OrderJpaRepository;
+import com.university.restaurant.infrastructure.jpa.PaymentJpaRepository;
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.repository.SalesAnalyticsRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA Adapter implementing SalesAnalyticsRepository port.
+ * Every method runs one aggregate query and reads projections, so no
+ * OrderEntity or OrderItemEntity graphs are hydrated.
+ *
+ * Order creation times are stored as the domain's wall-clock time at UTC
+ * offset (see OrderMapper), so windows are converted the same way.
+ *
+ * @author Mahdis (Infrastructure Layer)
+ */
+public class SalesAnalyticsJpaAdapter implements SalesAnalyticsRepository {
+
+    private final OrderJpaRepository orders;
+    private final PaymentJpaRepository payments;
+
+    public SalesAnalyticsJpaAdapter(OrderJpaRepository orders, PaymentJpaRepository payments) {
+        this.orders = orders;
+        this.payments = payments;
+    }
+
+    @Override
+    public Map<String, Long> unitsSoldByItem(Set<OrderStatus> statuses) {
+        Map<String, Long> result = new HashMap<>();
+        for (ItemSalesView row : orders.sumUnitsSoldByItem(statuses)) {
+            result.put(row.getItemName(), row.getUnitsSold());
+        }
+        return result;
+    }
+
+    @Override
+    public List<ItemSales> topSellingItems(Set<OrderStatus> statuses, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        if (k == 0) {
+            return List.of();
+        }
+        return orders.findTopUnitsSoldByItem(statuses, PageRequest.of(0, k)).stream()
+                .map(row -> new ItemSales(row.getItemName(), row.getUnitsSold(), 0))
+                .toList();
+    }
+
+    @Override
+    public double revenueOfOrdersCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        Double total = orders.getTotalRevenueBetween(from.atOffset(ZoneOffset.UTC), to.atOffset(ZoneOffset.UTC));
+        return total == null ? 0.0 : total;
+    }
+
+    @Override
+    public double paymentsBetween(LocalDateTime from, LocalDateTime to) {
+        Double total = payments.getTotalPaidBetween(from, to);
+        return total == null ? 0.0 : total;
+    }
+
+    @Override
+    public double[] paymentsByHourOfDay(LocalDate from, LocalDate to) {
+        double[] byHour = new double[24];
+        for (HourlyRevenueView row : payments.getTotalPaidByHourBetween(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            byHour[row.getHour()] += row.getRevenue();
+        }
+        return byHour;
+    }
+}
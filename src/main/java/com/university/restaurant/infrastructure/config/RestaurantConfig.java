@@ -3,11 +3,33 @@ package com.university.restaurant.infrastructure.config;
 import com.university.restaurant.infrastructure.adapter.*;
 import com.university.restaurant.infrastructure.adapter.mapper.*;
 import com.university.restaurant.infrastructure.jpa.*;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
 import com.university.restaurant.port.*;
 import com.university.restaurant.repository.*;
 import com.university.restaurant.service.*;
+import com.university.restaurant.service.analytics.AggregateAnalyticsService;
+import com.university.restaurant.service.analytics.CachingAnalyticsService;
+import com.university.restaurant.service.analytics.DistinctCountAnalytics;
+import com.university.restaurant.service.analytics.IncrementalAnalyticsService;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics;
+import com.university.restaurant.service.concurrent.AsyncOrderService;
+import com.university.restaurant.service.concurrent.ExecutionMode;
+import com.university.restaurant.service.concurrent.KitchenBatching;
+import com.university.restaurant.service.concurrent.KitchenIntake;
+import com.university.restaurant.service.concurrent.KitchenSchedulingPolicy;
+import com.university.restaurant.service.concurrent.KitchenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Spring Configuration for wiring the Hexagonal Architecture layers.
@@ -22,6 +44,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RestaurantConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(RestaurantConfig.class);
+
     // ========== ADAPTERS (Infrastructure → Application) ==========
 
     @Bean
@@ -50,8 +74,18 @@ public class RestaurantConfig {
     }
 
     @Bean
+    public SalesAnalyticsRepository salesAnalyticsRepository(OrderJpaRepository orders, PaymentJpaRepository payments) {
+        return new SalesAnalyticsJpaAdapter(orders, payments);
+    }
+
+    @Bean(destroyMethod = "close")
     public RestaurantAuditLogRepository auditLogRepository(AuditLogJpaRepository jpaRepo) {
-        return new AuditLogJpaAdapter(jpaRepo);
+        // Chain and hash on a single writer thread, batching inserts; the Merkle tree
+        // starts from the stored hashes and the writer extends it
+        AuditLogJpaAdapter adapter = new AuditLogJpaAdapter(jpaRepo);
+        MerkleAccumulator merkle = new MerkleAccumulator();
+        adapter.forEachHash(AuditLogJpaAdapter.DEFAULT_PAGE_SIZE, merkle::append);
+        return new AuditPipeline(adapter, AuditPipeline.DEFAULT_CAPACITY, AuditPipeline.DEFAULT_BATCH_SIZE, merkle);
     }
 
     // ========== SERVICES (Application Layer) ==========
@@ -68,26 +102,127 @@ public class RestaurantConfig {
         return new InventoryService(inventoryRepo, menuRepo, audits);
     }
 
-    @Bean
-    public OrderServicePort orderService(OrderRepository orderRepo, RestaurantAuditLogRepository audits) {
-        return new OrderService(orderRepo, audits);
+    @Bean(destroyMethod = "shutdown")
+    public OrderServicePort orderService(OrderRepository orderRepo,
+                                         RestaurantAuditLogRepository audits,
+                                         KitchenService kitchen,
+                                         @Value("${restaurant.kitchen.execution-mode:platform}") String mode,
+                                         IncrementalAnalyticsService analytics,
+                                         CachingAnalyticsService analyticsCache,
+                                         DistinctCountAnalytics distinctCounts) {
+        // Sends orders to the kitchen; its READY transitions reach the listeners below
+        AsyncOrderService service = new AsyncOrderService(orderRepo, audits, kitchen,
+                ExecutionMode.valueOf(mode.toUpperCase()));
+        service.addOrderEventListener(analytics);
+        service.addOrderEventListener(analyticsCache);
+        service.addOrderEventListener(distinctCounts);
+        return service;
     }
 
     @Bean
     public ReservationServicePort reservationService(ReservationRepository reservationRepo,
-                                                     RestaurantAuditLogRepository audits) {
-        return new ReservationService(reservationRepo, audits);
+                                                     RestaurantAuditLogRepository audits,
+                                                     DistinctCountAnalytics distinctCounts) {
+        ReservationService service = new ReservationService(reservationRepo, audits);
+        service.addReservationEventListener(distinctCounts);
+        return service;
     }
 
     @Bean
     public PaymentServicePort paymentService(OrderRepository orders,
                                              PaymentRepository payments,
-                                             RestaurantAuditLogRepository audits) {
-        return new PaymentService(orders, payments, audits);
+                                             RestaurantAuditLogRepository audits,
+                                             IncrementalAnalyticsService analytics,
+                                             CachingAnalyticsService analyticsCache,
+                                             DistinctCountAnalytics distinctCounts) {
+        PaymentService service = new PaymentService(orders, payments, audits);
+        service.addOrderEventListener(analytics);
+        service.addOrderEventListener(analyticsCache);
+        service.addOrderEventListener(distinctCounts);
+        return service;
+    }
+
+    @Bean
+    @Primary
+    public CachingAnalyticsService analyticsService(
+            SalesAnalyticsRepository sales,
+            @Value("${restaurant.analytics.cache-max-staleness:30s}") Duration maxStaleness,
+            @Value("${restaurant.analytics.cache-max-entries:1024}") int maxEntries) {
+        // Aggregates run in the database; orders cannot be read back as domain objects.
+        // Results are cached and kept current by order events from the services above.
+        return new CachingAnalyticsService(new AggregateAnalyticsService(sales),
+                maxStaleness, maxEntries, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public IncrementalAnalyticsService incrementalAnalyticsService(
+            OrderRepository orderRepo,
+            @Value("${restaurant.analytics.max-item-pairs:100000}") int maxItemPairs) {
+        // Top-selling and revenue queries go to the database through analyticsService, so only
+        // the sales cube and item pairs are kept here. Seeded from the served and paid orders
+        // in the store, then fed by order status events
+        IncrementalAnalyticsService analytics = IncrementalAnalyticsService.salesOnly(maxItemPairs,
+                Clock.systemDefaultZone());
+        try {
+            List<Order> history = new ArrayList<>(orderRepo.findByStatus(OrderStatus.SERVED));
+            history.addAll(orderRepo.findByStatus(OrderStatus.PAID));
+            analytics.replay(history);
+        } catch (UnsupportedOperationException e) {
+            log.info("Order store cannot read orders back; incremental analytics starts from live events");
+        }
+        return analytics;
+    }
+
+    @Bean
+    public DistinctCountAnalytics distinctCountAnalytics(
+            @Value("${restaurant.analytics.distinct-count-precision:12}") int precision) {
+        // One HyperLogLog per subject and day; only sees activity since startup
+        return new DistinctCountAnalytics(precision);
+    }
+
+    @Bean
+    public KitchenLatencyMetrics kitchenLatencyMetrics() {
+        return new KitchenLatencyMetrics();
+    }
+
+    @Bean
+    public KitchenSchedulingPolicy kitchenSchedulingPolicy(
+            @Value("${restaurant.kitchen.scheduling:fifo}") String scheduling,
+            @Value("${restaurant.kitchen.sla:20m}") Duration sla,
+            @Value("${restaurant.kitchen.aging-rate:0}") double agingRate) {
+        KitchenSchedulingPolicy policy = switch (scheduling) {
+            case "fifo" -> KitchenSchedulingPolicy.fifo();
+            case "shortest-prep-first" -> KitchenSchedulingPolicy.shortestPrepFirst();
+            case "earliest-deadline-first" -> KitchenSchedulingPolicy.earliestDeadlineFirst(sla);
+            default -> throw new IllegalArgumentException("Unknown kitchen scheduling policy: " + scheduling);
+        };
+        return policy.withAging(agingRate);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public KitchenService kitchenService(@Value("${restaurant.kitchen.workers:4}") int workers,
+                                         @Value("${restaurant.kitchen.execution-mode:platform}") String mode,
+                                         KitchenLatencyMetrics metrics,
+                                         KitchenSchedulingPolicy policy,
+                                         KitchenIntake intake,
+                                         KitchenBatching batching) {
+        // Virtual mode falls back to platform threads on runtimes older than Java 21
+        return new KitchenService(workers, metrics, policy, ExecutionMode.valueOf(mode.toUpperCase()), intake,
+                batching);
+    }
+
+    @Bean
+    public KitchenIntake kitchenIntake(@Value("${restaurant.kitchen.intake-capacity:500}") int capacity,
+                                       @Value("${restaurant.kitchen.overflow-policy:block}") String overflow,
+                                       @Value("${restaurant.kitchen.overflow-block-timeout:5s}") Duration blockTimeout) {
+        return new KitchenIntake(capacity, KitchenIntake.Overflow.valueOf(overflow.toUpperCase()), blockTimeout);
     }
 
     @Bean
-    public AnalyticsServicePort analyticsService(OrderRepository orders) {
-        return new AnalyticsService(orders);
+    public KitchenBatching kitchenBatching(@Value("${restaurant.kitchen.batch-window:200ms}") Duration window,
+                                           @Value("${restaurant.kitchen.batch-max-size:8}") int maxBatchSize,
+                                           @Value("${restaurant.kitchen.batch-setup-cost:400ms}") Duration setupCost,
+                                           @Value("${restaurant.kitchen.batch-unit-cost:100ms}") Duration unitCost) {
+        return new KitchenBatching(window, maxBatchSize, setupCost, unitCost);
     }
-}
\ No newline at end of file
+}
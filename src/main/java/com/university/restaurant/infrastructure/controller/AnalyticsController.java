@@ -1,11 +1,27 @@
 package com.university.restaurant.infrastructure.controller;
 
+import com.university.restaurant.model.analytics.ItemAssociation;
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.analytics.SalesSlice;
+import com.university.restaurant.model.payment.PaymentMethod;
 import com.university.restaurant.model.staff.Manager;
 import com.university.restaurant.port.AnalyticsServicePort;
+import com.university.restaurant.service.analytics.CachingAnalyticsService;
+import com.university.restaurant.service.analytics.DistinctCountAnalytics;
+import com.university.restaurant.service.analytics.IncrementalAnalyticsService;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics;
+import com.university.restaurant.service.analytics.LatencyHistogram;
+import com.university.restaurant.service.analytics.SalesCube;
+import com.university.restaurant.service.concurrent.KitchenService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,23 +35,43 @@ import java.util.Map;
 public class AnalyticsController {
 
     private final AnalyticsServicePort analyticsService;
+    private final IncrementalAnalyticsService incrementalAnalytics;
+    private final DistinctCountAnalytics distinctCounts;
+    private final KitchenLatencyMetrics kitchenLatency;
+    private final KitchenService kitchenService;
 
-    public AnalyticsController(AnalyticsServicePort analyticsService) {
+    public AnalyticsController(AnalyticsServicePort analyticsService,
+                               IncrementalAnalyticsService incrementalAnalytics,
+                               DistinctCountAnalytics distinctCounts,
+                               KitchenLatencyMetrics kitchenLatency,
+                               KitchenService kitchenService) {
         this.analyticsService = analyticsService;
+        this.incrementalAnalytics = incrementalAnalytics;
+        this.distinctCounts = distinctCounts;
+        this.kitchenLatency = kitchenLatency;
+        this.kitchenService = kitchenService;
     }
 
     /**
-     * GET /analytics/top-selling?staffId=m1&staffName=Alice
-     * Get top-selling menu items
+     * GET /analytics/top-selling?staffId=m1&staffName=Alice[&k=10]
+     * Get top-selling menu items; with k, only the k best sellers, ranked
      */
     @GetMapping("/top-selling")
     public ResponseEntity<?> getTopSellingItems(
             @RequestParam String staffId,
-            @RequestParam String staffName) {
+            @RequestParam String staffName,
+            @RequestParam(required = false) Integer k) {
         try {
             Manager manager = new Manager(staffId, staffName);
+            if (k != null) {
+                List<ItemSales> topK = analyticsService.topSellingItems(manager, k);
+                return ResponseEntity.ok(topK);
+            }
             Map<String, Long> topSelling = analyticsService.topSellingItems(manager);
             return ResponseEntity.ok(topSelling);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
         } catch (SecurityException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", e.getMessage()));
@@ -65,4 +101,275 @@ public class AnalyticsController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /analytics/revenue?staffId=m1&staffName=Alice&from=2024-05-01T00:00&to=2024-05-02T12:30
+     * Get revenue of payments completed in [from, to)
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<?> getRevenueBetween(
+            @RequestParam String staffId,
+            @RequestParam String staffName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            double revenue = analyticsService.revenueBetween(manager, from, to);
+            return ResponseEntity.ok(Map.of("from", from, "to", to, "revenue", revenue));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /analytics/revenue/hourly?staffId=m1&staffName=Alice&from=2024-05-01&to=2024-05-31
+     * Get revenue by hour of day over a range of days
+     */
+    @GetMapping("/revenue/hourly")
+    public ResponseEntity<?> getRevenueByHourOfDay(
+            @RequestParam String staffId,
+            @RequestParam String staffName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            double[] byHour = analyticsService.revenueByHourOfDay(manager, from, to);
+            return ResponseEntity.ok(Map.of("from", from, "to", to, "revenueByHour", byHour));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /analytics/sales?staffId=m1&staffName=Alice&groupBy=ITEM,HOUR[&from=...&to=...&item=Burger&waiter=w1&table=4&method=CASH]
+     * Get units and revenue of paid order lines since startup, filtered and grouped by
+     * ITEM, DAY, HOUR, WAITER, TABLE or PAYMENT_METHOD. Only lines paid within the last
+     * 732 days (IncrementalAnalyticsService.RETAINED_DAYS) are kept, capped at
+     * SalesCube.DEFAULT_MAX_ROWS lines with the oldest dropped first
+     */
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSalesSlices(
+            @RequestParam String staffId,
+            @RequestParam String staffName,
+            @RequestParam(required = false) List<SalesCube.Dimension> groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> item,
+            @RequestParam(required = false) List<String> waiter,
+            @RequestParam(required = false) List<Integer> table,
+            @RequestParam(required = false) List<PaymentMethod> method) {
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            SalesCube.Query query = SalesCube.Query.all();
+            if (groupBy != null) {
+                query.groupBy(groupBy.toArray(SalesCube.Dimension[]::new));
+            }
+            if (from != null || to != null) {
+                query.between(from != null ? from : LocalDateTime.MIN, to != null ? to : LocalDateTime.MAX);
+            }
+            if (item != null) {
+                query.items(item);
+            }
+            if (waiter != null) {
+                query.waiters(waiter);
+            }
+            if (table != null) {
+                query.tables(table);
+            }
+            if (method != null) {
+                query.paymentMethods(method);
+            }
+            List<SalesSlice> slices = incrementalAnalytics.salesBy(manager, query);
+            return ResponseEntity.ok(slices);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /analytics/ordered-together?staffId=m1&staffName=Alice[&item=Burger][&k=10][&minConfidence=0.2]
+     * Get the items most often ordered with an item, or the most common item pairs when no item is given
+     */
+    @GetMapping("/ordered-together")
+    public ResponseEntity<?> getItemsOrderedTogether(
+            @RequestParam String staffId,
+            @RequestParam String staffName,
+            @RequestParam(required = false) String item,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "0") double minConfidence) {
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            List<ItemAssociation> associations = item != null
+                    ? incrementalAnalytics.itemsOrderedWith(manager, item, k, minConfidence)
+                    : incrementalAnalytics.topItemPairs(manager, k);
+            return ResponseEntity.ok(associations);
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /analytics/distinct/customers?staffId=m1&staffName=Alice&from=2024-05-01&to=2024-05-31
+     * GET /analytics/distinct/tables?..., GET /analytics/distinct/waiters?...
+     * Get the estimated number of distinct customers (by phone), tables or waiters over a range of days
+     */
+    @GetMapping("/distinct/{subject}")
+    public ResponseEntity<?> getDistinctCount(
+            @PathVariable String subject,
+            @RequestParam String staffId,
+            @RequestParam String staffName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            DistinctCountAnalytics.Subject counted = DistinctCountAnalytics.Subject.valueOf(subject.toUpperCase());
+            long estimate = distinctCounts.distinctCount(manager, counted, from, to);
+            return ResponseEntity.ok(Map.of(
+                    "subject", counted,
+                    "from", from,
+                    "to", to,
+                    "estimate", estimate,
+                    "relativeStandardError", distinctCounts.relativeStandardError()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /analytics/kitchen/latency?staffId=m1&staffName=Alice[&interval=true]
+     * Get p50/p90/p99/p99.9 kitchen queue wait, prep and order-to-ready times in ms,
+     * per worker and per menu category; with interval=true, only since the previous interval request
+     */
+    @GetMapping("/kitchen/latency")
+    public ResponseEntity<?> getKitchenLatency(
+            @RequestParam String staffId,
+            @RequestParam String staffName,
+            @RequestParam(defaultValue = "false") boolean interval) {
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            KitchenLatencyMetrics.Report report = interval
+                    ? kitchenLatency.intervalLatency(manager)
+                    : kitchenLatency.latency(manager);
+            Map<String, Object> stages = new LinkedHashMap<>();
+            report.stages().forEach((stage, breakdown) -> {
+                Map<String, Object> byWorker = new LinkedHashMap<>();
+                breakdown.byWorker().forEach((id, snapshot) -> byWorker.put(String.valueOf(id), percentiles(snapshot)));
+                Map<String, Object> byCategory = new LinkedHashMap<>();
+                breakdown.byCategory().forEach((category, snapshot) -> byCategory.put(category.name(), percentiles(snapshot)));
+                stages.put(stage.name(), Map.of(
+                        "total", percentiles(breakdown.total()),
+                        "byWorker", byWorker,
+                        "byCategory", byCategory));
+            });
+            return ResponseEntity.ok(Map.of(
+                    "from", report.from(),
+                    "to", report.to(),
+                    "stages", stages));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /analytics/kitchen/intake?staffId=m1&staffName=Alice
+     * Get the kitchen's queued tickets against its intake capacity, and how many orders were
+     * admitted, rejected and shed
+     */
+    @GetMapping("/kitchen/intake")
+    public ResponseEntity<?> getKitchenIntake(
+            @RequestParam String staffId,
+            @RequestParam String staffName) {
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            KitchenService.IntakeStats stats = kitchenService.getIntakeStats(manager);
+            return ResponseEntity.ok(Map.of(
+                    "queuedTickets", stats.queuedTickets(),
+                    "capacity", stats.capacity(),
+                    "overflow", stats.overflow(),
+                    "admittedOrders", stats.admittedOrders(),
+                    "rejectedOrders", stats.rejectedOrders(),
+                    "shedOrders", stats.shedOrders()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static Map<String, Object> percentiles(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.count());
+        summary.put("meanMs", snapshot.mean() / 1e6);
+        summary.put("p50Ms", snapshot.valueAtPercentile(50) / 1e6);
+        summary.put("p90Ms", snapshot.valueAtPercentile(90) / 1e6);
+        summary.put("p99Ms", snapshot.valueAtPercentile(99) / 1e6);
+        summary.put("p99.9Ms", snapshot.valueAtPercentile(99.9) / 1e6);
+        summary.put("maxMs", snapshot.max() / 1e6);
+        return summary;
+    }
+
+    /**
+     * GET /analytics/cache?staffId=m1&staffName=Alice
+     * Get hit, miss and invalidation counts of the analytics result cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<?> getCacheStats(
+            @RequestParam String staffId,
+            @RequestParam String staffName) {
+        if (!(analyticsService instanceof CachingAnalyticsService cache)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Analytics results are not cached"));
+        }
+        try {
+            Manager manager = new Manager(staffId, staffName);
+            CachingAnalyticsService.CacheStats stats = cache.stats(manager);
+            return ResponseEntity.ok(Map.of(
+                    "hits", stats.hits(),
+                    "misses", stats.misses(),
+                    "hitRate", stats.hitRate(),
+                    "expirations", stats.expirations(),
+                    "invalidations", stats.invalidations()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -11,7 +11,9 @@ import com.university.restaurant.model.staff.Manager;
 import com.university.restaurant.model.staff.StaffRole;
 import com.university.restaurant.model.staff.Waiter;
 import com.university.restaurant.port.OrderServicePort;
+import com.university.restaurant.service.concurrent.KitchenOverloadedException;
 import com.university.restaurant.infrastructure.adapter.mapper.MenuItemMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -133,6 +135,11 @@ public class OrderController {
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(Map.of("message", "Order placed successfully"));
+        } catch (KitchenOverloadedException e) {
+            long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(Map.of("error", e.getMessage()));
         } catch (SecurityException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", e.getMessage()));
@@ -0,0 +1,15 @@
+package com.university.restaurant.infrastructure.jpa;
+
+/**
+ * Projection of an audit log row holding only the fields needed to check
+ * hash-chain links, so verification does not load details or timestamps.
+ *
+ * @author Mahdis (Infrastructure Layer)
+ */
+public interface AuditLinkView {
+    Long getId();
+
+    String getPrevHash();
+
+    String getHash();
+}
@@ -1,6 +1,7 @@
 package com.university.restaurant.infrastructure.jpa;
 
 import com.university.restaurant.infrastructure.entity.AuditLogEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -58,6 +59,27 @@ public interface AuditLogJpaRepository extends JpaRepository<AuditLogEntity, Lon
     @Query("SELECT a FROM AuditLogEntity a ORDER BY a.id DESC LIMIT 1")
     AuditLogEntity findMostRecent();
 
+    /**
+     * Next page of chain links after the given id, in id order (keyset pagination).
+     */
+    List<AuditLinkView> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable page);
+
+    /**
+     * Next page of chain links in the id range (afterId, upToId], in id order.
+     */
+    List<AuditLinkView> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long afterId, Long upToId, Pageable page);
+
+    /**
+     * Link of the last row at or before the given id, used as a range boundary.
+     */
+    AuditLinkView findTopByIdLessThanEqualOrderByIdDesc(Long id);
+
+    @Query("SELECT MIN(a.id) FROM AuditLogEntity a")
+    Long findMinId();
+
+    @Query("SELECT MAX(a.id) FROM AuditLogEntity a")
+    Long findMaxId();
+
     /**
      * Verify audit log chain integrity.
      */
@@ -0,0 +1,12 @@
+package com.university.restaurant.infrastructure.jpa;
+
+/**
+ * Projection of payment totals grouped by hour of day.
+ *
+ * @author Mahdis (Infrastructure Layer)
+ */
+public interface HourlyRevenueView {
+    Integer getHour();
+
+    Double getRevenue();
+}
@@ -0,0 +1,13 @@
+package com.university.restaurant.infrastructure.jpa;
+
+/**
+ * Projection of a GROUP BY over order items: one row per menu item name with
+ * its summed quantity, so analytics never loads order entities.
+ *
+ * @author Mahdis (Infrastructure Layer)
+ */
+public interface ItemSalesView {
+    String getItemName();
+
+    Long getUnitsSold();
+}
@@ -2,11 +2,13 @@ package com.university.restaurant.infrastructure.jpa;
 
 import com.university.restaurant.infrastructure.entity.OrderEntity;
 import com.university.restaurant.model.order.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -56,6 +58,30 @@ public interface OrderJpaRepository extends JpaRepository<OrderEntity, UUID> {
     @Query("SELECT SUM(o.totalAmount) FROM OrderEntity o WHERE o.status = 'PAID' AND o.createdAt >= :startDate")
     Double getTotalRevenueSince(OffsetDateTime startDate);
 
+    /**
+     * Get total revenue for paid orders created in [startDate, endDate).
+     */
+    @Query("SELECT SUM(o.totalAmount) FROM OrderEntity o WHERE o.status = 'PAID' " +
+            "AND o.createdAt >= :startDate AND o.createdAt < :endDate")
+    Double getTotalRevenueBetween(OffsetDateTime startDate, OffsetDateTime endDate);
+
+    /**
+     * Sum item quantities per menu item name over orders in the given statuses.
+     * Aggregated in the database; no order entities are loaded.
+     */
+    @Query("SELECT i.menuItemName AS itemName, SUM(i.quantity) AS unitsSold " +
+            "FROM OrderItemEntity i JOIN i.order o WHERE o.status IN :statuses " +
+            "GROUP BY i.menuItemName")
+    List<ItemSalesView> sumUnitsSoldByItem(Collection<OrderStatus> statuses);
+
+    /**
+     * Same as {@link #sumUnitsSoldByItem}, highest first; page size limits the rows.
+     */
+    @Query("SELECT i.menuItemName AS itemName, SUM(i.quantity) AS unitsSold " +
+            "FROM OrderItemEntity i JOIN i.order o WHERE o.status IN :statuses " +
+            "GROUP BY i.menuItemName ORDER BY SUM(i.quantity) DESC, i.menuItemName")
+    List<ItemSalesView> findTopUnitsSoldByItem(Collection<OrderStatus> statuses, Pageable pageable);
+
     /**
      * Count orders by status.
      */
@@ -55,4 +55,21 @@ public interface PaymentJpaRepository extends JpaRepository<PaymentEntity, Strin
      */
     @Query("SELECT SUM(p.amount) FROM PaymentEntity p WHERE p.method = :method")
     Double getTotalAmountByMethod(PaymentMethod method);
+
+    /**
+     * Get total payment amount in [startDate, endDate) for orders that are still paid.
+     */
+    @Query("SELECT SUM(p.amount) FROM PaymentEntity p JOIN p.order o " +
+            "WHERE o.status = 'PAID' AND p.timestamp >= :startDate AND p.timestamp < :endDate")
+    Double getTotalPaidBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Get payment totals grouped by hour of day in [startDate, endDate) for
+     * orders that are still paid.
+     */
+    @Query("SELECT EXTRACT(HOUR FROM p.timestamp) AS hour, SUM(p.amount) AS revenue " +
+            "FROM PaymentEntity p JOIN p.order o " +
+            "WHERE o.status = 'PAID' AND p.timestamp >= :startDate AND p.timestamp < :endDate " +
+            "GROUP BY EXTRACT(HOUR FROM p.timestamp)")
+    List<HourlyRevenueView> getTotalPaidByHourBetween(LocalDateTime startDate, LocalDateTime endDate);
 }
@@ -0,0 +1,19 @@
+package com.university.restaurant.model.analytics;
+
+/**
+ * How often two menu items are ordered together, as reported by
+ * market-basket analytics.
+ *
+ * @param itemName       the item the association is read from
+ * @param associatedItem the item ordered alongside it
+ * @param togetherCount  orders containing both items
+ * @param support        fraction of all orders containing both items
+ * @param confidence     fraction of orders containing {@code itemName} that
+ *                       also contain {@code associatedItem}
+ * @param lift           {@code confidence} divided by the fraction of orders
+ *                       containing {@code associatedItem}; above 1 means the
+ *                       items are ordered together more often than chance
+ */
+public record ItemAssociation(String itemName, String associatedItem, long togetherCount,
+                              double support, double confidence, double lift) {
+}
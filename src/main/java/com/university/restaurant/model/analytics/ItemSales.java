@@ -0,0 +1,18 @@
+package com.university.restaurant.model.analytics;
+
+/**
+ * Sales count for one menu item, as reported by top-K analytics.
+ *
+ * @param itemName menu item name
+ * @param count    units sold; an upper bound when {@code maxError} is positive
+ * @param maxError how much {@code count} may overstate the true number, so the
+ *                 true count lies in {@code [count - maxError, count]}; zero for
+ *                 exact results
+ */
+public record ItemSales(String itemName, long count, long maxError) {
+
+    /** Lower bound on the true number of units sold. */
+    public long guaranteedCount() {
+        return count - maxError;
+    }
+}
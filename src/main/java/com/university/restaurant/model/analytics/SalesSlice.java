@@ -0,0 +1,14 @@
+package com.university.restaurant.model.analytics;
+
+import java.util.List;
+
+/**
+ * Units sold and revenue for one group of a sliced sales query.
+ *
+ * @param key     one label per grouped dimension, in the order the dimensions
+ *                were requested; empty when nothing was grouped
+ * @param units   order lines in the group
+ * @param revenue revenue of those lines
+ */
+public record SalesSlice(List<String> key, long units, double revenue) {
+}
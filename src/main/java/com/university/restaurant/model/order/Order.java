@@ -2,11 +2,14 @@ package com.university.restaurant.model.order;
 
 import com.university.restaurant.model.payment.Payment;
 import com.university.restaurant.model.payment.PaymentMethod;
+import com.university.restaurant.model.menu.Combo;
 import com.university.restaurant.model.menu.MenuItem;
 
 import java.time.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 public final class Order {
     private final UUID id;
@@ -16,6 +19,8 @@ public final class Order {
     private OrderStatus status;
     private Payment payment;
     private String assignedWaiterId;
+    // Called with the previous status after every status change, e.g. to keep repository indexes current
+    private final CopyOnWriteArrayList<BiConsumer<Order, OrderStatus>> statusObservers = new CopyOnWriteArrayList<>();
 
     public Order(int tableNumber, String waiterId){
         this.id = UUID.randomUUID();
@@ -37,7 +42,9 @@ public final class Order {
     }
 
     public void updateStatus(OrderStatus newStatus){
+        OrderStatus previous = this.status;
         this.status = newStatus;
+        statusChanged(previous);
     }
 
     public void processPayment(PaymentMethod method){
@@ -46,12 +53,60 @@ public final class Order {
 
         this.payment = new Payment(method, calculateTotal());
         this.status = OrderStatus.PAID;
+        statusChanged(OrderStatus.SERVED);
+    }
+
+    /**
+     * Registers an observer called with the previous status on the thread
+     * that changed the status, after every change. Registering the same
+     * observer again has no effect.
+     */
+    public void observeStatus(BiConsumer<Order, OrderStatus> observer){
+        statusObservers.addIfAbsent(observer);
+    }
+
+    /** Removes an observer registered with {@link #observeStatus}. */
+    public void unobserveStatus(BiConsumer<Order, OrderStatus> observer){
+        statusObservers.remove(observer);
+    }
+
+    private void statusChanged(OrderStatus previous){
+        if (previous == status)
+            return;
+        for (BiConsumer<Order, OrderStatus> observer : statusObservers) {
+            observer.accept(this, previous);
+        }
     }
 
     public boolean requiresKitchenPrep(){
         return items.stream().anyMatch(MenuItem::requiresKitchenPrep);
     }
 
+    /**
+     * Counts how many units of each ingredient this order consumes. Combos are
+     * flattened to their component items, so an ingredient used by two items
+     * in a combo is counted twice. Keys are sorted by ingredient name.
+     */
+    public SortedMap<String, Integer> getIngredientRequirements(){
+        SortedMap<String, Integer> required = new TreeMap<>();
+        for (MenuItem item : items) {
+            addIngredients(item, required);
+        }
+        return required;
+    }
+
+    private static void addIngredients(MenuItem item, Map<String, Integer> required){
+        if (item instanceof Combo combo) {
+            for (MenuItem part : combo.getItems()) {
+                addIngredients(part, required);
+            }
+            return;
+        }
+        for (String ingredient : item.getRequiredIngredients()) {
+            required.merge(ingredient, 1, Integer::sum);
+        }
+    }
+
     @Override
     public String toString(){
         return "Order[%s | Table=%d | Items=%d | Total=$%.2f | Status=%s]"
@@ -70,5 +125,10 @@ public final class Order {
 
     public Payment getPayment(){ return payment; }
 
+    /** Payment time of a paid order, falling back to its creation time. */
+    public LocalDateTime getPaidAt() {
+        return payment != null ? payment.getTimestamp() : createdAt;
+    }
+
     public String getAssignedWaiterId() { return assignedWaiterId; }
 }
@@ -1,7 +1,12 @@
 package com.university.restaurant.port;
 
+import com.university.restaurant.model.analytics.ItemSales;
 import com.university.restaurant.model.staff.StaffRole;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -38,6 +43,34 @@ public interface AnalyticsServicePort {
      */
     Map<String, Long> topSellingItems(StaffRole actor);
 
+    /**
+     * Returns the {@code k} best-selling menu items, highest count first.
+     * <p>
+     * The default implementation ranks the exact counts from
+     * {@link #topSellingItems(StaffRole)}. Implementations backed by a
+     * bounded sketch may return approximate counts, reporting the possible
+     * overestimate in {@link ItemSales#maxError()}.
+     * </p>
+     *
+     * @param actor the staff role requesting analytics access; used to validate permissions
+     * @param k     maximum number of items to return
+     * @return up to {@code k} items ordered by descending count
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    default List<ItemSales> topSellingItems(StaffRole actor, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        return topSellingItems(actor).entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(k)
+                .map(e -> new ItemSales(e.getKey(), e.getValue(), 0))
+                .toList();
+    }
+
     /**
      * Calculates the total revenue generated from paid orders for the current day.
      * <p>
@@ -54,4 +87,34 @@ public interface AnalyticsServicePort {
      * @throws SecurityException if the role is not authorized to view revenue analytics
      */
     double totalRevenueToday(StaffRole actor);
+
+    /**
+     * Calculates the revenue of payments completed in {@code [from, to)}.
+     * <p>
+     * A paid order counts at its payment timestamp, or at its creation time
+     * if it was marked paid without a payment record.
+     * </p>
+     *
+     * @param actor the staff role requesting the revenue data; used to enforce access control
+     * @param from  start of the window, inclusive
+     * @param to    end of the window, exclusive
+     * @return the revenue in the window
+     *
+     * @throws SecurityException if the role is not authorized to view revenue analytics
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    double revenueBetween(StaffRole actor, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Breaks down the revenue of payments completed on the days {@code from}
+     * to {@code to}, inclusive, by hour of day.
+     *
+     * @param actor the staff role requesting the revenue data; used to enforce access control
+     * @param from  first day to include
+     * @param to    last day to include
+     * @return 24 revenue totals, index 0 covering 00:00 to 01:00
+     *
+     * @throws SecurityException if the role is not authorized to view revenue analytics
+     */
+    double[] revenueByHourOfDay(StaffRole actor, LocalDate from, LocalDate to);
 }
@@ -1,5 +1,6 @@
 package com.university.restaurant.port;
 
+import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.staff.StaffRole;
 
 /**
@@ -65,6 +66,29 @@ public interface InventoryServicePort {
      */
     void increaseStock(StaffRole actor, String itemId, int qty);
 
+    /**
+     * Consumes every ingredient an order needs as a single all-or-nothing step.
+     * <p>
+     * Implementations should:
+     * </p>
+     * <ul>
+     *     <li>Validate actor permissions</li>
+     *     <li>Resolve each ingredient in {@link Order#getIngredientRequirements()} to an
+     *         inventory item by name, with combos already flattened</li>
+     *     <li>Check that every item has enough stock before consuming any of it</li>
+     *     <li>Leave all stock levels unchanged if any part of the reservation fails</li>
+     *     <li>Record a single audit entry for the whole order</li>
+     * </ul>
+     *
+     * @param actor the staff role performing the reservation
+     * @param order the order whose ingredients are reserved
+     *
+     * @throws SecurityException        if the actor lacks permission
+     * @throws IllegalArgumentException if an ingredient has no inventory item
+     * @throws IllegalStateException    if any ingredient has insufficient stock
+     */
+    void reserveIngredients(StaffRole actor, Order order);
+
     /**
      * Retrieves the current stock level for a particular inventory item.
      *
@@ -0,0 +1,31 @@
+package com.university.restaurant.port;
+
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+
+/**
+ * <p>
+ * Outbound port notified whenever an order moves between lifecycle states.
+ * Services that change an order's status (placing, kitchen completion,
+ * status updates, payment) publish a transition after the change has been
+ * applied, so listeners such as incremental analytics can keep running
+ * aggregates instead of rescanning order history.
+ * </p>
+ *
+ * <p>
+ * Listeners are invoked synchronously on the thread that made the change and
+ * must therefore be fast and thread-safe.
+ * </p>
+ */
+@FunctionalInterface
+public interface OrderEventListener {
+
+    /**
+     * Called after an order's status changed.
+     *
+     * @param order the order, already in its new state
+     * @param from  the previous status, or {@code null} for a newly placed order
+     * @param to    the new status
+     */
+    void onStatusChanged(Order order, OrderStatus from, OrderStatus to);
+}
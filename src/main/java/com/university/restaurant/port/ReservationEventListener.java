@@ -0,0 +1,26 @@
+package com.university.restaurant.port;
+
+import com.university.restaurant.model.reservation.Reservation;
+
+/**
+ * <p>
+ * Outbound port notified whenever a reservation is created, after it has
+ * been saved. Used by analytics that count customers without rescanning the
+ * reservation store.
+ * </p>
+ *
+ * <p>
+ * Listeners are invoked synchronously on the thread that created the
+ * reservation and must therefore be fast and thread-safe.
+ * </p>
+ */
+@FunctionalInterface
+public interface ReservationEventListener {
+
+    /**
+     * Called after a reservation was created.
+     *
+     * @param reservation the saved reservation
+     */
+    void onReservationCreated(Reservation reservation);
+}
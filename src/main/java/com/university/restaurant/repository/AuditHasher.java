@@ -0,0 +1,198 @@
+package com.university.restaurant.repository;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+
+/**
+ * SHA-256 hashing for {@link RestaurantAuditEntry} without per-entry garbage.
+ * <p>
+ * Each thread reuses one {@link MessageDigest} and one scratch buffer. Fields
+ * are encoded as UTF-8 straight into the buffer instead of being concatenated
+ * into a String first, and the digest is hex-encoded through a lookup table.
+ * </p>
+ * <p>
+ * The bytes fed to the digest are exactly those of the original
+ * {@code userId + role + action + entityType + entityId + details + timestamp + prevHash}
+ * string (with {@code null} fields written as {@code "null"}), so hashes match
+ * entries already chained by earlier versions and existing logs keep
+ * verifying. Callers that store hashes in binary can use {@link #digest} for
+ * the raw 32 bytes.
+ * </p>
+ */
+public final class AuditHasher {
+
+    public static final int HASH_BYTES = 32;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int BUFFER_SIZE = 512;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private AuditHasher() {
+    }
+
+    /**
+     * Returns the lowercase hex SHA-256 of an entry's fields.
+     */
+    public static String hash(String userId, String role, String action, String entityType,
+                              String entityId, String details, LocalDateTime timestamp, String prevHash) {
+        State s = STATE.get();
+        s.feed(userId, role, action, entityType, entityId, details, timestamp, prevHash);
+        try {
+            s.md.digest(s.out, 0, HASH_BYTES);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        return toHex(s.out, s.hex);
+    }
+
+    /**
+     * Returns the raw 32-byte SHA-256 of an entry's fields.
+     */
+    public static byte[] digest(String userId, String role, String action, String entityType,
+                                String entityId, String details, LocalDateTime timestamp, String prevHash) {
+        State s = STATE.get();
+        s.feed(userId, role, action, entityType, entityId, details, timestamp, prevHash);
+        return s.md.digest();
+    }
+
+    /**
+     * Encodes bytes as lowercase hex.
+     */
+    public static String toHex(byte[] bytes) {
+        return toHex(bytes, new char[bytes.length * 2]);
+    }
+
+    private static String toHex(byte[] bytes, char[] chars) {
+        for (int i = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xff;
+            chars[i * 2] = HEX[v >>> 4];
+            chars[i * 2 + 1] = HEX[v & 0x0f];
+        }
+        return new String(chars, 0, bytes.length * 2);
+    }
+
+    /** Per-thread digest plus scratch space for encoding. */
+    private static final class State {
+        final MessageDigest md;
+        final byte[] buf = new byte[BUFFER_SIZE];
+        final byte[] out = new byte[HASH_BYTES];
+        final char[] hex = new char[HASH_BYTES * 2];
+        int len;
+
+        State() {
+            try {
+                md = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void feed(String userId, String role, String action, String entityType,
+                  String entityId, String details, LocalDateTime timestamp, String prevHash) {
+            md.reset();
+            len = 0;
+            put(userId);
+            put(role);
+            put(action);
+            put(entityType);
+            put(entityId);
+            put(details);
+            put(timestamp);
+            put(prevHash);
+            drain();
+        }
+
+        private void drain() {
+            md.update(buf, 0, len);
+            len = 0;
+        }
+
+        private void ensure(int n) {
+            if (len + n > buf.length) {
+                drain();
+            }
+        }
+
+        private void put(String s) {
+            if (s == null) {
+                s = "null";
+            }
+            int n = s.length();
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                ensure(4);
+                if (c < 0x80) {
+                    buf[len++] = (byte) c;
+                } else if (c < 0x800) {
+                    buf[len++] = (byte) (0xc0 | (c >> 6));
+                    buf[len++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    buf[len++] = (byte) (0xf0 | (cp >> 18));
+                    buf[len++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    buf[len++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    buf[len++] = (byte) (0x80 | (cp & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate; String.getBytes(UTF_8) writes '?'
+                    buf[len++] = (byte) '?';
+                } else {
+                    buf[len++] = (byte) (0xe0 | (c >> 12));
+                    buf[len++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buf[len++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+        }
+
+        // Same text as LocalDateTime.toString(), without building it
+        private void put(LocalDateTime t) {
+            if (t == null) {
+                put((String) null);
+                return;
+            }
+            int year = t.getYear();
+            if (year < 0 || year > 9999) {
+                put(t.toString());
+                return;
+            }
+            ensure(29);
+            digits(year, 4);
+            buf[len++] = '-';
+            digits(t.getMonthValue(), 2);
+            buf[len++] = '-';
+            digits(t.getDayOfMonth(), 2);
+            buf[len++] = 'T';
+            digits(t.getHour(), 2);
+            buf[len++] = ':';
+            digits(t.getMinute(), 2);
+
+            int second = t.getSecond();
+            int nano = t.getNano();
+            if (second > 0 || nano > 0) {
+                buf[len++] = ':';
+                digits(second, 2);
+                if (nano > 0) {
+                    buf[len++] = '.';
+                    if (nano % 1_000_000 == 0) {
+                        digits(nano / 1_000_000, 3);
+                    } else if (nano % 1000 == 0) {
+                        digits(nano / 1000, 6);
+                    } else {
+                        digits(nano, 9);
+                    }
+                }
+            }
+        }
+
+        private void digits(int value, int width) {
+            for (int i = len + width - 1; i >= len; i--) {
+                buf[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            len += width;
+        }
+    }
+}
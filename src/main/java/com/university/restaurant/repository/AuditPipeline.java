@@ -0,0 +1,388 @@
+package com.university.restaurant.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, single-writer front end for a {@link RestaurantAuditLogRepository}.
+ * <p>
+ * Callers publish audit records into a fixed-size ring buffer and return
+ * immediately. One writer thread takes records in sequence order, links each
+ * to the hash of the entry before it, computes the SHA-256 and writes the
+ * chained entries to the backing repository in batches through
+ * {@link RestaurantAuditLogRepository#appendAll(List)}. Because only the
+ * writer ever reads the tail, two entries can never share a predecessor, and
+ * callers no longer pay for hashing or a tail lookup on every append.
+ * </p>
+ * <p>
+ * Entries handed to {@link #append(RestaurantAuditEntry)} are re-chained by
+ * the writer, so services that still build entries with {@link #tailHash()}
+ * stay correct. Callers that must know an entry is stored use
+ * {@link #submit}, whose future completes once its batch has been written.
+ * When the ring is full, producers wait for the writer to catch up.
+ * </p>
+ * <p>
+ * A batch the backing repository fails to write is retried, re-chained to
+ * a freshly read tail each time. If every attempt fails, each entry is
+ * logged before the batch is given up, so no record disappears silently.
+ * </p>
+ * <p>
+ * The writer appends the hash of every entry it stores to a
+ * {@link MerkleAccumulator}. Pass one already holding the store's existing
+ * entries to cover the whole log; otherwise the tree starts with the first
+ * entry written through the pipeline.
+ * </p>
+ */
+public final class AuditPipeline implements RestaurantAuditLogRepository, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 128;
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPipeline.class);
+
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    // Set in the claim counter once the pipeline stops accepting records
+    private static final long CLOSED = Long.MIN_VALUE;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RestaurantAuditLogRepository store;
+    private final MerkleAccumulator merkle;
+    private final Slot[] ring;
+    private final int mask;
+    private final int batchSize;
+
+    // Next sequence handed to a producer, plus the CLOSED bit
+    private final AtomicLong claimed = new AtomicLong();
+    // Every sequence below this has been written or failed, and its slot is free
+    private final AtomicLong released = new AtomicLong();
+    private final Object flushMonitor = new Object();
+
+    private final Thread writer;
+    private volatile boolean writerParked;
+
+    // Hash of the last entry written; only the writer assigns it
+    private volatile String tail;
+
+    public AuditPipeline(RestaurantAuditLogRepository store) {
+        this(store, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param store     repository the chained entries are written to
+     * @param capacity  ring size; must be a power of two
+     * @param batchSize maximum number of entries per write to {@code store}
+     */
+    public AuditPipeline(RestaurantAuditLogRepository store, int capacity, int batchSize) {
+        this(store, capacity, batchSize, new MerkleAccumulator());
+    }
+
+    /**
+     * @param store     repository the chained entries are written to
+     * @param capacity  ring size; must be a power of two
+     * @param batchSize maximum number of entries per write to {@code store}
+     * @param merkle    tree whose leaves are the entries already in {@code store}
+     */
+    public AuditPipeline(RestaurantAuditLogRepository store, int capacity, int batchSize, MerkleAccumulator merkle) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.store = store;
+        this.merkle = merkle;
+        this.ring = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.batchSize = Math.min(batchSize, capacity);
+
+        this.writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Publishes a record and returns a future that completes with the chained
+     * entry once it has been written to the backing repository, or
+     * exceptionally if that write failed.
+     *
+     * @throws IllegalStateException if the pipeline has been closed
+     */
+    public CompletableFuture<RestaurantAuditEntry> submit(String userId, String role, String action,
+                                                          String entityType, String entityId, String details) {
+        CompletableFuture<RestaurantAuditEntry> done = new CompletableFuture<>();
+        publish(userId, role, action, entityType, entityId, details, LocalDateTime.now(), done);
+        return done;
+    }
+
+    /**
+     * Publishes a record without waiting for it to be written.
+     *
+     * @return always {@code null}; use {@link #submit} to obtain the entry
+     */
+    @Override
+    public RestaurantAuditEntry appendChained(String userId, String role, String action,
+                                              String entityType, String entityId, String details) {
+        publish(userId, role, action, entityType, entityId, details, LocalDateTime.now(), null);
+        return null;
+    }
+
+    /**
+     * Publishes an entry built by the caller. Its {@code prevHash} is ignored:
+     * the writer re-chains it to the true tail, keeping its timestamp.
+     */
+    @Override
+    public void append(RestaurantAuditEntry entry) {
+        publish(entry.userId, entry.role, entry.action, entry.entityType, entry.entityId,
+                entry.details, entry.timestamp, null);
+    }
+
+    @Override
+    public void appendAll(List<RestaurantAuditEntry> entries) {
+        for (RestaurantAuditEntry entry : entries) {
+            append(entry);
+        }
+    }
+
+    @Override
+    public List<RestaurantAuditEntry> all() {
+        flush();
+        return store.all();
+    }
+
+    @Override
+    public boolean verifyChain() {
+        flush();
+        return store.verifyChain();
+    }
+
+    /**
+     * Returns the hash of the last entry written. Records still in the ring
+     * are not reflected; they are chained by the writer regardless.
+     */
+    @Override
+    public String tailHash() {
+        String t = tail;
+        return t != null ? t : store.tailHash();
+    }
+
+    /**
+     * Merkle tree whose leaves are the entry hashes, in log order. Records
+     * still in the ring are not reflected; call {@link #flush()} first.
+     */
+    public MerkleAccumulator merkleTree() {
+        return merkle;
+    }
+
+    /**
+     * Blocks until every record published before this call has been written
+     * or has failed.
+     */
+    public void flush() {
+        long target = claimed.get() & ~CLOSED;
+        while (released.get() < target) {
+            LockSupport.unpark(writer);
+            synchronized (flushMonitor) {
+                if (released.get() < target) {
+                    try {
+                        flushMonitor.wait(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting records, writes everything already published and stops
+     * the writer thread.
+     */
+    @Override
+    public void close() {
+        long c;
+        do {
+            c = claimed.get();
+        } while ((c & CLOSED) == 0 && !claimed.compareAndSet(c, c | CLOSED));
+
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(String userId, String role, String action, String entityType,
+                         String entityId, String details, LocalDateTime timestamp,
+                         CompletableFuture<RestaurantAuditEntry> done) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if ((seq & CLOSED) != 0) {
+                throw new IllegalStateException("Audit pipeline is closed");
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        // Wait for the writer to free this slot
+        while (seq - released.get() >= ring.length) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(1_000);
+        }
+
+        Slot slot = ring[(int) seq & mask];
+        slot.userId = userId;
+        slot.role = role;
+        slot.action = action;
+        slot.entityType = entityType;
+        slot.entityId = entityId;
+        slot.details = details;
+        slot.timestamp = timestamp;
+        slot.done = done;
+        slot.published = seq;
+
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        List<RestaurantAuditEntry> batch = new ArrayList<>(batchSize);
+        List<CompletableFuture<RestaurantAuditEntry>> waiting = new ArrayList<>(batchSize);
+        long next = 0;
+
+        while (true) {
+            int n = 0;
+            while (n < batchSize && ring[(int) (next + n) & mask].published == next + n) {
+                n++;
+            }
+
+            if (n == 0) {
+                long c = claimed.get();
+                if ((c & CLOSED) != 0 && next == (c & ~CLOSED)) {
+                    return;
+                }
+                writerParked = true;
+                if (ring[(int) next & mask].published != next) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                writerParked = false;
+                continue;
+            }
+
+            try {
+                writeBatch(next, n, batch, waiting);
+            } catch (Throwable e) {
+                // Keep the only writer alive, or producers and flush() would wait forever
+                log.error("Audit writer failed on records {}..{}", next, next + n - 1, e);
+                tail = null;
+                for (int i = 0; i < n; i++) {
+                    Slot slot = ring[(int) (next + i) & mask];
+                    if (slot.done != null) {
+                        slot.done.completeExceptionally(e);
+                    }
+                    slot.clear();
+                }
+            }
+            next += n;
+            released.set(next);
+            synchronized (flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void writeBatch(long first, int n, List<RestaurantAuditEntry> batch,
+                            List<CompletableFuture<RestaurantAuditEntry>> waiting) {
+        waiting.clear();
+        for (int i = 0; i < n; i++) {
+            waiting.add(ring[(int) (first + i) & mask].done);
+        }
+
+        RuntimeException failure = null;
+        for (int attempt = 1; attempt <= WRITE_ATTEMPTS; attempt++) {
+            try {
+                String prev = tail;
+                if (prev == null) {
+                    prev = store.tailHash();
+                }
+                chain(first, n, prev, batch);
+                store.appendAll(batch);
+                tail = batch.get(n - 1).hash;
+                failure = null;
+                for (RestaurantAuditEntry entry : batch) {
+                    merkle.append(entry.hash);
+                }
+                break;
+            } catch (RuntimeException e) {
+                // Nothing from this batch is trusted; re-read the tail next time
+                tail = null;
+                failure = e;
+                log.warn("Audit batch of {} failed (attempt {} of {})", n, attempt, WRITE_ATTEMPTS, e);
+                if (attempt < WRITE_ATTEMPTS) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_BACKOFF_MILLIS * attempt));
+                }
+            }
+        }
+
+        if (failure != null) {
+            for (int i = 0; i < n; i++) {
+                Slot slot = ring[(int) (first + i) & mask];
+                log.error("Audit record lost: user={} role={} action={} {}={} at {}: {}", slot.userId, slot.role,
+                        slot.action, slot.entityType, slot.entityId, slot.timestamp, slot.details);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            ring[(int) (first + i) & mask].clear();
+            CompletableFuture<RestaurantAuditEntry> done = waiting.get(i);
+            if (done == null) {
+                continue;
+            }
+            if (failure != null) {
+                done.completeExceptionally(failure);
+            } else {
+                done.complete(batch.get(i));
+            }
+        }
+    }
+
+    /** Builds the entries of a batch, linked to each other and to {@code prev}. */
+    private void chain(long first, int n, String prev, List<RestaurantAuditEntry> batch) {
+        batch.clear();
+        for (int i = 0; i < n; i++) {
+            Slot slot = ring[(int) (first + i) & mask];
+            RestaurantAuditEntry entry = new RestaurantAuditEntry(
+                    slot.userId, slot.role, slot.action, slot.entityType,
+                    slot.entityId, slot.details, prev, slot.timestamp);
+            prev = entry.hash;
+            batch.add(entry);
+        }
+    }
+
+    private static final class Slot {
+        String userId, role, action, entityType, entityId, details;
+        LocalDateTime timestamp;
+        CompletableFuture<RestaurantAuditEntry> done;
+        // Sequence of the record currently held; written last by the producer
+        volatile long published = -1;
+
+        void clear() {
+            userId = role = action = entityType = entityId = details = null;
+            timestamp = null;
+            done = null;
+        }
+    }
+}
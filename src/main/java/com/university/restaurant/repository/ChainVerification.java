@@ -0,0 +1,22 @@
+package com.university.restaurant.repository;
+
+/**
+ * Outcome of an audit chain verification.
+ *
+ * @param valid          whether every checked link was intact
+ * @param entriesChecked number of entries examined
+ * @param firstBrokenAt  position of the first entry whose {@code prevHash} does not
+ *                       match its predecessor (or whose own hash is wrong), or
+ *                       {@code -1} if the chain is valid; an index for in-memory
+ *                       logs and a row id for database-backed ones
+ */
+public record ChainVerification(boolean valid, long entriesChecked, long firstBrokenAt) {
+
+    public static ChainVerification ok(long entriesChecked) {
+        return new ChainVerification(true, entriesChecked, -1);
+    }
+
+    public static ChainVerification brokenAt(long entriesChecked, long position) {
+        return new ChainVerification(false, entriesChecked, position);
+    }
+}
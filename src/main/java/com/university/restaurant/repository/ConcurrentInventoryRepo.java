@@ -0,0 +1,86 @@
+package com.university.restaurant.repository;
+
+import com.university.restaurant.model.inventory.InventoryItem;
+import com.university.restaurant.model.inventory.StockStatus;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe inventory store for the concurrent services.
+ * Reads are lock-free; writes to the same item are serialized on a lock
+ * stripe so the name and status indexes move together with the item.
+ */
+public final class ConcurrentInventoryRepo implements InventoryRepository {
+    private static final int STRIPES = 64;
+
+    private final Map<String, InventoryItem> store = new ConcurrentHashMap<>();
+    private final Map<String, String> idByName = new ConcurrentHashMap<>();
+    private final Map<String, StockStatus> indexedStatus = new ConcurrentHashMap<>();
+    private final Map<StockStatus, Set<String>> byStatus = new EnumMap<>(StockStatus.class);
+    private final Object[] locks = new Object[STRIPES];
+
+    public ConcurrentInventoryRepo() {
+        for (StockStatus status : StockStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Optional<InventoryItem> findById(String id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public Optional<InventoryItem> findByName(String name) {
+        String id = idByName.get(name.toLowerCase());
+        return id == null ? Optional.empty() : Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public List<InventoryItem> findByStatus(StockStatus status) {
+        List<InventoryItem> result = new ArrayList<>();
+        for (String id : byStatus.get(status)) {
+            InventoryItem item = store.get(id);
+            // An item may briefly sit in two buckets while it is being moved
+            if (item != null && item.getStatus() == status) {
+                result.add(item);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    @Override
+    public void save(InventoryItem item) {
+        String id = item.getId();
+        synchronized (lockFor(id)) {
+            InventoryItem previous = store.put(id, item);
+            if (previous != null && !previous.getName().equalsIgnoreCase(item.getName())) {
+                idByName.remove(previous.getName().toLowerCase(), id);
+            }
+            idByName.put(item.getName().toLowerCase(), id);
+
+            StockStatus status = item.getStatus();
+            StockStatus old = indexedStatus.put(id, status);
+            if (old != status) {
+                // Add before remove so lock-free readers never miss the item
+                byStatus.get(status).add(id);
+                if (old != null) {
+                    byStatus.get(old).remove(id);
+                }
+            }
+        }
+    }
+
+    private Object lockFor(String id) {
+        return locks[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
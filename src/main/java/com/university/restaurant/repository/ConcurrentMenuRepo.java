@@ -0,0 +1,73 @@
+package com.university.restaurant.repository;
+
+import com.university.restaurant.model.menu.MenuCategory;
+import com.university.restaurant.model.menu.MenuItem;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe menu store for the concurrent services.
+ * Reads are lock-free; writes to the same item are serialized on a lock
+ * stripe so the category index stays consistent with the stored item.
+ */
+public final class ConcurrentMenuRepo implements MenuRepository {
+    private static final int STRIPES = 64;
+
+    private final Map<String, MenuItem> store = new ConcurrentHashMap<>();
+    private final Map<MenuCategory, Set<String>> byCategory = new EnumMap<>(MenuCategory.class);
+    private final Object[] locks = new Object[STRIPES];
+
+    public ConcurrentMenuRepo() {
+        for (MenuCategory category : MenuCategory.values()) {
+            byCategory.put(category, ConcurrentHashMap.newKeySet());
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Optional<MenuItem> findById(String id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public List<MenuItem> findByCategory(MenuCategory category) {
+        List<MenuItem> result = new ArrayList<>();
+        for (String id : byCategory.get(category)) {
+            MenuItem item = store.get(id);
+            if (item != null && item.getCategory() == category) {
+                result.add(item);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    @Override
+    public List<MenuItem> search(Predicate<MenuItem> filter) {
+        return store.values().stream().filter(filter).toList();
+    }
+
+    @Override
+    public void save(MenuItem item) {
+        String id = item.getId();
+        synchronized (lockFor(id)) {
+            MenuItem previous = store.put(id, item);
+            byCategory.get(item.getCategory()).add(id);
+            if (previous != null && previous.getCategory() != item.getCategory()) {
+                byCategory.get(previous.getCategory()).remove(id);
+            }
+        }
+    }
+
+    private Object lockFor(String id) {
+        return locks[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
@@ -0,0 +1,86 @@
+package com.university.restaurant.repository;
+
+import com.university.restaurant.model.reservation.Reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe reservation store for the concurrent services.
+ * Reads are lock-free; writes to the same reservation are serialized on a
+ * lock stripe so the date and active indexes stay consistent with the store.
+ */
+public final class ConcurrentReservationRepo implements ReservationRepository {
+    private static final int STRIPES = 64;
+
+    private final Map<UUID, Reservation> store = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Set<UUID>> byDate = new ConcurrentHashMap<>();
+    private final Set<UUID> active = ConcurrentHashMap.newKeySet();
+    private final Object[] locks = new Object[STRIPES];
+
+    public ConcurrentReservationRepo() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Optional<Reservation> findById(UUID id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public List<Reservation> findByDate(LocalDate date) {
+        Set<UUID> ids = byDate.get(date);
+        if (ids == null) {
+            return List.of();
+        }
+        List<Reservation> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Reservation reservation = store.get(id);
+            if (reservation != null) {
+                result.add(reservation);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    @Override
+    public List<Reservation> findActive() {
+        List<Reservation> result = new ArrayList<>();
+        for (UUID id : active) {
+            Reservation reservation = store.get(id);
+            if (reservation != null && reservation.isActive()) {
+                result.add(reservation);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    @Override
+    public void save(Reservation reservation) {
+        UUID id = reservation.getId();
+        synchronized (lockFor(id)) {
+            if (store.put(id, reservation) == null) {
+                // Reservation time is fixed for the life of a reservation
+                byDate.computeIfAbsent(reservation.getReservationTime().toLocalDate(),
+                        d -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            if (reservation.isActive()) {
+                active.add(id);
+            } else {
+                active.remove(id);
+            }
+        }
+    }
+
+    private Object lockFor(UUID id) {
+        return locks[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
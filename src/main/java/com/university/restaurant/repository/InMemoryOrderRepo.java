@@ -4,31 +4,91 @@ import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.order.OrderStatus;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
+/**
+ * In-memory order store with secondary indexes on status and table number.
+ * Indexes are maintained on {@link #save(Order)}, so lookups cost time
+ * proportional to the result size rather than to every order ever stored.
+ * A stored order is moved to its new status bucket as soon as its status
+ * changes, whether or not it is saved again. Only the instance currently
+ * stored for an id is observed; saving another instance with the same id
+ * detaches the repository from the one it replaces.
+ */
 public final class InMemoryOrderRepo implements OrderRepository {
     private final Map<UUID, Order> store = new HashMap<>();
 
+    // Status each order was indexed under at its last save
+    private final Map<UUID, OrderStatus> indexedStatus = new HashMap<>();
+    private final Map<OrderStatus, Set<UUID>> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<Integer, List<UUID>> byTable = new HashMap<>();
+
+    // One observer per repository, so an instance saved repeatedly holds it once
+    private final BiConsumer<Order, OrderStatus> reindexer = (changed, from) -> reindex(changed);
+
+    public InMemoryOrderRepo() {
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, new LinkedHashSet<>());
+        }
+    }
+
     @Override
-    public Optional<Order> findById(UUID id) {
+    public synchronized Optional<Order> findById(UUID id) {
         return Optional.ofNullable(store.get(id));
     }
 
     @Override
-    public List<Order> findByStatus(OrderStatus status) {
-        return store.values().stream()
-                .filter(order -> order.getStatus() == status)
-                .toList();
+    public synchronized List<Order> findByStatus(OrderStatus status) {
+        Set<UUID> ids = byStatus.get(status);
+        List<Order> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            result.add(store.get(id));
+        }
+        return Collections.unmodifiableList(result);
     }
 
     @Override
-    public List<Order> findByTable(int tableNumber) {
-        return store.values().stream()
-                .filter(order -> order.getTableNumber() == tableNumber)
-                .toList();
+    public synchronized List<Order> findByTable(int tableNumber) {
+        List<UUID> ids = byTable.getOrDefault(tableNumber, List.of());
+        List<Order> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            result.add(store.get(id));
+        }
+        return Collections.unmodifiableList(result);
     }
 
     @Override
-    public void save(Order order) {
-        store.put(order.getId(), order);
+    public synchronized void save(Order order) {
+        UUID id = order.getId();
+        OrderStatus status = order.getStatus();
+        Order replaced = store.put(id, order);
+        if (replaced == null) {
+            // Table number is fixed for the life of an order
+            byTable.computeIfAbsent(order.getTableNumber(), t -> new ArrayList<>()).add(id);
+        }
+        if (replaced != order) {
+            if (replaced != null) {
+                replaced.unobserveStatus(reindexer);
+            }
+            order.observeStatus(reindexer);
+        }
+        index(id, status);
+    }
+
+    private synchronized void reindex(Order order) {
+        // A replaced instance no longer speaks for this id
+        if (store.get(order.getId()) == order) {
+            index(order.getId(), order.getStatus());
+        }
+    }
+
+    private void index(UUID id, OrderStatus status) {
+        OrderStatus previous = indexedStatus.put(id, status);
+        if (previous != status) {
+            if (previous != null) {
+                byStatus.get(previous).remove(id);
+            }
+            byStatus.get(status).add(id);
+        }
     }
 }
@@ -2,30 +2,131 @@ package com.university.restaurant.repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
+/**
+ * In-memory audit log with checkpointed verification. The repository
+ * remembers the index and hash of the last entry {@link #verifyChain()} has
+ * verified, so each call only checks entries appended since then. A full
+ * re-verification is an explicit operation, {@link #verifyFull(int)}, which
+ * splits the log into segments checked in parallel. A {@link MerkleAccumulator}
+ * is kept alongside the hash chain for logarithmic inclusion and consistency
+ * proofs.
+ */
 public final class InMemoryRestaurantAuditRepo implements RestaurantAuditLogRepository {
     private final List<RestaurantAuditEntry> log = new ArrayList<>();
+    private final MerkleAccumulator merkle = new MerkleAccumulator();
+
+    // Entries [0, verifiedCount) are known to chain correctly
+    private int verifiedCount;
+    private String verifiedHash;
 
     @Override
-    public void append(RestaurantAuditEntry entry) {
+    public synchronized void append(RestaurantAuditEntry entry) {
         log.add(entry);
+        merkle.append(entry.hash);
+    }
+
+    @Override
+    public synchronized void appendAll(List<RestaurantAuditEntry> entries) {
+        log.addAll(entries);
+        for (RestaurantAuditEntry entry : entries) {
+            merkle.append(entry.hash);
+        }
     }
 
     @Override
-    public List<RestaurantAuditEntry> all() {
+    public synchronized List<RestaurantAuditEntry> all() {
         return List.copyOf(log);
     }
 
+    /**
+     * Checks the links appended since the last checkpoint and advances the
+     * checkpoint when they are intact.
+     */
     @Override
-    public boolean verifyChain() {
-        for (int i = 1; i < log.size(); i++)
+    public synchronized boolean verifyChain() {
+        int start = verifiedCount;
+        if (start > 0 && !log.get(start - 1).hash.equals(verifiedHash)) {
+            // Checkpoint no longer matches the log; start over
+            start = 0;
+        }
+        for (int i = Math.max(start, 1); i < log.size(); i++)
             if (!log.get(i).prevHash.equals(log.get(i - 1).hash))
                 return false;
+        checkpoint(log.size());
         return true;
     }
 
+    /**
+     * Re-verifies the whole log, ignoring the checkpoint. The log is split
+     * into {@code segments} ranges checked in parallel; each range also
+     * checks the link into its first entry, so segment boundaries are
+     * covered. Unlike {@link #verifyChain()}, each entry's own hash is
+     * recomputed as well. On success the checkpoint moves to the end of the
+     * verified snapshot.
+     *
+     * @param segments number of ranges to verify concurrently
+     * @throws IllegalArgumentException if {@code segments} is not positive
+     */
+    public ChainVerification verifyFull(int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("segments must be positive");
+        }
+        List<RestaurantAuditEntry> snapshot = all();
+        int size = snapshot.size();
+        int segmentSize = Math.max(1, (size + segments - 1) / segments);
+
+        long firstBroken = IntStream.range(0, segments)
+                .parallel()
+                .mapToLong(s -> firstBrokenIn(snapshot, s * segmentSize,
+                        Math.min(size, (s + 1) * segmentSize)))
+                .filter(i -> i >= 0)
+                .min()
+                .orElse(-1);
+
+        if (firstBroken >= 0) {
+            return ChainVerification.brokenAt(size, firstBroken);
+        }
+        synchronized (this) {
+            // Only advance if the log still starts with the snapshot
+            if (size > verifiedCount && log.size() >= size && log.get(size - 1) == snapshot.get(size - 1)) {
+                checkpoint(size);
+            }
+        }
+        return ChainVerification.ok(size);
+    }
+
+    /** Merkle tree whose leaves are the entry hashes, in log order. */
+    public MerkleAccumulator merkleTree() {
+        return merkle;
+    }
+
+    /** Number of leading entries covered by the current checkpoint. */
+    public synchronized int verifiedCount() {
+        return verifiedCount;
+    }
+
     @Override
-    public String tailHash() {
+    public synchronized String tailHash() {
         return log.isEmpty() ? "GENESIS" : log.get(log.size() - 1).hash;
     }
+
+    private void checkpoint(int count) {
+        verifiedCount = count;
+        verifiedHash = count == 0 ? null : log.get(count - 1).hash;
+    }
+
+    private static long firstBrokenIn(List<RestaurantAuditEntry> entries, int from, int to) {
+        for (int i = from; i < to; i++) {
+            RestaurantAuditEntry entry = entries.get(i);
+            if (i > 0 && !entry.prevHash.equals(entries.get(i - 1).hash)) {
+                return i;
+            }
+            if (!entry.hasValidHash()) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,516 @@
+package com.university.restaurant.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit log stored in fixed-size, memory-mapped segment files.
+ * <p>
+ * Each entry is written as a length-prefixed record
+ * {@code [int length][int crc32][payload]}. When a record does not fit in the
+ * current segment a new one is started; segment files are named after the
+ * sequence number of their first entry. Every {@value #INDEX_INTERVAL}th
+ * record's offset is kept in a sparse in-memory index, so random access
+ * skips at most that many records.
+ * </p>
+ * <p>
+ * On open, the segments are scanned. A record in the last segment with a bad
+ * length or checksum is treated as a torn write from a crash; it and
+ * everything after it are discarded. Empty segments at the end, left by a
+ * crash right after a rollover, are removed first, so the segment before
+ * them counts as the last. A full segment is forced to disk before the next
+ * one is started. Appends only write to the mapping;
+ * {@link #sync()} forces them to disk, and concurrent callers share a single
+ * force (group commit). An optional background interval syncs periodically.
+ * {@link #verifyChain()} and the iterator of {@link #all()} read records
+ * sequentially from the mapping without loading the whole log onto the heap.
+ * A {@link MerkleAccumulator} over the entry hashes is rebuilt on open and
+ * kept up to date on append.
+ * </p>
+ */
+public final class MappedFileRestaurantAuditRepo implements RestaurantAuditLogRepository, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final int INDEX_INTERVAL = 64;
+    private static final int HEADER = 8;
+    private static final String SUFFIX = ".seg";
+    private static final byte[] ZEROS = new byte[4096];
+
+    private final Path dir;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ScheduledExecutorService syncer;
+    private final MerkleAccumulator merkle = new MerkleAccumulator();
+
+    private long size;
+    private String tail = "GENESIS";
+    private boolean closed;
+
+    // Serialises forces so concurrent sync() calls share one
+    private final Object syncLock = new Object();
+    private volatile long durable;
+
+    public MappedFileRestaurantAuditRepo(Path dir) throws IOException {
+        this(dir, DEFAULT_SEGMENT_SIZE, 0);
+    }
+
+    /**
+     * Opens (or creates) the log in {@code dir}, recovering from a torn tail.
+     *
+     * @param dir                directory holding the segment files
+     * @param segmentSize        size in bytes of newly created segments
+     * @param syncIntervalMillis period of the background sync, or {@code 0}
+     *                           to sync only when {@link #sync()} is called
+     */
+    public MappedFileRestaurantAuditRepo(Path dir, int segmentSize, long syncIntervalMillis) throws IOException {
+        if (segmentSize <= HEADER) {
+            throw new IllegalArgumentException("segmentSize too small");
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(dir);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        // Rolled over but never written to: the tail, torn or not, is in the segment before
+        int lastUsed = files.size() - 1;
+        while (lastUsed > 0 && isEmpty(files.get(lastUsed))) {
+            Files.delete(files.get(lastUsed));
+            lastUsed--;
+        }
+        files = files.subList(0, lastUsed + 1);
+
+        long expectedFirst = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path path = files.get(i);
+            String name = path.getFileName().toString();
+            long first = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            if (first != expectedFirst) {
+                throw new IllegalStateException("Audit segment missing before " + name);
+            }
+            Segment seg = openSegment(path, first);
+            recover(seg, i == files.size() - 1);
+            segments.add(seg);
+            expectedFirst += seg.count;
+        }
+        if (segments.isEmpty()) {
+            segments.add(openSegment(segmentPath(0), 0));
+        }
+        size = expectedFirst;
+        durable = size;
+        Iterator<RestaurantAuditEntry> it = reader(0, size);
+        while (it.hasNext()) {
+            RestaurantAuditEntry entry = it.next();
+            merkle.append(entry.hash);
+            tail = entry.hash;
+        }
+
+        if (syncIntervalMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "audit-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    @Override
+    public synchronized void append(RestaurantAuditEntry entry) {
+        if (closed) {
+            throw new IllegalStateException("Audit log is closed");
+        }
+        byte[] payload = encode(entry);
+        int recordSize = HEADER + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Audit record larger than a segment");
+        }
+
+        Segment seg = segments.get(segments.size() - 1);
+        if (seg.end + recordSize > seg.capacity) {
+            // Only the newest segment may hold a torn record after a crash
+            seg.buf.force(0, seg.end);
+            seg = openSegment(segmentPath(size), size);
+            segments.add(seg);
+        }
+
+        int pos = seg.end;
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        seg.buf.put(pos + HEADER, payload);
+        seg.buf.putInt(pos + 4, (int) crc.getValue());
+        // Length last: a record is only visible once fully written
+        seg.buf.putInt(pos, payload.length);
+
+        seg.addRecord(pos);
+        seg.end = pos + recordSize;
+        size++;
+        tail = entry.hash;
+        merkle.append(entry.hash);
+    }
+
+    @Override
+    public synchronized void appendAll(List<RestaurantAuditEntry> entries) {
+        for (RestaurantAuditEntry entry : entries) {
+            append(entry);
+        }
+    }
+
+    /**
+     * Returns a read-only view of the log as of this call. Elements are
+     * decoded on access; iteration reads records sequentially.
+     */
+    @Override
+    public List<RestaurantAuditEntry> all() {
+        long n = size();
+        if (n > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Audit log too large for a List view; use reader()");
+        }
+        return new AbstractList<>() {
+            @Override
+            public RestaurantAuditEntry get(int index) {
+                if (index < 0 || index >= n) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return read(index);
+            }
+
+            @Override
+            public int size() {
+                return (int) n;
+            }
+
+            @Override
+            public Iterator<RestaurantAuditEntry> iterator() {
+                return reader(0, n);
+            }
+        };
+    }
+
+    /**
+     * Walks the log sequentially, holding one entry at a time.
+     */
+    @Override
+    public boolean verifyChain() {
+        Iterator<RestaurantAuditEntry> it = reader(0, size());
+        String prev = null;
+        while (it.hasNext()) {
+            RestaurantAuditEntry entry = it.next();
+            if (prev != null && !entry.prevHash.equals(prev)) {
+                return false;
+            }
+            prev = entry.hash;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized String tailHash() {
+        return tail;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /** Merkle tree whose leaves are the entry hashes, in log order. */
+    public MerkleAccumulator merkleTree() {
+        return merkle;
+    }
+
+    /** Number of entries known to be on disk. */
+    public long durableCount() {
+        return durable;
+    }
+
+    /**
+     * Sequential reader over entries {@code [from, size())} as of this call.
+     */
+    public Iterator<RestaurantAuditEntry> reader(long from) {
+        return reader(from, size());
+    }
+
+    /**
+     * Forces every entry appended before this call to disk. Callers arriving
+     * while another force is running wait for it and, if it covered their
+     * entries, return without forcing again.
+     */
+    public void sync() {
+        long target;
+        synchronized (this) {
+            target = size;
+        }
+        if (durable >= target) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable >= target) {
+                return;
+            }
+            List<Segment> dirty = new ArrayList<>();
+            List<Integer> ends = new ArrayList<>();
+            synchronized (this) {
+                target = size;
+                for (Segment seg : segments) {
+                    if (seg.forcedTo < seg.end) {
+                        dirty.add(seg);
+                        ends.add(seg.end);
+                    }
+                }
+            }
+            for (int i = 0; i < dirty.size(); i++) {
+                Segment seg = dirty.get(i);
+                int end = ends.get(i);
+                seg.buf.force(seg.forcedTo, end - seg.forcedTo);
+                seg.forcedTo = end;
+            }
+            durable = target;
+        }
+    }
+
+    /**
+     * Stops the background sync, forces outstanding entries and closes the
+     * segment files.
+     */
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        sync();
+        synchronized (this) {
+            closed = true;
+            for (Segment seg : segments) {
+                seg.channel.close();
+            }
+        }
+    }
+
+    private Iterator<RestaurantAuditEntry> reader(long from, long to) {
+        if (from < 0 || from > to) {
+            throw new IndexOutOfBoundsException("from " + from);
+        }
+        return new Iterator<>() {
+            long next = from;
+            Segment seg;
+            int pos;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public RestaurantAuditEntry next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                if (seg == null || next >= seg.firstSeq + seg.count) {
+                    seg = segmentFor(next);
+                    pos = offsetOf(seg, next);
+                }
+                RestaurantAuditEntry entry = decode(seg.buf, pos);
+                pos += HEADER + seg.buf.getInt(pos);
+                next++;
+                return entry;
+            }
+        };
+    }
+
+    private RestaurantAuditEntry read(long seq) {
+        Segment seg = segmentFor(seq);
+        return decode(seg.buf, offsetOf(seg, seq));
+    }
+
+    private synchronized Segment segmentFor(long seq) {
+        int lo = 0, hi = segments.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segments.get(mid).firstSeq <= seq) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return segments.get(lo);
+    }
+
+    // Jumps to the nearest indexed record, then skips forward
+    private static int offsetOf(Segment seg, long seq) {
+        int k = (int) (seq - seg.firstSeq);
+        int pos = seg.offsets[k / INDEX_INTERVAL];
+        for (int i = 0; i < k % INDEX_INTERVAL; i++) {
+            pos += HEADER + seg.buf.getInt(pos);
+        }
+        return pos;
+    }
+
+    private void recover(Segment seg, boolean last) {
+        int pos = 0;
+        while (pos + HEADER <= seg.capacity) {
+            int len = seg.buf.getInt(pos);
+            if (len == 0) {
+                break;
+            }
+            if (len < 0 || pos + HEADER + len > seg.capacity
+                    || crc(seg.buf, pos + HEADER, len) != seg.buf.getInt(pos + 4)) {
+                if (!last) {
+                    throw new IllegalStateException("Corrupt audit record in " + seg.path + " at " + pos);
+                }
+                // Torn write from a crash: drop it and anything after it
+                for (int z = pos; z < seg.capacity; z += ZEROS.length) {
+                    seg.buf.put(z, ZEROS, 0, Math.min(ZEROS.length, seg.capacity - z));
+                }
+                seg.buf.force();
+                break;
+            }
+            seg.addRecord(pos);
+            pos += HEADER + len;
+        }
+        seg.end = pos;
+        seg.forcedTo = pos;
+    }
+
+    private static boolean isEmpty(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer first = ByteBuffer.allocate(Integer.BYTES);
+            while (first.hasRemaining() && channel.read(first) > 0) {
+                // Keep reading until the length prefix is complete or the file ends
+            }
+            return first.hasRemaining() || first.getInt(0) == 0;
+        }
+    }
+
+    private Segment openSegment(Path path, long firstSeq) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long existing = channel.size();
+            int capacity = existing > 0 ? (int) existing : segmentSize;
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new Segment(firstSeq, path, channel, buf, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return dir.resolve(String.format("%020d%s", firstSeq, SUFFIX));
+    }
+
+    private static int crc(ByteBuffer buf, int from, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(buf.duplicate().limit(from + len).position(from));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(RestaurantAuditEntry e) {
+        byte[][] fields = {
+                bytes(e.userId), bytes(e.role), bytes(e.action), bytes(e.entityType),
+                bytes(e.entityId), bytes(e.details), bytes(e.prevHash), bytes(e.hash)
+        };
+        int len = Long.BYTES + Integer.BYTES;
+        for (byte[] f : fields) {
+            len += Integer.BYTES + (f == null ? 0 : f.length);
+        }
+        ByteBuffer out = ByteBuffer.allocate(len);
+        out.putLong(e.timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.putInt(e.timestamp.getNano());
+        for (byte[] f : fields) {
+            if (f == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(f.length);
+                out.put(f);
+            }
+        }
+        return out.array();
+    }
+
+    private static byte[] bytes(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static RestaurantAuditEntry decode(ByteBuffer buf, int record) {
+        int pos = record + HEADER;
+        long seconds = buf.getLong(pos);
+        int nanos = buf.getInt(pos + Long.BYTES);
+        pos += Long.BYTES + Integer.BYTES;
+
+        String[] fields = new String[8];
+        for (int i = 0; i < fields.length; i++) {
+            int len = buf.getInt(pos);
+            pos += Integer.BYTES;
+            if (len >= 0) {
+                byte[] b = new byte[len];
+                buf.get(pos, b);
+                fields[i] = new String(b, StandardCharsets.UTF_8);
+                pos += len;
+            }
+        }
+        return new RestaurantAuditEntry(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5],
+                fields[6], LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), fields[7]);
+    }
+
+    private static final class Segment {
+        final long firstSeq;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buf;
+        final int capacity;
+        // Offset of every INDEX_INTERVAL-th record; read by iterators without the log's lock
+        volatile int[] offsets = new int[16];
+        int count;
+        int end;
+        int forcedTo;
+
+        Segment(long firstSeq, Path path, FileChannel channel, MappedByteBuffer buf, int capacity) {
+            this.firstSeq = firstSeq;
+            this.path = path;
+            this.channel = channel;
+            this.buf = buf;
+            this.capacity = capacity;
+        }
+
+        void addRecord(int pos) {
+            if (count % INDEX_INTERVAL == 0) {
+                int slot = count / INDEX_INTERVAL;
+                int[] current = offsets;
+                if (slot == current.length) {
+                    // Fill the copy before publishing it
+                    int[] grown = Arrays.copyOf(current, slot * 2);
+                    grown[slot] = pos;
+                    offsets = grown;
+                } else {
+                    current[slot] = pos;
+                }
+            }
+            count++;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.university.restaurant.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only Merkle tree over audit entry hashes, built the same way as a
+ * Certificate Transparency log (RFC 6962): leaves are {@code SHA-256(0x00 || data)},
+ * interior nodes {@code SHA-256(0x01 || left || right)}, and a tree of n leaves
+ * splits at the largest power of two below n.
+ * <p>
+ * Every complete subtree hash is kept, level by level, so appending costs
+ * amortised O(1) hashes. The root, an inclusion proof or a consistency proof
+ * touches at most one incomplete subtree on the right edge of the tree, so each
+ * costs O(log n) hashes and returns O(log n) nodes. The static verify methods
+ * let an auditor check a proof against a root without access to the log.
+ * </p>
+ */
+public final class MerkleAccumulator {
+
+    private static final int HASH = 32;
+    private static final byte LEAF = 0x00;
+    private static final byte NODE = 0x01;
+
+    /** Proof that the leaf at {@code index} is in the tree of {@code treeSize} leaves. */
+    public record InclusionProof(long index, long treeSize, List<byte[]> path) {
+    }
+
+    /** Proof that the tree of {@code oldSize} leaves is a prefix of the tree of {@code newSize}. */
+    public record ConsistencyProof(long oldSize, long newSize, List<byte[]> path) {
+    }
+
+    // levels.get(l) holds the hashes of complete subtrees of 2^l leaves
+    private final List<Level> levels = new ArrayList<>();
+    private final MessageDigest md = newDigest();
+    private long size;
+
+    /**
+     * Adds the hash of the next audit entry as a leaf.
+     */
+    public synchronized void append(String entryHash) {
+        byte[] node = leafHash(md, entryHash);
+        int level = 0;
+        while (true) {
+            if (levels.size() == level) {
+                levels.add(new Level());
+            }
+            Level l = levels.get(level);
+            l.add(node);
+            if ((l.count & 1) == 1) {
+                break;
+            }
+            // Completed a pair; carry its parent up
+            node = nodeHash(md, l.get(l.count - 2), node);
+            level++;
+        }
+        size++;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /** Root of the current tree. */
+    public synchronized byte[] root() {
+        return root(size);
+    }
+
+    /** Root of the tree formed by the first {@code treeSize} leaves. */
+    public synchronized byte[] root(long treeSize) {
+        checkSize(treeSize);
+        if (treeSize == 0) {
+            return md.digest();
+        }
+        return subtree(0, treeSize);
+    }
+
+    /**
+     * Proves that leaf {@code index} is included in the current tree.
+     */
+    public synchronized InclusionProof inclusionProof(long index) {
+        return inclusionProof(index, size);
+    }
+
+    /**
+     * Proves that leaf {@code index} is included in the tree of the first
+     * {@code treeSize} leaves.
+     */
+    public synchronized InclusionProof inclusionProof(long index, long treeSize) {
+        checkSize(treeSize);
+        if (index < 0 || index >= treeSize) {
+            throw new IllegalArgumentException("Leaf index out of range: " + index);
+        }
+        List<byte[]> path = new ArrayList<>();
+        inclusionPath(index, 0, treeSize, path);
+        return new InclusionProof(index, treeSize, List.copyOf(path));
+    }
+
+    /**
+     * Proves that the tree of the first {@code oldSize} leaves is a prefix of
+     * the current tree.
+     */
+    public synchronized ConsistencyProof consistencyProof(long oldSize) {
+        return consistencyProof(oldSize, size);
+    }
+
+    /**
+     * Proves that the tree of the first {@code oldSize} leaves is a prefix of
+     * the tree of the first {@code newSize} leaves.
+     */
+    public synchronized ConsistencyProof consistencyProof(long oldSize, long newSize) {
+        checkSize(newSize);
+        if (oldSize < 0 || oldSize > newSize) {
+            throw new IllegalArgumentException("oldSize must be between 0 and newSize");
+        }
+        List<byte[]> path = new ArrayList<>();
+        if (oldSize > 0 && oldSize < newSize) {
+            consistencyPath(oldSize, 0, newSize, true, path);
+        }
+        return new ConsistencyProof(oldSize, newSize, List.copyOf(path));
+    }
+
+    /**
+     * Checks an inclusion proof for an audit entry hash against a root.
+     */
+    public static boolean verifyInclusion(String entryHash, InclusionProof proof, byte[] root) {
+        long fn = proof.index();
+        long sn = proof.treeSize() - 1;
+        if (fn < 0 || fn > sn) {
+            return false;
+        }
+        MessageDigest md = newDigest();
+        byte[] r = leafHash(md, entryHash);
+        for (byte[] p : proof.path()) {
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                r = nodeHash(md, p, r);
+                while ((fn & 1) == 0 && fn != 0) {
+                    fn >>= 1;
+                    sn >>= 1;
+                }
+            } else {
+                r = nodeHash(md, r, p);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && Arrays.equals(r, root);
+    }
+
+    /**
+     * Checks that {@code oldRoot} (over {@code proof.oldSize()} leaves) is a
+     * prefix of {@code newRoot} (over {@code proof.newSize()} leaves).
+     */
+    public static boolean verifyConsistency(ConsistencyProof proof, byte[] oldRoot, byte[] newRoot) {
+        long oldSize = proof.oldSize();
+        long newSize = proof.newSize();
+        List<byte[]> path = proof.path();
+        if (oldSize < 0 || oldSize > newSize) {
+            return false;
+        }
+        if (oldSize == newSize) {
+            return path.isEmpty() && Arrays.equals(oldRoot, newRoot);
+        }
+        if (oldSize == 0) {
+            // The empty tree is a prefix of every tree
+            return path.isEmpty();
+        }
+
+        List<byte[]> nodes = new ArrayList<>(path);
+        if (Long.bitCount(oldSize) == 1) {
+            nodes.add(0, oldRoot);
+        }
+        if (nodes.isEmpty()) {
+            return false;
+        }
+
+        MessageDigest md = newDigest();
+        long fn = oldSize - 1;
+        long sn = newSize - 1;
+        while ((fn & 1) == 1) {
+            fn >>= 1;
+            sn >>= 1;
+        }
+        byte[] fr = nodes.get(0);
+        byte[] sr = nodes.get(0);
+        for (byte[] c : nodes.subList(1, nodes.size())) {
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                fr = nodeHash(md, c, fr);
+                sr = nodeHash(md, c, sr);
+                while ((fn & 1) == 0 && fn != 0) {
+                    fn >>= 1;
+                    sn >>= 1;
+                }
+            } else {
+                sr = nodeHash(md, sr, c);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && Arrays.equals(fr, oldRoot) && Arrays.equals(sr, newRoot);
+    }
+
+    /** Leaf hash of an audit entry hash. */
+    public static byte[] leafHash(String entryHash) {
+        return leafHash(newDigest(), entryHash);
+    }
+
+    // Hash of leaves [start, end); the left part of every split is a stored node
+    private byte[] subtree(long start, long end) {
+        long n = end - start;
+        if (Long.bitCount(n) == 1) {
+            int level = Long.numberOfTrailingZeros(n);
+            return levels.get(level).get(start >> level);
+        }
+        long k = Long.highestOneBit(n - 1);
+        return nodeHash(md, subtree(start, start + k), subtree(start + k, end));
+    }
+
+    private void inclusionPath(long m, long start, long end, List<byte[]> path) {
+        long n = end - start;
+        if (n == 1) {
+            return;
+        }
+        long k = Long.highestOneBit(n - 1);
+        if (m < k) {
+            inclusionPath(m, start, start + k, path);
+            path.add(subtree(start + k, end));
+        } else {
+            inclusionPath(m - k, start + k, end, path);
+            path.add(subtree(start, start + k));
+        }
+    }
+
+    private void consistencyPath(long m, long start, long end, boolean complete, List<byte[]> path) {
+        long n = end - start;
+        if (m == n) {
+            if (!complete) {
+                path.add(subtree(start, end));
+            }
+            return;
+        }
+        long k = Long.highestOneBit(n - 1);
+        if (m <= k) {
+            consistencyPath(m, start, start + k, complete, path);
+            path.add(subtree(start + k, end));
+        } else {
+            consistencyPath(m - k, start + k, end, false, path);
+            path.add(subtree(start, start + k));
+        }
+    }
+
+    private void checkSize(long treeSize) {
+        if (treeSize < 0 || treeSize > size) {
+            throw new IllegalArgumentException("Tree size out of range: " + treeSize);
+        }
+    }
+
+    private static byte[] leafHash(MessageDigest md, String entryHash) {
+        md.reset();
+        md.update(LEAF);
+        md.update(entryHash.getBytes(StandardCharsets.UTF_8));
+        return md.digest();
+    }
+
+    private static byte[] nodeHash(MessageDigest md, byte[] left, byte[] right) {
+        md.reset();
+        md.update(NODE);
+        md.update(left);
+        md.update(right);
+        return md.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Hashes of one tree level, packed 32 bytes apart in fixed-size pages so
+     * a level can outgrow a single array.
+     */
+    private static final class Level {
+        private static final int PAGE_SHIFT = 15;
+        private static final int PAGE_HASHES = 1 << PAGE_SHIFT;
+
+        final List<byte[]> pages = new ArrayList<>();
+        long count;
+
+        void add(byte[] hash) {
+            int offset = (int) (count & (PAGE_HASHES - 1));
+            if (offset == 0) {
+                pages.add(new byte[HASH * 16]);
+            }
+            int last = pages.size() - 1;
+            byte[] page = pages.get(last);
+            if ((offset + 1) * HASH > page.length) {
+                // Pages start small and double up to PAGE_HASHES hashes
+                page = Arrays.copyOf(page, page.length * 2);
+                pages.set(last, page);
+            }
+            System.arraycopy(hash, 0, page, offset * HASH, HASH);
+            count++;
+        }
+
+        byte[] get(long index) {
+            byte[] page = pages.get((int) (index >>> PAGE_SHIFT));
+            int offset = (int) (index & (PAGE_HASHES - 1)) * HASH;
+            return Arrays.copyOfRange(page, offset, offset + HASH);
+        }
+    }
+}
@@ -1,15 +1,34 @@
 package com.university.restaurant.repository;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.LocalDateTime;
 
 public final class RestaurantAuditEntry {
     final String userId, role, action, entityType, entityId, details, prevHash, hash;
-    final LocalDateTime timestamp = LocalDateTime.now();
+    final LocalDateTime timestamp;
 
     public RestaurantAuditEntry(String userId, String role, String action,
                          String entityType, String entityId, String details, String prevHash) {
+        this(userId, role, action, entityType, entityId, details, prevHash, LocalDateTime.now());
+    }
+
+    // Lets a writer chain an entry later while keeping the time it was recorded
+    RestaurantAuditEntry(String userId, String role, String action, String entityType,
+                         String entityId, String details, String prevHash, LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+        this.userId = userId;
+        this.role = role;
+        this.action = action;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.details = details;
+        this.prevHash = prevHash;
+        this.hash = AuditHasher.hash(userId, role, action, entityType, entityId, details, timestamp, prevHash);
+    }
+
+    // Restores a stored entry as-is; hasValidHash() reveals any tampering
+    RestaurantAuditEntry(String userId, String role, String action, String entityType, String entityId,
+                         String details, String prevHash, LocalDateTime timestamp, String hash) {
+        this.timestamp = timestamp;
         this.userId = userId;
         this.role = role;
         this.action = action;
@@ -17,7 +36,7 @@ public final class RestaurantAuditEntry {
         this.entityId = entityId;
         this.details = details;
         this.prevHash = prevHash;
-        this.hash = sha256(userId + role + action + entityType + entityId + details + timestamp + prevHash);
+        this.hash = hash;
     }
 
     public String getUserId() {
@@ -56,16 +75,12 @@ public final class RestaurantAuditEntry {
         return timestamp;
     }
 
-    static String sha256(String data) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = md.digest(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : bytes) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Recomputes the hash from the entry's fields and compares it with the
+     * stored one, detecting entries whose contents were altered.
+     */
+    public boolean hasValidHash() {
+        return hash.equals(AuditHasher.hash(userId, role, action, entityType, entityId, details, timestamp, prevHash));
     }
 
     @Override
@@ -7,4 +7,31 @@ public interface RestaurantAuditLogRepository {
     List<RestaurantAuditEntry> all();
     boolean verifyChain();
     String tailHash();
+
+    /**
+     * Chains a new entry to the current tail and appends it in one step, so
+     * concurrent writers can never link two entries to the same predecessor.
+     * Writers that build entries with {@link #tailHash()} themselves must
+     * hold the same monitor to get this guarantee. Asynchronous implementations
+     * may return {@code null} when the entry has not been written yet.
+     */
+    default RestaurantAuditEntry appendChained(String userId, String role, String action,
+                                               String entityType, String entityId, String details) {
+        synchronized (this) {
+            RestaurantAuditEntry entry = new RestaurantAuditEntry(
+                    userId, role, action, entityType, entityId, details, tailHash());
+            append(entry);
+            return entry;
+        }
+    }
+
+    /**
+     * Appends already-chained entries in order. Implementations backed by a
+     * database should write the batch in one round trip.
+     */
+    default void appendAll(List<RestaurantAuditEntry> entries) {
+        for (RestaurantAuditEntry entry : entries) {
+            append(entry);
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.university.restaurant.repository;
+
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.order.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only sales aggregates computed by the order store itself, so callers
+ * receive totals instead of order graphs.
+ */
+public interface SalesAnalyticsRepository {
+
+    /** Units sold per menu item name across orders in any of {@code statuses}. */
+    Map<String, Long> unitsSoldByItem(Set<OrderStatus> statuses);
+
+    /** The {@code k} items with the most units sold across orders in any of {@code statuses}. */
+    List<ItemSales> topSellingItems(Set<OrderStatus> statuses, int k);
+
+    /** Total of paid orders created in {@code [from, to)}. */
+    double revenueOfOrdersCreatedBetween(LocalDateTime from, LocalDateTime to);
+
+    /** Total of payments, for orders still PAID, made in {@code [from, to)}. */
+    double paymentsBetween(LocalDateTime from, LocalDateTime to);
+
+    /** Payment totals per hour of day, index 0 to 23, for the days {@code from} to {@code to} inclusive. */
+    double[] paymentsByHourOfDay(LocalDate from, LocalDate to);
+}
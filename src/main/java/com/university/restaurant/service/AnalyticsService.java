@@ -9,6 +9,7 @@ import com.university.restaurant.port.AnalyticsServicePort;
 import com.university.restaurant.repository.OrderRepository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -105,4 +106,51 @@ public class AnalyticsService implements AnalyticsServicePort {
                 .sum();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Scans every paid order and keeps those paid inside the window.
+     * </p>
+     */
+    @Override
+    public double revenueBetween(StaffRole actor, LocalDateTime from, LocalDateTime to) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+
+        return orders.findByStatus(OrderStatus.PAID).stream()
+                .filter(o -> {
+                    LocalDateTime paidAt = o.getPaidAt();
+                    return !paidAt.isBefore(from) && paidAt.isBefore(to);
+                })
+                .mapToDouble(Order::calculateTotal)
+                .sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Scans every paid order and buckets those paid on the requested days.
+     * </p>
+     */
+    @Override
+    public double[] revenueByHourOfDay(StaffRole actor, LocalDate from, LocalDate to) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        double[] byHour = new double[24];
+        for (Order o : orders.findByStatus(OrderStatus.PAID)) {
+            LocalDateTime paidAt = o.getPaidAt();
+            LocalDate day = paidAt.toLocalDate();
+            if (!day.isBefore(from) && !day.isAfter(to)) {
+                byHour[paidAt.getHour()] += o.calculateTotal();
+            }
+        }
+        return byHour;
+    }
 }
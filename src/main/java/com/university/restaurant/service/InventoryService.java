@@ -2,6 +2,7 @@ package com.university.restaurant.service;
 
 import com.university.restaurant.chain.inventory.InventoryPermissionChain;
 import com.university.restaurant.model.inventory.InventoryItem;
+import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.staff.StaffRole;
 import com.university.restaurant.port.InventoryServicePort;
 import com.university.restaurant.repository.InventoryRepository;
@@ -9,6 +10,12 @@ import com.university.restaurant.repository.MenuRepository;
 import com.university.restaurant.repository.RestaurantAuditEntry;
 import com.university.restaurant.repository.RestaurantAuditLogRepository;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
 /**
  * <p>
  * Service implementation for inventory-related operations such as reducing or
@@ -163,6 +170,104 @@ public class InventoryService implements InventoryServicePort {
 
     }
 
+    /**
+     * <p>
+     * Reserves all ingredients required by an order in one step. Every
+     * ingredient is resolved and its stock checked before anything is consumed;
+     * if persisting any item fails, items already consumed are restocked so the
+     * inventory is left as it was. A single audit entry describes the whole
+     * reservation.
+     * </p>
+     *
+     * @param actor the staff role performing the reservation
+     * @param order the order whose ingredients are reserved
+     *
+     * @throws SecurityException        if the actor lacks permission
+     * @throws IllegalArgumentException if an ingredient has no inventory item
+     * @throws IllegalStateException    if any ingredient has insufficient stock
+     */
+    @Override
+    public void reserveIngredients(StaffRole actor, Order order) {
+
+        permissions.check(actor, "reduce stock");
+
+        SortedMap<String, Integer> required = order.getIngredientRequirements();
+        if (required.isEmpty()) {
+            return;
+        }
+
+        // Resolve ingredient names to inventory items, keyed by item id
+        SortedMap<String, InventoryItem> items = new TreeMap<>();
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        for (Map.Entry<String, Integer> e : required.entrySet()) {
+            InventoryItem item = repo.findByName(e.getKey())
+                    .orElseThrow(() -> new IllegalArgumentException("Ingredient not in inventory: " + e.getKey()));
+            items.put(item.getId(), item);
+            quantities.merge(item.getId(), e.getValue(), Integer::sum);
+        }
+
+        // Check everything before consuming anything
+        for (InventoryItem item : items.values()) {
+            if (item.getStockLevel() < quantities.get(item.getId())) {
+                throw new IllegalStateException("Insufficient stock: " + item.getName());
+            }
+        }
+
+        List<InventoryItem> consumed = new ArrayList<>();
+        try {
+            for (InventoryItem item : items.values()) {
+                item.consume(quantities.get(item.getId()));
+                consumed.add(item);
+                repo.save(item);
+            }
+        } catch (RuntimeException ex) {
+            // Roll back whatever was already taken
+            for (InventoryItem item : consumed) {
+                item.restock(quantities.get(item.getId()));
+                repo.save(item);
+            }
+            throw ex;
+        }
+
+        for (InventoryItem item : items.values()) {
+            if (item.getStockLevel() == 0) {
+                menuRepo.findById(item.getId()).ifPresent(menuItem -> {
+                    menuItem.setAvailable(false);
+                    menuRepo.save(menuItem);
+                });
+            }
+        }
+
+        // One audit entry for the whole order
+        audits.append(new RestaurantAuditEntry(
+                actor.id(),
+                actor.getClass().getSimpleName(),
+                "RESERVE_INGREDIENTS",
+                "Order",
+                order.getId().toString(),
+                describeReservation(items, quantities),
+                audits.tailHash()
+        ));
+    }
+
+    /**
+     * Builds the audit detail text for a reservation, e.g.
+     * {@code "Reserved beef x2, bun x2"}. Shared with the concurrent
+     * implementation so both write the same audit text.
+     */
+    public static String describeReservation(Map<String, InventoryItem> items, Map<String, Integer> quantities) {
+        StringBuilder sb = new StringBuilder("Reserved ");
+        boolean first = true;
+        for (InventoryItem item : items.values()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            sb.append(item.getName()).append(" x").append(quantities.get(item.getId()));
+            first = false;
+        }
+        return sb.toString();
+    }
+
     /**
      * Retrieves the current stock level for a given inventory item.
      *
@@ -0,0 +1,38 @@
+package com.university.restaurant.service;
+
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.port.OrderEventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fan-out of order status transitions to registered {@link OrderEventListener}s.
+ * Shared by the services that change order status. Registration is rare and
+ * publishing is frequent, so listeners are held in a copy-on-write list.
+ */
+public final class OrderEventPublisher {
+
+    private final List<OrderEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(OrderEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OrderEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies every listener of a transition; no-op if the status did not change.
+     */
+    public void publish(Order order, OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        for (OrderEventListener listener : listeners) {
+            listener.onStatusChanged(order, from, to);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.university.restaurant.model.menu.MenuItem;
 import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.order.OrderStatus;
 import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.OrderEventListener;
 import com.university.restaurant.port.OrderServicePort;
 import com.university.restaurant.repository.OrderRepository;
 import com.university.restaurant.repository.RestaurantAuditEntry;
@@ -33,6 +34,9 @@ public class OrderService implements OrderServicePort {
     private final RestaurantAuditLogRepository audits;
     private final OrderPermissionChain permissions = new OrderPermissionChain();
 
+    /** Publishes order status transitions to registered listeners. */
+    private final OrderEventPublisher events = new OrderEventPublisher();
+
     /**
      * Constructs a new {@code OrderService} with the required repositories.
      *
@@ -44,6 +48,15 @@ public class OrderService implements OrderServicePort {
         this.audits = audits;
     }
 
+    /**
+     * Registers a listener notified when orders are placed or change status.
+     *
+     * @param listener the listener to add
+     */
+    public void addOrderEventListener(OrderEventListener listener) {
+        events.addListener(listener);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -87,6 +100,8 @@ public class OrderService implements OrderServicePort {
                 audits.tailHash()
         ));
 
+        events.publish(order, null, order.getStatus());
+
         return order;
     }
 
@@ -117,6 +132,7 @@ public class OrderService implements OrderServicePort {
 
         OrderStatus status = OrderStatus.valueOf(newStatus.toUpperCase());
 
+        OrderStatus previous = order.getStatus();
         order.updateStatus(status);
 
         repo.save(order);
@@ -130,6 +146,8 @@ public class OrderService implements OrderServicePort {
                 "Status changed to " + status,
                 audits.tailHash()
         ));
+
+        events.publish(order, previous, status);
     }
 
     /**
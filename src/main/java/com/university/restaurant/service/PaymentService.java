@@ -6,6 +6,7 @@ import com.university.restaurant.model.order.OrderStatus;
 import com.university.restaurant.model.payment.Payment;
 import com.university.restaurant.model.payment.PaymentMethod;
 import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.OrderEventListener;
 import com.university.restaurant.port.PaymentServicePort;
 import com.university.restaurant.repository.OrderRepository;
 import com.university.restaurant.repository.PaymentRepository;
@@ -41,6 +42,9 @@ public class PaymentService implements PaymentServicePort {
     private final RestaurantAuditLogRepository audits;
     private final PaymentPermissionChain permissions = new PaymentPermissionChain();
 
+    /** Publishes the SERVED to PAID transition to registered listeners. */
+    private final OrderEventPublisher events = new OrderEventPublisher();
+
     /**
      * Constructs the {@code PaymentService} with the required repository
      * dependencies and audit log.
@@ -57,6 +61,15 @@ public class PaymentService implements PaymentServicePort {
         this.audits = audits;
     }
 
+    /**
+     * Registers a listener notified when an order is paid.
+     *
+     * @param listener the listener to add
+     */
+    public void addOrderEventListener(OrderEventListener listener) {
+        events.addListener(listener);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -111,6 +124,8 @@ public class PaymentService implements PaymentServicePort {
                 audits.tailHash()
         ));
 
+        events.publish(order, OrderStatus.SERVED, OrderStatus.PAID);
+
         return p;
     }
 
@@ -5,13 +5,16 @@ import com.university.restaurant.model.reservation.Customer;
 import com.university.restaurant.model.reservation.Reservation;
 import com.university.restaurant.model.reservation.ReservationStatus;
 import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.ReservationEventListener;
 import com.university.restaurant.port.ReservationServicePort;
 import com.university.restaurant.repository.ReservationRepository;
 import com.university.restaurant.repository.RestaurantAuditEntry;
 import com.university.restaurant.repository.RestaurantAuditLogRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * <p>
@@ -32,6 +35,7 @@ public class ReservationService implements ReservationServicePort {
     private final ReservationRepository repo;
     private final RestaurantAuditLogRepository audits;
     private final ReservationPermissionChain permissionChain = new ReservationPermissionChain();
+    private final List<ReservationEventListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new ReservationService with the required repositories.
@@ -44,6 +48,15 @@ public class ReservationService implements ReservationServicePort {
         this.audits = audits;
     }
 
+    /**
+     * Registers a listener notified after each reservation is created.
+     *
+     * @param listener the listener to add
+     */
+    public void addReservationEventListener(ReservationEventListener listener) {
+        listeners.add(listener);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -54,6 +67,7 @@ public class ReservationService implements ReservationServicePort {
      *     <li>Constructs a {@link Reservation} with the provided details</li>
      *     <li>Saves the reservation to persistent storage</li>
      *     <li>Writes an audit log entry describing the action</li>
+     *     <li>Notifies registered {@link ReservationEventListener}s</li>
      * </ul>
      */
     @Override
@@ -80,6 +94,10 @@ public class ReservationService implements ReservationServicePort {
                 audits.tailHash()
         ));
 
+        for (ReservationEventListener listener : listeners) {
+            listener.onReservationCreated(reservation);
+        }
+
         return reservation;
     }
 
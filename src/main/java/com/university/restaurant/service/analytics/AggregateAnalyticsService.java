@@ -0,0 +1,93 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.chain.analytics.AnalyticsPermissionChain;
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.AnalyticsServicePort;
+import com.university.restaurant.repository.SalesAnalyticsRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Analytics service that delegates every computation to aggregates evaluated
+ * by the order store through {@link SalesAnalyticsRepository}. Nothing is
+ * loaded into memory beyond one row per menu item or hour, which makes it
+ * suitable for stores that cannot return domain orders at all.
+ * </p>
+ *
+ * <p>
+ * Results follow {@link com.university.restaurant.service.AnalyticsService},
+ * except that revenue windows only see orders with a payment record.
+ * </p>
+ */
+public class AggregateAnalyticsService implements AnalyticsServicePort {
+
+    /** Orders whose items count as sold. */
+    private static final Set<OrderStatus> SOLD = EnumSet.of(OrderStatus.SERVED, OrderStatus.PAID);
+
+    /** Store-side sales aggregates. */
+    private final SalesAnalyticsRepository sales;
+
+    /** Permission chain enforcing which staff roles may access analytics. */
+    private final AnalyticsPermissionChain permissions = new AnalyticsPermissionChain();
+
+    /**
+     * Constructs the service over the given aggregate repository.
+     *
+     * @param sales repository computing sales aggregates
+     */
+    public AggregateAnalyticsService(SalesAnalyticsRepository sales) {
+        this.sales = sales;
+    }
+
+    @Override
+    public Map<String, Long> topSellingItems(StaffRole actor) {
+
+        permissions.check(actor, "view top-selling analytics");
+
+        return sales.unitsSoldByItem(SOLD);
+    }
+
+    @Override
+    public List<ItemSales> topSellingItems(StaffRole actor, int k) {
+
+        permissions.check(actor, "view top-selling analytics");
+
+        return sales.topSellingItems(SOLD, k);
+    }
+
+    @Override
+    public double totalRevenueToday(StaffRole actor) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        LocalDate today = LocalDate.now();
+        return sales.revenueOfOrdersCreatedBetween(today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public double revenueBetween(StaffRole actor, LocalDateTime from, LocalDateTime to) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        return sales.paymentsBetween(from, to);
+    }
+
+    @Override
+    public double[] revenueByHourOfDay(StaffRole actor, LocalDate from, LocalDate to) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        return sales.paymentsByHourOfDay(from, to);
+    }
+}
@@ -0,0 +1,267 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.chain.analytics.AnalyticsPermissionChain;
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.AnalyticsServicePort;
+import com.university.restaurant.port.OrderEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Caching decorator for an {@link AnalyticsServicePort}. Each query result is
+ * memoised per query and window. The cache listens to order status events
+ * and drops every cached result the event affects: top-selling results when
+ * an order enters or leaves SERVED/PAID, revenue results when it enters or
+ * leaves PAID.
+ * </p>
+ *
+ * <p>
+ * Results are never patched with the event's order. The services save an
+ * order before they publish its event, so a result computed in between
+ * already includes the order, and adding it again would count it twice.
+ * </p>
+ *
+ * <p>
+ * Events that only the store sees (for example another instance writing to
+ * the same database) are covered by a maximum staleness: every entry expires
+ * after the configured TTL regardless of events.
+ * </p>
+ *
+ * <p>
+ * A result computed while an event arrived is returned but not cached, since
+ * it may or may not include that event. Permissions are checked on every
+ * call, including cache hits.
+ * </p>
+ */
+public class CachingAnalyticsService implements AnalyticsServicePort, OrderEventListener {
+
+    public static final Duration DEFAULT_MAX_STALENESS = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final String TOP_SELLING = "top-selling";
+    private static final String TOP_K = "top-k:";
+    private static final String REVENUE_TODAY = "revenue-today:";
+    private static final String REVENUE_WINDOW = "revenue:";
+    private static final String REVENUE_HOURLY = "revenue-hourly:";
+
+    /**
+     * Cache counters.
+     *
+     * @param hits          queries answered from the cache
+     * @param misses        queries passed to the underlying service
+     * @param expirations   entries found older than the maximum staleness
+     * @param invalidations entries dropped because of an order event
+     */
+    public record CacheStats(long hits, long misses, long expirations, long invalidations) {
+
+        /** Fraction of queries answered from the cache. */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry(Object value, long expiresAtMillis) {
+    }
+
+    private final AnalyticsServicePort delegate;
+    private final Duration maxStaleness;
+    private final int maxEntries;
+    private final Clock clock;
+    private final AnalyticsPermissionChain permissions = new AnalyticsPermissionChain();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped by every relevant event, so results computed across an event are not cached
+    private final AtomicLong salesGeneration = new AtomicLong();
+    private final AtomicLong revenueGeneration = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a cache with the default staleness and size.
+     *
+     * @param delegate the service computing uncached results
+     */
+    public CachingAnalyticsService(AnalyticsServicePort delegate) {
+        this(delegate, DEFAULT_MAX_STALENESS, DEFAULT_MAX_ENTRIES, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param delegate     the service computing uncached results
+     * @param maxStaleness how long an entry may be served without being recomputed
+     * @param maxEntries   maximum number of cached results
+     * @param clock        clock used for expiry and for "today"
+     * @throws IllegalArgumentException if {@code maxStaleness} or {@code maxEntries} is not positive
+     */
+    public CachingAnalyticsService(AnalyticsServicePort delegate, Duration maxStaleness, int maxEntries, Clock clock) {
+        if (maxStaleness.isNegative() || maxStaleness.isZero() || maxEntries < 1) {
+            throw new IllegalArgumentException("maxStaleness and maxEntries must be positive");
+        }
+        this.delegate = delegate;
+        this.maxStaleness = maxStaleness;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public Map<String, Long> topSellingItems(StaffRole actor) {
+
+        permissions.check(actor, "view top-selling analytics");
+
+        return cached(TOP_SELLING, salesGeneration, () -> Map.copyOf(delegate.topSellingItems(actor)));
+    }
+
+    @Override
+    public List<ItemSales> topSellingItems(StaffRole actor, int k) {
+
+        permissions.check(actor, "view top-selling analytics");
+
+        return cached(TOP_K + k, salesGeneration, () -> List.copyOf(delegate.topSellingItems(actor, k)));
+    }
+
+    @Override
+    public double totalRevenueToday(StaffRole actor) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        return cached(REVENUE_TODAY + LocalDate.now(clock), revenueGeneration,
+                () -> delegate.totalRevenueToday(actor));
+    }
+
+    @Override
+    public double revenueBetween(StaffRole actor, LocalDateTime from, LocalDateTime to) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        return cached(REVENUE_WINDOW + from + "/" + to, revenueGeneration,
+                () -> delegate.revenueBetween(actor, from, to));
+    }
+
+    @Override
+    public double[] revenueByHourOfDay(StaffRole actor, LocalDate from, LocalDate to) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        double[] byHour = cached(REVENUE_HOURLY + from + "/" + to, revenueGeneration,
+                () -> delegate.revenueByHourOfDay(actor, from, to).clone());
+        return byHour.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Drops the cached results the transition affects.
+     * </p>
+     */
+    @Override
+    public void onStatusChanged(Order order, OrderStatus from, OrderStatus to) {
+        boolean wasSold = isSold(from);
+        boolean isSold = isSold(to);
+        if (wasSold != isSold) {
+            salesGeneration.incrementAndGet();
+            invalidate(TOP_SELLING);
+            invalidate(TOP_K);
+        }
+        boolean wasPaid = from == OrderStatus.PAID;
+        boolean isPaid = to == OrderStatus.PAID;
+        if (wasPaid != isPaid) {
+            revenueGeneration.incrementAndGet();
+            invalidate(REVENUE_TODAY);
+            invalidate(REVENUE_WINDOW);
+            invalidate(REVENUE_HOURLY);
+        }
+    }
+
+    /**
+     * Hit, miss, expiry and invalidation counts, for a staff member.
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     */
+    public CacheStats stats(StaffRole actor) {
+
+        permissions.check(actor, "view analytics cache statistics");
+
+        return stats();
+    }
+
+    /** Hit, miss, expiry and invalidation counts. */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    /** Drops every cached result. */
+    public void clear() {
+        salesGeneration.incrementAndGet();
+        revenueGeneration.incrementAndGet();
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, AtomicLong generation, Supplier<T> compute) {
+        long now = clock.millis();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (now < entry.expiresAtMillis()) {
+                hits.increment();
+                return (T) entry.value();
+            }
+            if (entries.remove(key, entry)) {
+                expirations.increment();
+            }
+        }
+
+        misses.increment();
+        long before = generation.get();
+        T value = compute.get();
+        if (generation.get() == before && hasRoom()) {
+            entries.put(key, new Entry(value, now + maxStaleness.toMillis()));
+            if (generation.get() != before) {
+                // An event slipped in after the check; the value may miss it
+                entries.remove(key);
+            }
+        }
+        return value;
+    }
+
+    private boolean hasRoom() {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        long now = clock.millis();
+        entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+        return entries.size() < maxEntries;
+    }
+
+    private void invalidate(String prefix) {
+        entries.keySet().removeIf(key -> {
+            if (key.startsWith(prefix)) {
+                invalidations.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static boolean isSold(OrderStatus status) {
+        return status == OrderStatus.SERVED || status == OrderStatus.PAID;
+    }
+}
@@ -0,0 +1,271 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.ItemAssociation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Market-basket counter of menu items ordered together.
+ * <p>
+ * Each basket (one order) counts every item once and every unordered pair of
+ * distinct items once. Items are interned to int ids, and pair counts live in
+ * a sparse symmetric matrix: an open-addressed table keyed by the two ids
+ * packed into one {@code long}, smaller id in the high half. Nothing is boxed
+ * per pair.
+ * </p>
+ * <p>
+ * The table holds at most {@code maxPairs} pairs. When it overflows, the
+ * rarest pairs are pruned until half the budget is free. A pruned pair that
+ * reappears starts again from zero, so pair counts may undercount by at most
+ * {@link #maxUndercount()}, the sum of the pruning thresholds so far. Pairs
+ * frequent enough to matter for combo design survive pruning.
+ * </p>
+ * <p>
+ * Baskets cannot be removed again. Methods are synchronized.
+ * </p>
+ */
+public final class CoOccurrenceCounter {
+
+    public static final int DEFAULT_MAX_PAIRS = 100_000;
+
+    private static final Comparator<ItemAssociation> BY_COUNT_DESC =
+            Comparator.comparingLong(ItemAssociation::togetherCount).reversed()
+                    .thenComparing(ItemAssociation::itemName)
+                    .thenComparing(ItemAssociation::associatedItem);
+
+    private final int maxPairs;
+
+    // Item dictionary and per-item basket counts
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private long[] itemCounts = new long[16];
+
+    // Open-addressed pair table, load factor at most one half; key 0 marks a free slot
+    private long[] keys;
+    private long[] counts;
+    private int pairs;
+
+    private long baskets;
+    private long maxUndercount;
+    private long prunedPairs;
+
+    /** Creates a counter holding at most {@link #DEFAULT_MAX_PAIRS} pairs. */
+    public CoOccurrenceCounter() {
+        this(DEFAULT_MAX_PAIRS);
+    }
+
+    /**
+     * @param maxPairs most pairs kept before rare ones are pruned
+     * @throws IllegalArgumentException if {@code maxPairs} is not in [2, 2^28]
+     */
+    public CoOccurrenceCounter(int maxPairs) {
+        if (maxPairs < 2 || maxPairs > 1 << 28) {
+            throw new IllegalArgumentException("maxPairs must be between 2 and 2^28");
+        }
+        this.maxPairs = maxPairs;
+        int capacity = Integer.highestOneBit(maxPairs) << 2;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+    }
+
+    /**
+     * Counts one basket. Repeated items count once.
+     *
+     * @param itemNames names of the items in one order
+     */
+    public synchronized void add(Collection<String> itemNames) {
+        int[] basket = itemNames.stream().distinct().mapToInt(this::intern).sorted().toArray();
+        baskets++;
+        for (int i = 0; i < basket.length; i++) {
+            itemCounts[basket[i]]++;
+            for (int j = i + 1; j < basket.length; j++) {
+                increment(pack(basket[i], basket[j]));
+                if (pairs > maxPairs) {
+                    prune();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the items most often ordered together with {@code itemName}.
+     *
+     * @param itemName      the item to read associations from
+     * @param k             maximum number of associations to return
+     * @param minConfidence smallest confidence to report, in [0, 1]
+     * @return up to {@code k} associations ordered by descending count
+     */
+    public synchronized List<ItemAssociation> associations(String itemName, int k, double minConfidence) {
+        Integer id = ids.get(itemName);
+        if (id == null || k <= 0) {
+            return List.of();
+        }
+        List<ItemAssociation> result = new ArrayList<>();
+        for (int slot = 0; slot < keys.length; slot++) {
+            long key = keys[slot];
+            if (key == 0) {
+                continue;
+            }
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            if (a == id || b == id) {
+                ItemAssociation association = association(id, a == id ? b : a, counts[slot]);
+                if (association.confidence() >= minConfidence) {
+                    result.add(association);
+                }
+            }
+        }
+        result.sort(BY_COUNT_DESC);
+        return result.size() > k ? List.copyOf(result.subList(0, k)) : result;
+    }
+
+    /**
+     * Returns the pairs ordered together most often. Each pair is reported
+     * once, read from the item that gives the higher confidence.
+     *
+     * @param k maximum number of pairs to return
+     * @return up to {@code k} pairs ordered by descending count
+     */
+    public synchronized List<ItemAssociation> topPairs(int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<ItemAssociation> best = new PriorityQueue<>(BY_COUNT_DESC.reversed());
+        for (int slot = 0; slot < keys.length; slot++) {
+            long key = keys[slot];
+            if (key == 0) {
+                continue;
+            }
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            // The rarer item has the higher confidence in the other
+            ItemAssociation pair = itemCounts[a] <= itemCounts[b]
+                    ? association(a, b, counts[slot])
+                    : association(b, a, counts[slot]);
+            best.add(pair);
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        List<ItemAssociation> result = new ArrayList<>(best);
+        result.sort(BY_COUNT_DESC);
+        return result;
+    }
+
+    /** Number of orders counted. */
+    public synchronized long baskets() {
+        return baskets;
+    }
+
+    /** Number of distinct pairs currently held. */
+    public synchronized int pairs() {
+        return pairs;
+    }
+
+    /** Pairs dropped by pruning so far. */
+    public synchronized long prunedPairs() {
+        return prunedPairs;
+    }
+
+    /** Largest amount by which a reported pair count may fall short of the truth. */
+    public synchronized long maxUndercount() {
+        return maxUndercount;
+    }
+
+    private ItemAssociation association(int item, int other, long together) {
+        double support = (double) together / baskets;
+        double confidence = (double) together / itemCounts[item];
+        double lift = confidence / ((double) itemCounts[other] / baskets);
+        return new ItemAssociation(names.get(item), names.get(other), together, support, confidence, lift);
+    }
+
+    private int intern(String name) {
+        return ids.computeIfAbsent(name, n -> {
+            names.add(n);
+            if (names.size() > itemCounts.length) {
+                itemCounts = Arrays.copyOf(itemCounts, itemCounts.length * 2);
+            }
+            return names.size() - 1;
+        });
+    }
+
+    /** Packs two distinct ids, smaller first; never zero since the larger id is positive. */
+    private static long pack(int a, int b) {
+        return ((long) a << 32) | b;
+    }
+
+    private void increment(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        counts[slot] = 1;
+        pairs++;
+    }
+
+    /**
+     * Keeps the {@code maxPairs / 2} most frequent pairs and rehashes them.
+     * Pairs tied at the cut-off count are kept in slot order until the budget
+     * is met, so ties never empty the table.
+     */
+    private void prune() {
+        long[] live = new long[pairs];
+        int n = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                live[n++] = counts[slot];
+            }
+        }
+        Arrays.sort(live);
+        int keep = maxPairs / 2;
+        long threshold = live[pairs - keep - 1];
+        // Survivors tied with the highest dropped count
+        int ties = 0;
+        for (int i = pairs - keep; i < pairs && live[i] == threshold; i++) {
+            ties++;
+        }
+
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new long[oldKeys.length];
+        counts = new long[oldCounts.length];
+        int before = pairs;
+        pairs = 0;
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0 || oldCounts[i] < threshold) {
+                continue;
+            }
+            if (oldCounts[i] == threshold && ties-- <= 0) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            counts[slot] = oldCounts[i];
+            pairs++;
+        }
+        prunedPairs += before - pairs;
+        maxUndercount += threshold;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,178 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.chain.analytics.AnalyticsPermissionChain;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.reservation.Reservation;
+import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.OrderEventListener;
+import com.university.restaurant.port.ReservationEventListener;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * <p>
+ * Distinct-count analytics backed by one {@link HyperLogLog} per subject and
+ * day, so memory per day is fixed however many customers, tables or waiters
+ * are seen. It is registered as a listener on the services that create
+ * reservations and complete orders:
+ * </p>
+ * <ul>
+ *     <li>customers are counted by phone number on the reservation date</li>
+ *     <li>tables and waiters are counted when an order becomes
+ *     {@link OrderStatus#PAID}, on the payment date</li>
+ * </ul>
+ *
+ * <p>
+ * Counts over a date range merge the daily sketches, so a customer who
+ * visits on several days is counted once. Sketches from other sites can be
+ * folded in with {@link #merge(Subject, LocalDate, HyperLogLog)}.
+ * </p>
+ */
+public class DistinctCountAnalytics implements OrderEventListener, ReservationEventListener {
+
+    /** What is being counted. */
+    public enum Subject {
+        CUSTOMERS,
+        TABLES,
+        WAITERS
+    }
+
+    /** Permission chain enforcing which staff roles may access analytics. */
+    private final AnalyticsPermissionChain permissions = new AnalyticsPermissionChain();
+
+    /** Daily sketches per subject, sorted so a range reads only the days that have one. */
+    private final Map<Subject, NavigableMap<LocalDate, HyperLogLog>> daily = new EnumMap<>(Subject.class);
+
+    /** Register bits of every sketch. */
+    private final int precision;
+
+    /**
+     * Creates the service with sketches of {@link HyperLogLog#DEFAULT_PRECISION}.
+     */
+    public DistinctCountAnalytics() {
+        this(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision register bits of each daily sketch; memory per sketch
+     *                  is {@code 2^precision} bytes
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public DistinctCountAnalytics(int precision) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between "
+                    + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION);
+        }
+        this.precision = precision;
+        for (Subject subject : Subject.values()) {
+            daily.put(subject, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Counts the customer's phone number on the reservation date.
+     * </p>
+     */
+    @Override
+    public void onReservationCreated(Reservation reservation) {
+        sketch(Subject.CUSTOMERS, reservation.getReservationTime().toLocalDate())
+                .add(reservation.getCustomer().getPhone());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Counts the order's table and waiter when it becomes PAID.
+     * </p>
+     */
+    @Override
+    public void onStatusChanged(Order order, OrderStatus from, OrderStatus to) {
+        if (to != OrderStatus.PAID || from == OrderStatus.PAID) {
+            return;
+        }
+        LocalDate day = order.getPaidAt().toLocalDate();
+        sketch(Subject.TABLES, day).add(order.getTableNumber());
+        sketch(Subject.WAITERS, day).add(order.getAssignedWaiterId());
+    }
+
+    /**
+     * Returns the estimated number of distinct values of {@code subject}
+     * between {@code from} and {@code to}, inclusive.
+     *
+     * @param actor   the staff role requesting analytics access
+     * @param subject what to count
+     * @param from    first date to include
+     * @param to      last date to include
+     * @return the estimate, within about {@link #relativeStandardError()}
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public long distinctCount(StaffRole actor, Subject subject, LocalDate from, LocalDate to) {
+
+        permissions.check(actor, "view distinct-count analytics");
+
+        return sketch(subject, from, to).estimate();
+    }
+
+    /** Estimated distinct customers, by phone number, who reserved between the dates. */
+    public long distinctCustomers(StaffRole actor, LocalDate from, LocalDate to) {
+        return distinctCount(actor, Subject.CUSTOMERS, from, to);
+    }
+
+    /** Estimated distinct tables with a paid order between the dates. */
+    public long distinctTables(StaffRole actor, LocalDate from, LocalDate to) {
+        return distinctCount(actor, Subject.TABLES, from, to);
+    }
+
+    /** Estimated distinct waiters with a paid order between the dates. */
+    public long distinctWaiters(StaffRole actor, LocalDate from, LocalDate to) {
+        return distinctCount(actor, Subject.WAITERS, from, to);
+    }
+
+    /**
+     * Returns the union of the daily sketches for {@code subject} between
+     * {@code from} and {@code to}, inclusive. The result is a copy; it can be
+     * sent to other sites and merged there.
+     *
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public HyperLogLog sketch(Subject subject, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        HyperLogLog merged = new HyperLogLog(precision);
+        for (HyperLogLog sketch : daily.get(subject).subMap(from, true, to, true).values()) {
+            merged.addAll(sketch);
+        }
+        return merged;
+    }
+
+    /**
+     * Folds another site's sketch of {@code subject} for {@code day} into
+     * this one.
+     *
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(Subject subject, LocalDate day, HyperLogLog other) {
+        sketch(subject, day).addAll(other);
+    }
+
+    /** Expected relative standard error of every estimate. */
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    private HyperLogLog sketch(Subject subject, LocalDate day) {
+        return daily.get(subject).computeIfAbsent(day, d -> new HyperLogLog(precision));
+    }
+}
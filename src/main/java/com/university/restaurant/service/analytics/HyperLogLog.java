@@ -0,0 +1,195 @@
+package com.university.restaurant.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct-count sketch (Flajolet et al.).
+ * <p>
+ * Values are hashed to 64 bits. The top {@code precision} bits pick one of
+ * {@code 2^precision} one-byte registers, and each register keeps the
+ * longest run of leading zeros seen in the remaining bits. The estimate has
+ * a relative standard error of about {@code 1.04 / sqrt(2^precision)}: 1.6%
+ * with the default 4 KB of registers. Small cardinalities fall back to
+ * linear counting over empty registers, which is nearly exact.
+ * </p>
+ * <p>
+ * Memory is fixed by the precision however many values are added. Two
+ * sketches of the same precision merge losslessly by taking the maximum of
+ * each register, so daily sketches can be combined over a date range and
+ * sketches from several sites can be combined after exchanging
+ * {@link #toByteArray()} snapshots. Methods are synchronized.
+ * </p>
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /** Creates a sketch with {@link #DEFAULT_PRECISION}. */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision number of hash bits used to pick a register
+     * @throws IllegalArgumentException if {@code precision} is outside
+     *         [{@link #MIN_PRECISION}, {@link #MAX_PRECISION}]
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                    "precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Restores a sketch from {@link #toByteArray()}, for example one received
+     * from another site.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid snapshot
+     */
+    public static HyperLogLog fromByteArray(byte[] bytes) {
+        if (bytes.length < 1) {
+            throw new IllegalArgumentException("Empty HyperLogLog snapshot");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        if (bytes.length != sketch.registers.length + 1) {
+            throw new IllegalArgumentException("HyperLogLog snapshot has the wrong length");
+        }
+        // A rank counts the leading zeros of the 64 - precision bits left after the index, plus one
+        int maxRank = 65 - sketch.precision;
+        for (int i = 1; i < bytes.length; i++) {
+            if (bytes[i] < 0 || bytes[i] > maxRank) {
+                throw new IllegalArgumentException("HyperLogLog register out of range: " + bytes[i]);
+            }
+        }
+        System.arraycopy(bytes, 1, sketch.registers, 0, sketch.registers.length);
+        return sketch;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /** Expected relative standard error of {@link #estimate()}. */
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /** Records a string value; {@code null} is ignored. */
+    public void add(String value) {
+        if (value == null) {
+            return;
+        }
+        // FNV-1a over the chars, then a full avalanche so every bit is usable
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        addHash(mix(hash));
+    }
+
+    /** Records a numeric value. */
+    public void add(long value) {
+        addHash(mix(value ^ 0x9E3779B97F4A7C15L));
+    }
+
+    private synchronized void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // A sentinel bit caps the rank when the remaining bits are all zero
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /** Estimated number of distinct values added. */
+    public synchronized long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Returns a new sketch counting the union of this sketch's values and the
+     * other's. Neither input is modified.
+     *
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        HyperLogLog merged = new HyperLogLog(precision);
+        merged.addAll(this);
+        merged.addAll(other);
+        return merged;
+    }
+
+    /**
+     * Adds every value counted by {@code other} to this sketch.
+     *
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void addAll(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of different precision");
+        }
+        // Snapshot the other side under its own lock so merges never nest locks
+        byte[] theirs = other.registersCopy();
+        synchronized (this) {
+            for (int i = 0; i < registers.length; i++) {
+                if (theirs[i] > registers[i]) {
+                    registers[i] = theirs[i];
+                }
+            }
+        }
+    }
+
+    /** Serialises the sketch as its precision followed by its registers. */
+    public synchronized byte[] toByteArray() {
+        byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    private synchronized byte[] registersCopy() {
+        return Arrays.copyOf(registers, registers.length);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    /** MurmurHash3 64-bit finaliser. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,500 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.chain.analytics.AnalyticsPermissionChain;
+import com.university.restaurant.model.analytics.ItemAssociation;
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.analytics.SalesSlice;
+import com.university.restaurant.model.menu.MenuItem;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.AnalyticsServicePort;
+import com.university.restaurant.port.OrderEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Analytics service that maintains its results incrementally from order
+ * status transitions instead of rescanning the order history on every query.
+ * It is registered as an {@link OrderEventListener} on the services that
+ * change order status.
+ * </p>
+ *
+ * <p>
+ * The semantics match {@link com.university.restaurant.service.AnalyticsService}:
+ * </p>
+ * <ul>
+ *     <li>Item counts include orders that are {@link OrderStatus#SERVED} or
+ *     {@link OrderStatus#PAID}; an order is counted when it enters that set and
+ *     uncounted if it leaves it</li>
+ *     <li>Revenue includes {@link OrderStatus#PAID} orders, bucketed by the
+ *     order's creation date</li>
+ * </ul>
+ *
+ * <p>
+ * Accumulators are {@link LongAdder}s and {@link DoubleAdder}s, so concurrent
+ * transitions do not contend on a shared counter, and queries cost
+ * O(distinct items) however much history has been recorded.
+ * </p>
+ *
+ * <p>
+ * Top-K queries are answered from {@link SpaceSavingSketch}es whose memory is
+ * fixed by the configured capacity: one over all history and one per order
+ * creation date, which can be merged for a date range. Sketches only count
+ * sales, so an order that leaves SERVED/PAID is not subtracted from them.
+ * </p>
+ *
+ * <p>
+ * Per-day revenue and sketches are kept for {@link #RETAINED_DAYS} days,
+ * the rollup's day retention; older days are dropped once a day.
+ * </p>
+ *
+ * <p>
+ * Revenue windows are answered from a {@link RevenueRollup} keyed by payment
+ * time, in O(buckets) rather than O(orders).
+ * </p>
+ *
+ * <p>
+ * Paid order lines are also appended to a {@link SalesCube} for sliced
+ * queries by item, time, waiter, table and payment method. Lines paid more
+ * than {@link #RETAINED_DAYS} days ago are dropped with the per-day maps, and
+ * the cube holds at most {@link SalesCube#DEFAULT_MAX_ROWS} lines.
+ * </p>
+ *
+ * <p>
+ * Items ordered together are counted by a {@link CoOccurrenceCounter} when
+ * an order becomes SERVED or PAID, for combo design.
+ * </p>
+ *
+ * <p>
+ * An instance from {@link #salesOnly(int, Clock)} maintains only the sales
+ * cube and the co-occurrence counts, for deployments whose top-selling and
+ * revenue queries are answered elsewhere; its running-total queries throw
+ * {@link UnsupportedOperationException}.
+ * </p>
+ */
+public class IncrementalAnalyticsService implements AnalyticsServicePort, OrderEventListener {
+
+    public static final int DEFAULT_SKETCH_CAPACITY = 256;
+
+    /** Creation dates kept in the per-day maps, counting back from today. */
+    public static final int RETAINED_DAYS = RevenueRollup.DEFAULT_DAYS;
+
+    /** Permission chain enforcing which staff roles may access analytics. */
+    private final AnalyticsPermissionChain permissions = new AnalyticsPermissionChain();
+
+    /** Running number of units sold per menu item name. */
+    private final Map<String, LongAdder> itemCounts = new ConcurrentHashMap<>();
+
+    /** Running revenue of paid orders per menu item name. */
+    private final Map<String, DoubleAdder> itemRevenue = new ConcurrentHashMap<>();
+
+    /** Running revenue of paid orders per order creation date. */
+    private final Map<LocalDate, DoubleAdder> dailyRevenue = new ConcurrentHashMap<>();
+
+    /** Revenue of paid orders per minute, hour and day of payment. */
+    private final RevenueRollup rollup = new RevenueRollup();
+
+    /** Columnar store of paid order lines. */
+    private final SalesCube salesCube = new SalesCube();
+
+    /** Pair counts of items sold in the same order. */
+    private final CoOccurrenceCounter coOccurrence;
+
+    /** Number of items each top-K sketch tracks. */
+    private final int sketchCapacity;
+
+    /** Heavy hitters over all recorded sales. */
+    private final SpaceSavingSketch topSelling;
+
+    /** Heavy hitters per order creation date. */
+    private final Map<LocalDate, SpaceSavingSketch> dailyTopSelling = new ConcurrentHashMap<>();
+
+    /** Source of today's date for daily revenue and retention. */
+    private final Clock clock;
+
+    /** Whether the counts, sketches, revenue maps and rollup are maintained. */
+    private final boolean totals;
+
+    /** Day the per-day maps were last pruned. */
+    private volatile LocalDate lastEviction;
+
+    /**
+     * Creates the service with top-K sketches of {@link #DEFAULT_SKETCH_CAPACITY} items.
+     */
+    public IncrementalAnalyticsService() {
+        this(DEFAULT_SKETCH_CAPACITY);
+    }
+
+    /**
+     * Creates the service with top-K sketches tracking {@code sketchCapacity}
+     * items each. Reported top-K counts overestimate by at most
+     * {@code sales / sketchCapacity}.
+     *
+     * @param sketchCapacity number of items each sketch tracks
+     * @throws IllegalArgumentException if {@code sketchCapacity} is not positive
+     */
+    public IncrementalAnalyticsService(int sketchCapacity) {
+        this(sketchCapacity, CoOccurrenceCounter.DEFAULT_MAX_PAIRS);
+    }
+
+    /**
+     * Creates the service with top-K sketches tracking {@code sketchCapacity}
+     * items each and a co-occurrence counter holding at most
+     * {@code maxItemPairs} item pairs.
+     *
+     * @param sketchCapacity number of items each sketch tracks
+     * @param maxItemPairs   item pairs kept before rare ones are pruned
+     * @throws IllegalArgumentException if either bound is out of range
+     */
+    public IncrementalAnalyticsService(int sketchCapacity, int maxItemPairs) {
+        this(sketchCapacity, maxItemPairs, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates the service with the given bounds, reading today's date from
+     * {@code clock}.
+     *
+     * @param sketchCapacity number of items each sketch tracks
+     * @param maxItemPairs   item pairs kept before rare ones are pruned
+     * @param clock          source of today's date
+     * @throws IllegalArgumentException if either bound is out of range
+     */
+    public IncrementalAnalyticsService(int sketchCapacity, int maxItemPairs, Clock clock) {
+        this(sketchCapacity, maxItemPairs, clock, true);
+    }
+
+    private IncrementalAnalyticsService(int sketchCapacity, int maxItemPairs, Clock clock, boolean totals) {
+        this.topSelling = new SpaceSavingSketch(sketchCapacity);
+        this.sketchCapacity = sketchCapacity;
+        this.coOccurrence = new CoOccurrenceCounter(maxItemPairs);
+        this.clock = clock;
+        this.totals = totals;
+    }
+
+    /**
+     * Creates a service that maintains only the sales cube and item pair
+     * counts, for {@link #salesBy}, {@link #itemsOrderedWith} and
+     * {@link #topItemPairs}. The top-selling and revenue queries throw
+     * {@link UnsupportedOperationException}.
+     *
+     * @param maxItemPairs item pairs kept before rare ones are pruned
+     * @param clock        source of today's date
+     * @throws IllegalArgumentException if {@code maxItemPairs} is out of range
+     */
+    public static IncrementalAnalyticsService salesOnly(int maxItemPairs, Clock clock) {
+        // The unused sketch is allocated at the smallest capacity
+        return new IncrementalAnalyticsService(1, maxItemPairs, clock, false);
+    }
+
+    /**
+     * Seeds the accumulators from existing orders, as if each had just been
+     * placed and moved straight to its current status. Intended to be called
+     * once at startup before the service receives live events.
+     *
+     * @param orders the existing order history
+     */
+    public void replay(Collection<Order> orders) {
+        for (Order order : orders) {
+            onStatusChanged(order, null, order.getStatus());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Adds the order's items to the counts when it becomes SERVED or PAID,
+     * and its revenue when it becomes PAID; the reverse transitions subtract
+     * them again.
+     * </p>
+     */
+    @Override
+    public void onStatusChanged(Order order, OrderStatus from, OrderStatus to) {
+        boolean wasSold = isSold(from);
+        boolean isSold = isSold(to);
+        boolean wasPaid = from == OrderStatus.PAID;
+        boolean isPaid = to == OrderStatus.PAID;
+        if (wasSold == isSold && wasPaid == isPaid) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        evictExpiredDays(today);
+        LocalDate created = order.getCreatedAt().toLocalDate();
+        boolean retained = !created.isBefore(today.minusDays(RETAINED_DAYS));
+
+        List<MenuItem> items = order.getItems();
+        if (wasSold != isSold && totals) {
+            long delta = isSold ? 1 : -1;
+            for (MenuItem item : items) {
+                itemCounts.computeIfAbsent(item.getName(), k -> new LongAdder()).add(delta);
+            }
+            if (isSold) {
+                for (MenuItem item : items) {
+                    topSelling.add(item.getName());
+                }
+                if (retained) {
+                    SpaceSavingSketch daily = dailyTopSelling.computeIfAbsent(
+                            created, k -> new SpaceSavingSketch(sketchCapacity));
+                    for (MenuItem item : items) {
+                        daily.add(item.getName());
+                    }
+                }
+            }
+        }
+        if (isSold && !wasSold) {
+            coOccurrence.add(items.stream().map(MenuItem::getName).toList());
+        }
+        if (wasPaid != isPaid && totals) {
+            double sign = isPaid ? 1 : -1;
+            double total = 0;
+            for (MenuItem item : items) {
+                double price = item.calculatePrice();
+                itemRevenue.computeIfAbsent(item.getName(), k -> new DoubleAdder()).add(sign * price);
+                total += price;
+            }
+            if (retained) {
+                dailyRevenue.computeIfAbsent(created, k -> new DoubleAdder()).add(sign * total);
+            }
+            rollup.record(order.getPaidAt(), sign * total);
+        }
+        // The cube only appends, and needs the payment's time and method
+        if (isPaid && !wasPaid && order.getPayment() != null
+                && !order.getPaidAt().toLocalDate().isBefore(today.minusDays(RETAINED_DAYS))) {
+            salesCube.add(order);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Reads the running counters; items whose count has dropped back to zero
+     * are omitted.
+     * </p>
+     */
+    @Override
+    public Map<String, Long> topSellingItems(StaffRole actor) {
+
+        permissions.check(actor, "view top-selling analytics");
+        requireTotals();
+
+        Map<String, Long> result = new HashMap<>();
+        itemCounts.forEach((name, count) -> {
+            long sold = count.sum();
+            if (sold > 0) {
+                result.put(name, sold);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Answered from a bounded sketch; counts are upper bounds whose possible
+     * overestimate is reported in {@link ItemSales#maxError()}.
+     * </p>
+     */
+    @Override
+    public List<ItemSales> topSellingItems(StaffRole actor, int k) {
+
+        permissions.check(actor, "view top-selling analytics");
+        requireTotals();
+
+        return topSelling.topK(k);
+    }
+
+    /**
+     * Returns the {@code k} best-selling items among orders created between
+     * {@code from} and {@code to}, inclusive, by merging the per-day sketches.
+     *
+     * @param actor the staff role requesting analytics access
+     * @param k     maximum number of items to return
+     * @param from  first creation date to include
+     * @param to    last creation date to include
+     * @return up to {@code k} items ordered by descending count
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     */
+    public List<ItemSales> topSellingItems(StaffRole actor, int k, LocalDate from, LocalDate to) {
+
+        permissions.check(actor, "view top-selling analytics");
+
+        return topSellingSketch(from, to).topK(k);
+    }
+
+    /**
+     * Returns a sketch of the sales of orders created between {@code from}
+     * and {@code to}, inclusive. The result is a copy; it can be merged with
+     * sketches from other instances.
+     */
+    public SpaceSavingSketch topSellingSketch(LocalDate from, LocalDate to) {
+        requireTotals();
+        SpaceSavingSketch merged = new SpaceSavingSketch(sketchCapacity);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            SpaceSavingSketch daily = dailyTopSelling.get(day);
+            if (daily != null) {
+                merged = merged.merge(daily);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the items most often sold in the same order as {@code itemName}.
+     *
+     * @param actor         the staff role requesting analytics access
+     * @param itemName      the item to find companions for
+     * @param k             maximum number of items to return
+     * @param minConfidence smallest fraction of {@code itemName}'s orders that
+     *                      must also contain the companion
+     * @return up to {@code k} associations ordered by descending count
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     */
+    public List<ItemAssociation> itemsOrderedWith(StaffRole actor, String itemName, int k, double minConfidence) {
+
+        permissions.check(actor, "view top-selling analytics");
+
+        return coOccurrence.associations(itemName, k, minConfidence);
+    }
+
+    /**
+     * Returns the item pairs most often sold in the same order.
+     *
+     * @param actor the staff role requesting analytics access
+     * @param k     maximum number of pairs to return
+     * @return up to {@code k} pairs ordered by descending count
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     */
+    public List<ItemAssociation> topItemPairs(StaffRole actor, int k) {
+
+        permissions.check(actor, "view top-selling analytics");
+
+        return coOccurrence.topPairs(k);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Reads the running total for today's creation date.
+     * </p>
+     */
+    @Override
+    public double totalRevenueToday(StaffRole actor) {
+
+        permissions.check(actor, "view revenue analytics");
+        requireTotals();
+
+        DoubleAdder today = dailyRevenue.get(LocalDate.now(clock));
+        return today == null ? 0.0 : today.sum();
+    }
+
+    /**
+     * Returns the revenue of paid orders broken down by menu item name.
+     *
+     * @param actor the staff role requesting analytics access
+     * @return a map of item names to revenue
+     *
+     * @throws SecurityException if the role is not authorized to view revenue analytics
+     */
+    public Map<String, Double> revenueByItem(StaffRole actor) {
+
+        permissions.check(actor, "view revenue analytics");
+        requireTotals();
+
+        Map<String, Double> result = new HashMap<>();
+        itemRevenue.forEach((name, revenue) -> result.put(name, revenue.sum()));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Sums at most a few hundred rollup buckets plus one per day.
+     * </p>
+     */
+    @Override
+    public double revenueBetween(StaffRole actor, LocalDateTime from, LocalDateTime to) {
+
+        permissions.check(actor, "view revenue analytics");
+        requireTotals();
+
+        return rollup.revenueBetween(from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Reads 24 hourly rollup buckets per day.
+     * </p>
+     */
+    @Override
+    public double[] revenueByHourOfDay(StaffRole actor, LocalDate from, LocalDate to) {
+
+        permissions.check(actor, "view revenue analytics");
+        requireTotals();
+
+        return rollup.revenueByHourOfDay(from, to);
+    }
+
+    /**
+     * Returns units sold and revenue of paid order lines, filtered and grouped
+     * as the query specifies. Orders paid without a payment record and orders
+     * that later left PAID are not reflected. Only lines paid within the last
+     * {@link #RETAINED_DAYS} days are kept, up to {@link SalesCube#DEFAULT_MAX_ROWS}
+     * lines; beyond that the oldest are dropped.
+     *
+     * @param actor the staff role requesting analytics access
+     * @param query filters and group dimensions
+     * @return one slice per non-empty group
+     *
+     * @throws SecurityException if the role is not authorized to view revenue analytics
+     * @throws IllegalArgumentException if the query would produce too many groups
+     */
+    public List<SalesSlice> salesBy(StaffRole actor, SalesCube.Query query) {
+
+        permissions.check(actor, "view revenue analytics");
+
+        return salesCube.aggregate(query);
+    }
+
+    private void requireTotals() {
+        if (!totals) {
+            throw new UnsupportedOperationException("Running totals are not maintained by this instance");
+        }
+    }
+
+    /** Drops per-day entries older than the retention, at most once per day. */
+    private void evictExpiredDays(LocalDate today) {
+        if (today.equals(lastEviction)) {
+            return;
+        }
+        lastEviction = today;
+        LocalDate cutoff = today.minusDays(RETAINED_DAYS);
+        dailyRevenue.keySet().removeIf(day -> day.isBefore(cutoff));
+        dailyTopSelling.keySet().removeIf(day -> day.isBefore(cutoff));
+        salesCube.evictBefore(cutoff.atStartOfDay());
+    }
+
+    private static boolean isSold(OrderStatus status) {
+        return status == OrderStatus.SERVED || status == OrderStatus.PAID;
+    }
+}
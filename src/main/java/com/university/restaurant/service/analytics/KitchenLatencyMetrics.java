@@ -0,0 +1,146 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.chain.analytics.AnalyticsPermissionChain;
+import com.university.restaurant.model.menu.MenuCategory;
+import com.university.restaurant.model.staff.StaffRole;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Kitchen latency histograms, recorded by the kitchen workers:
+ * </p>
+ * <ul>
+ *     <li>{@link Stage#QUEUE_WAIT}: from submission until a worker picks up
+ *     an item's ticket, per worker and per item {@link MenuCategory}</li>
+ *     <li>{@link Stage#PROCESSING}: time spent preparing each item, per worker
+ *     and per item category</li>
+ *     <li>{@link Stage#ORDER_TO_READY}: from submission until the order is
+ *     READY</li>
+ * </ul>
+ * <p>
+ * Recording is lock-free (see {@link LatencyHistogram}). Reports are either
+ * cumulative or cover the interval since the previous interval report.
+ * </p>
+ */
+public class KitchenLatencyMetrics {
+
+    /** Which part of an order's path through the kitchen is measured. */
+    public enum Stage {
+        QUEUE_WAIT,
+        PROCESSING,
+        ORDER_TO_READY
+    }
+
+    /**
+     * Latency of one stage: all recordings, and the same recordings split by
+     * worker and by menu category. Splits that were never recorded are
+     * absent.
+     */
+    public record Breakdown(LatencyHistogram.Snapshot total,
+                            Map<Integer, LatencyHistogram.Snapshot> byWorker,
+                            Map<MenuCategory, LatencyHistogram.Snapshot> byCategory) {
+    }
+
+    /**
+     * Latencies recorded between {@code from} and {@code to}; {@code from}
+     * is the creation time for cumulative reports.
+     */
+    public record Report(Instant from, Instant to, Map<Stage, Breakdown> stages) {
+    }
+
+    /** Permission chain enforcing which staff roles may access analytics. */
+    private final AnalyticsPermissionChain permissions = new AnalyticsPermissionChain();
+
+    private final Map<Stage, Histograms> stages = new EnumMap<>(Stage.class);
+    private final Clock clock;
+    private final Instant createdAt;
+    private Instant intervalStart;
+
+    public KitchenLatencyMetrics() {
+        this(Clock.systemUTC());
+    }
+
+    public KitchenLatencyMetrics(Clock clock) {
+        this.clock = clock;
+        this.createdAt = clock.instant();
+        this.intervalStart = createdAt;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new Histograms());
+        }
+    }
+
+    /** Records how long an item of {@code category} waited until {@code workerId} picked it up. */
+    public void recordQueueWait(int workerId, MenuCategory category, long nanos) {
+        stages.get(Stage.QUEUE_WAIT).record(workerId, category, nanos);
+    }
+
+    /** Records how long {@code workerId} took to prepare one item of {@code category}. */
+    public void recordProcessing(int workerId, MenuCategory category, long nanos) {
+        stages.get(Stage.PROCESSING).record(workerId, category, nanos);
+    }
+
+    /** Records how long an order took from submission until READY. */
+    public void recordOrderToReady(long nanos) {
+        stages.get(Stage.ORDER_TO_READY).total.record(nanos);
+    }
+
+    /**
+     * Returns everything recorded since creation.
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     */
+    public Report latency(StaffRole actor) {
+
+        permissions.check(actor, "view kitchen latency analytics");
+
+        Map<Stage, Breakdown> breakdowns = new EnumMap<>(Stage.class);
+        stages.forEach((stage, histograms) -> breakdowns.put(stage, histograms.snapshot(false)));
+        return new Report(createdAt, clock.instant(), Collections.unmodifiableMap(breakdowns));
+    }
+
+    /**
+     * Returns what was recorded since the previous call, or since creation on
+     * the first call.
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     */
+    public synchronized Report intervalLatency(StaffRole actor) {
+
+        permissions.check(actor, "view kitchen latency analytics");
+
+        Map<Stage, Breakdown> breakdowns = new EnumMap<>(Stage.class);
+        stages.forEach((stage, histograms) -> breakdowns.put(stage, histograms.snapshot(true)));
+        Instant from = intervalStart;
+        intervalStart = clock.instant();
+        return new Report(from, intervalStart, Collections.unmodifiableMap(breakdowns));
+    }
+
+    /** The histograms of one stage. */
+    private static final class Histograms {
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final Map<Integer, LatencyHistogram> byWorker = new ConcurrentHashMap<>();
+        private final Map<MenuCategory, LatencyHistogram> byCategory = new ConcurrentHashMap<>();
+
+        void record(int workerId, MenuCategory category, long nanos) {
+            total.record(nanos);
+            byWorker.computeIfAbsent(workerId, id -> new LatencyHistogram()).record(nanos);
+            byCategory.computeIfAbsent(category, c -> new LatencyHistogram()).record(nanos);
+        }
+
+        Breakdown snapshot(boolean interval) {
+            Map<Integer, LatencyHistogram.Snapshot> workers = new TreeMap<>();
+            byWorker.forEach((id, h) -> workers.put(id, interval ? h.intervalSnapshot() : h.snapshot()));
+            Map<MenuCategory, LatencyHistogram.Snapshot> categories = new EnumMap<>(MenuCategory.class);
+            byCategory.forEach((c, h) -> categories.put(c, interval ? h.intervalSnapshot() : h.snapshot()));
+            return new Breakdown(interval ? total.intervalSnapshot() : total.snapshot(),
+                    Collections.unmodifiableMap(workers), Collections.unmodifiableMap(categories));
+        }
+    }
+}
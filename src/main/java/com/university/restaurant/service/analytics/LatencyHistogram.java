@@ -0,0 +1,203 @@
+package com.university.restaurant.service.analytics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-dynamic-range latency histogram in the style of HdrHistogram.
+ * <p>
+ * Values are nanoseconds. Values below {@code 2^significantBits} get a bucket
+ * each; above that, every power of two is split into
+ * {@code 2^(significantBits - 1)} equal buckets, so a recorded value is
+ * reported to within a relative error of {@code 2^-(significantBits - 1)}
+ * (under 1.6% with the default of 7 bits) from nanoseconds up to the
+ * highest trackable value. Larger values are clamped to it.
+ * </p>
+ * <p>
+ * Recording is lock-free: one atomic increment of a bucket and one add to a
+ * striped sum. Readers take {@link Snapshot}s, which copy the buckets and may
+ * miss values recorded concurrently. {@link #intervalSnapshot()} returns only
+ * what was recorded since its previous call, like HdrHistogram's
+ * {@code Recorder}, so a dashboard polling it can plot tail latency over
+ * time; concurrent interval readers split the intervals between them.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    public static final int DEFAULT_SIGNIFICANT_BITS = 7;
+    public static final long DEFAULT_HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final int significantBits;
+    private final long highestTrackable;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+
+    /** Cumulative state at the last {@link #intervalSnapshot()}; guarded by {@code this}. */
+    private long[] intervalBase;
+    private long intervalBaseSum;
+
+    /** Creates a histogram tracking up to an hour at the default precision. */
+    public LatencyHistogram() {
+        this(DEFAULT_SIGNIFICANT_BITS, DEFAULT_HIGHEST_TRACKABLE_NANOS);
+    }
+
+    /**
+     * @param significantBits  bits of each value kept exactly, between 2 and 16
+     * @param highestTrackable largest value, in nanoseconds, told apart from
+     *                         larger ones
+     * @throws IllegalArgumentException if either argument is out of range
+     */
+    public LatencyHistogram(int significantBits, long highestTrackable) {
+        if (significantBits < 2 || significantBits > 16) {
+            throw new IllegalArgumentException("significantBits must be between 2 and 16");
+        }
+        if (highestTrackable < 1) {
+            throw new IllegalArgumentException("highestTrackable must be positive");
+        }
+        this.significantBits = significantBits;
+        this.highestTrackable = highestTrackable;
+        this.counts = new AtomicLongArray(bucketIndex(highestTrackable, significantBits) + 1);
+        this.intervalBase = new long[counts.length()];
+    }
+
+    /**
+     * Records one latency; negative values count as zero and values above the
+     * highest trackable value count as that value.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), highestTrackable);
+        counts.incrementAndGet(bucketIndex(value, significantBits));
+        sum.add(value);
+    }
+
+    /** Everything recorded so far. */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, sum.sum(), significantBits);
+    }
+
+    /**
+     * Everything recorded since the previous call, or since creation on the
+     * first call.
+     */
+    public synchronized Snapshot intervalSnapshot() {
+        Snapshot cumulative = snapshot();
+        long[] interval = new long[cumulative.counts.length];
+        for (int i = 0; i < interval.length; i++) {
+            interval[i] = cumulative.counts[i] - intervalBase[i];
+        }
+        long intervalSum = cumulative.sum - intervalBaseSum;
+        intervalBase = cumulative.counts;
+        intervalBaseSum = cumulative.sum;
+        return new Snapshot(interval, intervalSum, significantBits);
+    }
+
+    static int bucketIndex(long value, int significantBits) {
+        int bits = 64 - Long.numberOfLeadingZeros(value);
+        if (bits <= significantBits) {
+            return (int) value;
+        }
+        int shift = bits - significantBits;
+        int half = 1 << (significantBits - 1);
+        int top = (int) (value >>> shift);
+        return (1 << significantBits) + (shift - 1) * half + (top - half);
+    }
+
+    /** Largest value that falls into bucket {@code index}. */
+    static long highestEquivalentValue(int index, int significantBits) {
+        int exact = 1 << significantBits;
+        if (index < exact) {
+            return index;
+        }
+        int half = exact >>> 1;
+        int shift = (index - exact) / half + 1;
+        long top = half + (index - exact) % half;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of the bucket counts, answering percentile queries.
+     * Reported values are the highest value of their bucket, so they never
+     * understate a latency.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long sum;
+        private final int significantBits;
+        private final long totalCount;
+
+        private Snapshot(long[] counts, long sum, int significantBits) {
+            this.counts = counts;
+            this.sum = sum;
+            this.significantBits = significantBits;
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            this.totalCount = total;
+        }
+
+        public long count() {
+            return totalCount;
+        }
+
+        /** Mean of the recorded values in nanoseconds, or 0 if empty. */
+        public double mean() {
+            return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+        }
+
+        /** Largest recorded value in nanoseconds, or 0 if empty. */
+        public long max() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestEquivalentValue(i, significantBits);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Value in nanoseconds at or below which {@code percentile} percent
+         * of the recorded values fall, or 0 if empty.
+         *
+         * @throws IllegalArgumentException if {@code percentile} is outside [0, 100]
+         */
+        public long valueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+            if (totalCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestEquivalentValue(i, significantBits);
+                }
+            }
+            return max();
+        }
+
+        /**
+         * Returns a snapshot counting the values of both snapshots.
+         *
+         * @throws IllegalArgumentException if the precisions or ranges differ
+         */
+        public Snapshot merge(Snapshot other) {
+            if (other.significantBits != significantBits || other.counts.length != counts.length) {
+                throw new IllegalArgumentException("Cannot merge histograms of different precision or range");
+            }
+            long[] merged = counts.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other.counts[i];
+            }
+            return new Snapshot(merged, sum + other.sum, significantBits);
+        }
+    }
+}
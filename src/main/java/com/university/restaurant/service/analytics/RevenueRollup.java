@@ -0,0 +1,165 @@
+package com.university.restaurant.service.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Revenue totals bucketed per minute, per hour and per day, each held in a
+ * preallocated ring of primitive arrays. Recording a payment adds its amount
+ * to one bucket of each ring; a bucket is reused, and its old total dropped,
+ * once the ring wraps past it.
+ * <p>
+ * Times are wall-clock {@link LocalDateTime}s, like the timestamps on orders
+ * and payments. A window query is split into whole days in the middle, whole
+ * hours next to them and minutes at the ragged edges, so it reads at most
+ * 2 * 59 + 2 * 23 buckets plus one per day, however many payments fell in
+ * the window. Buckets that have aged out of their ring count as zero, so
+ * minute-precise edges only work within the minute retention, and so on.
+ * </p>
+ * <p>
+ * Methods are synchronized; each update touches three array slots.
+ * </p>
+ */
+public final class RevenueRollup {
+
+    public static final int DEFAULT_MINUTES = 2 * 24 * 60;
+    public static final int DEFAULT_HOURS = 92 * 24;
+    public static final int DEFAULT_DAYS = 2 * 366;
+
+    private final Ring minutes;
+    private final Ring hours;
+    private final Ring days;
+
+    /**
+     * Creates a rollup keeping two days of minutes, about three months of
+     * hours and two years of days.
+     */
+    public RevenueRollup() {
+        this(DEFAULT_MINUTES, DEFAULT_HOURS, DEFAULT_DAYS);
+    }
+
+    /**
+     * Creates a rollup with the given number of buckets per resolution.
+     *
+     * @throws IllegalArgumentException if any retention is not positive
+     */
+    public RevenueRollup(int minuteBuckets, int hourBuckets, int dayBuckets) {
+        if (minuteBuckets < 1 || hourBuckets < 1 || dayBuckets < 1) {
+            throw new IllegalArgumentException("bucket counts must be positive");
+        }
+        this.minutes = new Ring(minuteBuckets);
+        this.hours = new Ring(hourBuckets);
+        this.days = new Ring(dayBuckets);
+    }
+
+    /**
+     * Adds {@code amount} (negative to reverse a payment) at time {@code at}.
+     */
+    public synchronized void record(LocalDateTime at, double amount) {
+        long minute = epochMinute(at);
+        minutes.add(minute, amount);
+        hours.add(Math.floorDiv(minute, 60), amount);
+        days.add(Math.floorDiv(minute, 24 * 60), amount);
+    }
+
+    /**
+     * Revenue recorded in {@code [from, to)}, to minute precision; seconds are
+     * truncated from both ends.
+     *
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public synchronized double revenueBetween(LocalDateTime from, LocalDateTime to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        long start = epochMinute(from);
+        long end = epochMinute(to);
+        double total = 0;
+        while (start < end) {
+            if (Math.floorMod(start, 24 * 60) == 0 && start + 24 * 60 <= end) {
+                total += days.get(Math.floorDiv(start, 24 * 60));
+                start += 24 * 60;
+            } else if (Math.floorMod(start, 60) == 0 && start + 60 <= end) {
+                total += hours.get(Math.floorDiv(start, 60));
+                start += 60;
+            } else {
+                total += minutes.get(start);
+                start++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Revenue per hour of day, index 0 to 23, summed over the days
+     * {@code from} to {@code to} inclusive.
+     *
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public synchronized double[] revenueByHourOfDay(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        double[] result = new double[24];
+        long firstHour = from.toEpochDay() * 24;
+        long endHour = (to.toEpochDay() + 1) * 24;
+        for (long hour = firstHour; hour < endHour; hour++) {
+            result[Math.floorMod(hour, 24)] += hours.get(hour);
+        }
+        return result;
+    }
+
+    /**
+     * Revenue per day for the days {@code from} to {@code to} inclusive,
+     * index 0 being {@code from}.
+     *
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public synchronized double[] revenueByDay(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        int n = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = days.get(from.toEpochDay() + i);
+        }
+        return result;
+    }
+
+    private static long epochMinute(LocalDateTime at) {
+        return Math.floorDiv(at.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /** Fixed number of buckets; slot {@code key % length} holds bucket {@code key}. */
+    private static final class Ring {
+        private final long[] keys;
+        private final double[] sums;
+
+        Ring(int size) {
+            keys = new long[size];
+            sums = new double[size];
+            Arrays.fill(keys, Long.MIN_VALUE);
+        }
+
+        void add(long key, double amount) {
+            int slot = (int) Math.floorMod(key, (long) keys.length);
+            if (keys[slot] == key) {
+                sums[slot] += amount;
+            } else if (keys[slot] < key) {
+                // Slot held an older bucket; recycle it
+                keys[slot] = key;
+                sums[slot] = amount;
+            }
+            // Otherwise the bucket is older than the retention window
+        }
+
+        double get(long key) {
+            int slot = (int) Math.floorMod(key, (long) keys.length);
+            return keys[slot] == key ? sums[slot] : 0;
+        }
+    }
+}
@@ -0,0 +1,567 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.SalesSlice;
+import com.university.restaurant.model.menu.MenuItem;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.payment.PaymentMethod;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>
+ * Columnar store of paid order lines for slice-and-dice sales queries. Each
+ * menu item on a paid order is one row, held in parallel primitive arrays:
+ * </p>
+ * <ul>
+ *     <li>item and waiter, dictionary-encoded to dense int codes</li>
+ *     <li>payment time in epoch minutes</li>
+ *     <li>table number</li>
+ *     <li>payment method ordinal</li>
+ *     <li>line revenue in cents</li>
+ * </ul>
+ *
+ * <p>
+ * A {@link Query} filters rows and groups them by any combination of
+ * {@link Dimension}s. Rows are processed in blocks: each filter narrows a
+ * selection vector with a branch-free loop over one column, then each group
+ * dimension folds its column into a group id, and the measures are summed
+ * into dense arrays indexed by that id. Nothing is boxed per row.
+ * </p>
+ *
+ * <p>
+ * Orders that leave PAID are not removed. Rows are dropped only by
+ * {@link #evictBefore(LocalDateTime)}, or oldest-appended first once the
+ * cube holds its row cap. Appends and queries may run concurrently.
+ * </p>
+ */
+public final class SalesCube {
+
+    /** Rows handled per selection-vector block. */
+    private static final int BLOCK = 1024;
+
+    /** Largest number of groups a single query may produce. */
+    public static final int MAX_GROUPS = 1 << 22;
+
+    /** Default number of order lines held before the oldest are dropped. */
+    public static final int DEFAULT_MAX_ROWS = 1 << 22;
+
+    /** Upper bound on the row cap, leaving headroom below the int index range. */
+    public static final int MAX_ROWS = Integer.MAX_VALUE - 8;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final PaymentMethod[] METHODS = PaymentMethod.values();
+
+    /** Attributes a query can group by. */
+    public enum Dimension {
+        /** Menu item name. */
+        ITEM,
+        /** Calendar date of payment. */
+        DAY,
+        /** Hour of day of payment, 0 to 23. */
+        HOUR,
+        /** Waiter assigned to the order. */
+        WAITER,
+        /** Table number. */
+        TABLE,
+        /** Payment method. */
+        PAYMENT_METHOD
+    }
+
+    /**
+     * <p>
+     * Filters and grouping for {@link #aggregate(Query)}. Every filter is
+     * optional; a query with none covers all rows, and one with no group
+     * dimensions returns a single total.
+     * </p>
+     *
+     * <p>
+     * Groups are returned in code order for each dimension: chronological for
+     * DAY and HOUR, ascending for TABLE, declaration order for PAYMENT_METHOD
+     * and first-seen order for ITEM and WAITER.
+     * </p>
+     */
+    public static final class Query {
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private Set<String> items;
+        private Set<String> waiters;
+        private Set<Integer> tables;
+        private Set<PaymentMethod> paymentMethods;
+        private List<Dimension> groupBy = List.of();
+
+        private Query() {
+        }
+
+        /** A query over all rows, grouped by nothing. */
+        public static Query all() {
+            return new Query();
+        }
+
+        /**
+         * Keeps rows paid in {@code [from, to)}, to the minute.
+         *
+         * @throws IllegalArgumentException if {@code to} is before {@code from}
+         */
+        public Query between(LocalDateTime from, LocalDateTime to) {
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("to must not be before from");
+            }
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        /** Keeps rows for the named menu items. */
+        public Query items(Collection<String> names) {
+            this.items = Set.copyOf(names);
+            return this;
+        }
+
+        /** Keeps rows for orders assigned to the given waiters. */
+        public Query waiters(Collection<String> waiterIds) {
+            this.waiters = Set.copyOf(waiterIds);
+            return this;
+        }
+
+        /** Keeps rows for the given tables. */
+        public Query tables(Collection<Integer> tableNumbers) {
+            this.tables = Set.copyOf(tableNumbers);
+            return this;
+        }
+
+        /** Keeps rows paid with the given methods. */
+        public Query paymentMethods(Collection<PaymentMethod> methods) {
+            this.paymentMethods = methods.isEmpty() ? Set.of() : EnumSet.copyOf(methods);
+            return this;
+        }
+
+        /** Groups rows by the given dimensions, in order. */
+        public Query groupBy(Dimension... dimensions) {
+            if (new HashSet<>(Arrays.asList(dimensions)).size() != dimensions.length) {
+                throw new IllegalArgumentException("Duplicate group dimension");
+            }
+            this.groupBy = List.of(dimensions);
+            return this;
+        }
+    }
+
+    /** Interns strings to dense int codes. */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+
+        int encode(String label) {
+            return codes.computeIfAbsent(label, k -> {
+                labels.add(k);
+                return labels.size() - 1;
+            });
+        }
+
+        int size() {
+            return labels.size();
+        }
+
+        String label(int code) {
+            return labels.get(code);
+        }
+
+        /** Marks the codes of the given labels; labels never seen are ignored. */
+        boolean[] mask(Set<String> selected) {
+            boolean[] mask = new boolean[labels.size()];
+            for (String label : selected) {
+                Integer code = codes.get(label);
+                if (code != null) {
+                    mask[code] = true;
+                }
+            }
+            return mask;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Dictionary itemDictionary = new Dictionary();
+    private final Dictionary waiterDictionary = new Dictionary();
+
+    private int[] itemColumn;
+    private int[] minuteColumn;
+    private int[] waiterColumn;
+    private int[] tableColumn;
+    private byte[] methodColumn;
+    private long[] centsColumn;
+    private int size;
+    private final int maxRows;
+
+    private int minMinute = Integer.MAX_VALUE;
+    private int maxMinute = Integer.MIN_VALUE;
+    private int minTable = Integer.MAX_VALUE;
+    private int maxTable = Integer.MIN_VALUE;
+
+    /** Creates an empty cube holding at most {@link #DEFAULT_MAX_ROWS} lines. */
+    public SalesCube() {
+        this(BLOCK);
+    }
+
+    /**
+     * @param initialCapacity rows to allocate up front
+     * @throws IllegalArgumentException if {@code initialCapacity} is not positive
+     */
+    public SalesCube(int initialCapacity) {
+        this(initialCapacity, Math.max(initialCapacity, DEFAULT_MAX_ROWS));
+    }
+
+    /**
+     * @param initialCapacity rows to allocate up front
+     * @param maxRows         order lines held before the oldest-appended are dropped
+     * @throws IllegalArgumentException if {@code initialCapacity} is not positive,
+     *         or {@code maxRows} is below it or above {@link #MAX_ROWS}
+     */
+    public SalesCube(int initialCapacity, int maxRows) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be positive");
+        }
+        if (maxRows < initialCapacity || maxRows > MAX_ROWS) {
+            throw new IllegalArgumentException("maxRows must be between initialCapacity and " + MAX_ROWS);
+        }
+        this.maxRows = maxRows;
+        itemColumn = new int[initialCapacity];
+        minuteColumn = new int[initialCapacity];
+        waiterColumn = new int[initialCapacity];
+        tableColumn = new int[initialCapacity];
+        methodColumn = new byte[initialCapacity];
+        centsColumn = new long[initialCapacity];
+    }
+
+    /**
+     * Appends one row per item of a paid order, stamped with the payment
+     * time and method. If that would exceed the row cap, the oldest-appended
+     * rows are dropped first, at least an eighth of the cap at a time so the
+     * compaction is amortised.
+     *
+     * @throws IllegalArgumentException if the order has no payment or more
+     *         items than the row cap
+     */
+    public void add(Order order) {
+        if (order.getPayment() == null) {
+            throw new IllegalArgumentException("Order has not been paid: " + order.getId());
+        }
+        List<MenuItem> items = order.getItems();
+        int minute = epochMinute(order.getPayment().getTimestamp());
+        byte method = (byte) order.getPayment().getMethod().ordinal();
+        int table = order.getTableNumber();
+        if (items.size() > maxRows) {
+            throw new IllegalArgumentException("Order has more lines than the cube holds: " + order.getId());
+        }
+
+        lock.writeLock().lock();
+        try {
+            int overflow = size - (maxRows - items.size());
+            if (overflow > 0) {
+                dropOldest(Math.min(size, Math.max(overflow, maxRows >> 3)));
+            }
+            ensureCapacity(size + items.size());
+            int waiter = waiterDictionary.encode(String.valueOf(order.getAssignedWaiterId()));
+            for (MenuItem item : items) {
+                itemColumn[size] = itemDictionary.encode(item.getName());
+                minuteColumn[size] = minute;
+                waiterColumn[size] = waiter;
+                tableColumn[size] = table;
+                methodColumn[size] = method;
+                centsColumn[size] = Math.round(item.calculatePrice() * 100);
+                size++;
+            }
+            if (!items.isEmpty()) {
+                minMinute = Math.min(minMinute, minute);
+                maxMinute = Math.max(maxMinute, minute);
+                minTable = Math.min(minTable, table);
+                maxTable = Math.max(maxTable, table);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops rows paid before {@code cutoff}, to the minute.
+     *
+     * @return number of rows dropped
+     */
+    public int evictBefore(LocalDateTime cutoff) {
+        int cutoffMinute = epochMinute(cutoff);
+        lock.writeLock().lock();
+        try {
+            if (size == 0 || minMinute >= cutoffMinute) {
+                return 0;
+            }
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (minuteColumn[i] >= cutoffMinute) {
+                    moveRow(i, kept++);
+                }
+            }
+            int dropped = size - kept;
+            size = kept;
+            recomputeBounds();
+            return dropped;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Number of order lines stored. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a filtered group-by over the stored lines.
+     *
+     * @return one slice per non-empty group, or a single total slice when the
+     *         query groups by nothing
+     * @throws IllegalArgumentException if the grouping would produce more than
+     *         {@link #MAX_GROUPS} groups
+     */
+    public List<SalesSlice> aggregate(Query query) {
+        lock.readLock().lock();
+        try {
+            return scan(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SalesSlice> scan(Query query) {
+        List<Dimension> dimensions = query.groupBy;
+        if (size == 0) {
+            return dimensions.isEmpty() ? List.of(new SalesSlice(List.of(), 0, 0.0)) : List.of();
+        }
+
+        int fromMinute = query.from == null ? minMinute : epochMinute(query.from);
+        int toMinute = query.to == null ? maxMinute + 1 : epochMinute(query.to);
+        boolean[] itemMask = query.items == null ? null : itemDictionary.mask(query.items);
+        boolean[] waiterMask = query.waiters == null ? null : waiterDictionary.mask(query.waiters);
+        boolean[] tableMask = query.tables == null ? null : tableMask(query.tables);
+        boolean[] methodMask = query.paymentMethods == null ? null : methodMask(query.paymentMethods);
+
+        int firstDay = Math.floorDiv(Math.max(minMinute, fromMinute), MINUTES_PER_DAY);
+        int lastDay = Math.floorDiv(Math.min(maxMinute, toMinute - 1), MINUTES_PER_DAY);
+        if (firstDay > lastDay) {
+            return dimensions.isEmpty() ? List.of(new SalesSlice(List.of(), 0, 0.0)) : List.of();
+        }
+
+        int[] cardinalities = new int[dimensions.size()];
+        long groups = 1;
+        for (int d = 0; d < cardinalities.length; d++) {
+            cardinalities[d] = switch (dimensions.get(d)) {
+                case ITEM -> itemDictionary.size();
+                case DAY -> lastDay - firstDay + 1;
+                case HOUR -> 24;
+                case WAITER -> waiterDictionary.size();
+                case TABLE -> maxTable - minTable + 1;
+                case PAYMENT_METHOD -> METHODS.length;
+            };
+            groups *= cardinalities[d];
+            if (groups > MAX_GROUPS) {
+                throw new IllegalArgumentException("Query would produce more than " + MAX_GROUPS
+                        + " groups; filter further or group by fewer dimensions");
+            }
+        }
+
+        long[] units = new long[(int) groups];
+        long[] cents = new long[(int) groups];
+        int[] selection = new int[BLOCK];
+        int[] groupIds = new int[BLOCK];
+
+        for (int start = 0; start < size; start += BLOCK) {
+            int end = Math.min(start + BLOCK, size);
+
+            // Time range, then each dictionary filter, narrows the selection vector
+            int selected = 0;
+            for (int i = start; i < end; i++) {
+                int minute = minuteColumn[i];
+                selection[selected] = i;
+                selected += (minute >= fromMinute & minute < toMinute) ? 1 : 0;
+            }
+            selected = narrow(selection, selected, itemColumn, itemMask, 0);
+            selected = narrow(selection, selected, waiterColumn, waiterMask, 0);
+            selected = narrow(selection, selected, tableColumn, tableMask, minTable);
+            if (methodMask != null) {
+                int kept = 0;
+                for (int j = 0; j < selected; j++) {
+                    int row = selection[j];
+                    selection[kept] = row;
+                    kept += methodMask[methodColumn[row]] ? 1 : 0;
+                }
+                selected = kept;
+            }
+
+            // Fold each group column into a mixed-radix group id
+            Arrays.fill(groupIds, 0, selected, 0);
+            for (int d = 0; d < cardinalities.length; d++) {
+                int radix = cardinalities[d];
+                switch (dimensions.get(d)) {
+                    case ITEM -> fold(groupIds, selection, selected, itemColumn, radix, 0);
+                    case WAITER -> fold(groupIds, selection, selected, waiterColumn, radix, 0);
+                    case TABLE -> fold(groupIds, selection, selected, tableColumn, radix, minTable);
+                    case DAY -> {
+                        for (int j = 0; j < selected; j++) {
+                            int day = Math.floorDiv(minuteColumn[selection[j]], MINUTES_PER_DAY) - firstDay;
+                            groupIds[j] = groupIds[j] * radix + day;
+                        }
+                    }
+                    case HOUR -> {
+                        for (int j = 0; j < selected; j++) {
+                            int hour = Math.floorMod(minuteColumn[selection[j]], MINUTES_PER_DAY) / 60;
+                            groupIds[j] = groupIds[j] * radix + hour;
+                        }
+                    }
+                    case PAYMENT_METHOD -> {
+                        for (int j = 0; j < selected; j++) {
+                            groupIds[j] = groupIds[j] * radix + methodColumn[selection[j]];
+                        }
+                    }
+                }
+            }
+
+            for (int j = 0; j < selected; j++) {
+                int group = groupIds[j];
+                units[group]++;
+                cents[group] += centsColumn[selection[j]];
+            }
+        }
+
+        List<SalesSlice> slices = new ArrayList<>();
+        for (int group = 0; group < units.length; group++) {
+            if (units[group] > 0 || dimensions.isEmpty()) {
+                slices.add(new SalesSlice(labels(group, dimensions, cardinalities, firstDay),
+                        units[group], cents[group] / 100.0));
+            }
+        }
+        return slices;
+    }
+
+    /** Keeps the selected rows whose code in {@code column} is marked in {@code mask}. */
+    private static int narrow(int[] selection, int selected, int[] column, boolean[] mask, int base) {
+        if (mask == null) {
+            return selected;
+        }
+        int kept = 0;
+        for (int j = 0; j < selected; j++) {
+            int row = selection[j];
+            selection[kept] = row;
+            kept += mask[column[row] - base] ? 1 : 0;
+        }
+        return kept;
+    }
+
+    private static void fold(int[] groupIds, int[] selection, int selected, int[] column, int radix, int base) {
+        for (int j = 0; j < selected; j++) {
+            groupIds[j] = groupIds[j] * radix + (column[selection[j]] - base);
+        }
+    }
+
+    private boolean[] tableMask(Set<Integer> tables) {
+        boolean[] mask = new boolean[maxTable - minTable + 1];
+        for (int table : tables) {
+            if (table >= minTable && table <= maxTable) {
+                mask[table - minTable] = true;
+            }
+        }
+        return mask;
+    }
+
+    private static boolean[] methodMask(Set<PaymentMethod> methods) {
+        boolean[] mask = new boolean[METHODS.length];
+        for (PaymentMethod method : methods) {
+            mask[method.ordinal()] = true;
+        }
+        return mask;
+    }
+
+    /** Decodes a mixed-radix group id back into one label per dimension. */
+    private List<String> labels(int group, List<Dimension> dimensions, int[] cardinalities, int firstDay) {
+        String[] labels = new String[dimensions.size()];
+        for (int d = dimensions.size() - 1; d >= 0; d--) {
+            int code = group % cardinalities[d];
+            group /= cardinalities[d];
+            labels[d] = switch (dimensions.get(d)) {
+                case ITEM -> itemDictionary.label(code);
+                case DAY -> LocalDate.ofEpochDay(firstDay + code).toString();
+                case HOUR -> Integer.toString(code);
+                case WAITER -> waiterDictionary.label(code);
+                case TABLE -> Integer.toString(minTable + code);
+                case PAYMENT_METHOD -> METHODS[code].name();
+            };
+        }
+        return List.of(labels);
+    }
+
+    /** Shifts out the first {@code count} rows. Caller holds the write lock. */
+    private void dropOldest(int count) {
+        for (int i = count; i < size; i++) {
+            moveRow(i, i - count);
+        }
+        size -= count;
+        recomputeBounds();
+    }
+
+    private void moveRow(int from, int to) {
+        itemColumn[to] = itemColumn[from];
+        minuteColumn[to] = minuteColumn[from];
+        waiterColumn[to] = waiterColumn[from];
+        tableColumn[to] = tableColumn[from];
+        methodColumn[to] = methodColumn[from];
+        centsColumn[to] = centsColumn[from];
+    }
+
+    private void recomputeBounds() {
+        minMinute = Integer.MAX_VALUE;
+        maxMinute = Integer.MIN_VALUE;
+        minTable = Integer.MAX_VALUE;
+        maxTable = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minMinute = Math.min(minMinute, minuteColumn[i]);
+            maxMinute = Math.max(maxMinute, minuteColumn[i]);
+            minTable = Math.min(minTable, tableColumn[i]);
+            maxTable = Math.max(maxTable, tableColumn[i]);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= itemColumn.length) {
+            return;
+        }
+        // Grow by half in long arithmetic so the new length never overflows past the cap
+        long grown = itemColumn.length + ((long) itemColumn.length >> 1);
+        int capacity = (int) Math.min(maxRows, Math.max(required, grown));
+        itemColumn = Arrays.copyOf(itemColumn, capacity);
+        minuteColumn = Arrays.copyOf(minuteColumn, capacity);
+        waiterColumn = Arrays.copyOf(waiterColumn, capacity);
+        tableColumn = Arrays.copyOf(tableColumn, capacity);
+        methodColumn = Arrays.copyOf(methodColumn, capacity);
+        centsColumn = Arrays.copyOf(centsColumn, capacity);
+    }
+
+    /** Minutes since the epoch, clamped so open-ended query bounds stay in range. */
+    private static int epochMinute(LocalDateTime time) {
+        long minute = Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+        return (int) Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, minute));
+    }
+}
@@ -0,0 +1,247 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.ItemSales;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch (Metwally et al.) over menu item names.
+ * <p>
+ * At most {@code capacity} items are tracked. When an untracked item arrives
+ * and the sketch is full, it replaces the item with the smallest count and
+ * inherits that count as its error. Every reported count therefore
+ * overestimates the true count by at most its error, and every error is at
+ * most {@code total / capacity}. Any item sold more often than that is
+ * guaranteed to be tracked.
+ * </p>
+ * <p>
+ * Counters are kept in an indexed min-heap, so an update costs O(log capacity)
+ * and memory is fixed by the capacity, not by the number of distinct items.
+ * Sketches of the same kind can be merged (Agarwal et al., "Mergeable
+ * Summaries"), for example to combine per-day sketches or sketches from
+ * several service instances. The merged error bound is the sum of the inputs'
+ * bounds, and it is kept as a floor even when the result has free slots,
+ * for example after merging a small sketch into a larger one.
+ * </p>
+ * <p>
+ * The sketch only counts additions; it cannot subtract an item again.
+ * Methods are synchronized.
+ * </p>
+ */
+public final class SpaceSavingSketch {
+
+    private static final Comparator<ItemSales> BY_COUNT_DESC =
+            Comparator.comparingLong(ItemSales::count).reversed().thenComparing(ItemSales::itemName);
+
+    private final int capacity;
+
+    // Min-heap on counts; index maps an item to its heap slot
+    private final String[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> index;
+    private int size;
+    private long total;
+    // Least error of any count, inherited from merged inputs that were full
+    private long errorFloor;
+
+    /**
+     * Creates a sketch tracking at most {@code capacity} items.
+     *
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.items = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Creates a sketch whose counts overestimate by at most
+     * {@code maxErrorRate * total}.
+     *
+     * @throws IllegalArgumentException if {@code maxErrorRate} is not in (0, 1]
+     */
+    public static SpaceSavingSketch withMaxErrorRate(double maxErrorRate) {
+        if (!(maxErrorRate > 0 && maxErrorRate <= 1)) {
+            throw new IllegalArgumentException("maxErrorRate must be in (0, 1]");
+        }
+        return new SpaceSavingSketch((int) Math.ceil(1 / maxErrorRate));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Total weight added, including weight of items no longer tracked. */
+    public synchronized long total() {
+        return total;
+    }
+
+    /** Upper bound on the error of any reported count. */
+    public synchronized long maxError() {
+        return Math.max(errorFloor, size < capacity ? 0 : counts[0]);
+    }
+
+    public void add(String item) {
+        add(item, 1);
+    }
+
+    /**
+     * Records {@code weight} sales of {@code item}.
+     *
+     * @throws IllegalArgumentException if {@code weight} is negative
+     */
+    public synchronized void add(String item, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative");
+        }
+        total += weight;
+        Integer slot = index.get(item);
+        if (slot != null) {
+            counts[slot] += weight;
+            siftDown(slot);
+        } else if (size < capacity) {
+            // An untracked item may already have up to the floor in merged history
+            set(size, item, errorFloor + weight, errorFloor);
+            siftUp(size++);
+        } else {
+            // Evict the minimum; the newcomer inherits its count as error
+            index.remove(items[0]);
+            long min = counts[0];
+            set(0, item, min + weight, min);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Estimated count for {@code item}; never below the true count.
+     */
+    public synchronized long estimate(String item) {
+        Integer slot = index.get(item);
+        if (slot != null) {
+            return counts[slot];
+        }
+        return maxError();
+    }
+
+    /**
+     * The {@code k} items with the highest estimated counts, highest first.
+     *
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public List<ItemSales> topK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        List<ItemSales> entries = entries();
+        entries.sort(BY_COUNT_DESC);
+        return List.copyOf(entries.subList(0, Math.min(k, entries.size())));
+    }
+
+    /**
+     * Returns a new sketch, with this sketch's capacity, summarising the
+     * combined streams of this sketch and {@code other}. Neither input is
+     * modified.
+     */
+    public SpaceSavingSketch merge(SpaceSavingSketch other) {
+        // Snapshot each side under its own lock so merges never nest locks
+        List<ItemSales> theirs = other.entries();
+        long theirMin = other.maxError();
+        long theirTotal = other.total();
+        List<ItemSales> ours;
+        long ourMin;
+        long ourTotal;
+        synchronized (this) {
+            ours = entries();
+            ourMin = maxError();
+            ourTotal = total;
+        }
+
+        // An item missing from a full sketch may have up to its minimum count there
+        Map<String, long[]> combined = new HashMap<>();
+        for (ItemSales s : ours) {
+            combined.put(s.itemName(), new long[]{s.count() + theirMin, s.maxError() + theirMin});
+        }
+        for (ItemSales s : theirs) {
+            long[] c = combined.get(s.itemName());
+            if (c == null) {
+                combined.put(s.itemName(), new long[]{s.count() + ourMin, s.maxError() + ourMin});
+            } else {
+                c[0] += s.count() - theirMin;
+                c[1] += s.maxError() - theirMin;
+            }
+        }
+
+        List<ItemSales> merged = new ArrayList<>(combined.size());
+        combined.forEach((item, c) -> merged.add(new ItemSales(item, c[0], c[1])));
+        merged.sort(BY_COUNT_DESC);
+
+        SpaceSavingSketch result = new SpaceSavingSketch(capacity);
+        for (ItemSales s : merged.subList(0, Math.min(capacity, merged.size()))) {
+            result.set(result.size, s.itemName(), s.count(), s.maxError());
+            result.siftUp(result.size++);
+        }
+        result.total = ourTotal + theirTotal;
+        result.errorFloor = ourMin + theirMin;
+        return result;
+    }
+
+    private synchronized List<ItemSales> entries() {
+        List<ItemSales> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new ItemSales(items[i], counts[i], errors[i]));
+        }
+        return entries;
+    }
+
+    private void set(int slot, String item, long count, long error) {
+        items[slot] = item;
+        counts[slot] = count;
+        errors[slot] = error;
+        index.put(item, slot);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (counts[parent] <= counts[slot]) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[slot] <= counts[smallest]) {
+                break;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String item = items[a];
+        long count = counts[a];
+        long error = errors[a];
+        set(a, items[b], counts[b], errors[b]);
+        set(b, item, count, error);
+    }
+}
@@ -0,0 +1,277 @@
+package com.university.restaurant.service.concurrent;
+
+import com.university.restaurant.model.order.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Bounded execution engine for analytics queries over order histories.
+ * <p>
+ * Each query loads its orders and folds them with a {@link Collector}. Large
+ * order lists are split into chunks that run as fork/join subtasks on a
+ * dedicated {@link ForkJoinPool}, and the collector's combiner merges their
+ * partial results. Three limits keep the engine bounded:
+ * </p>
+ * <ul>
+ *     <li>at most {@code maxPendingQueries} queries may be running or queued;
+ *     further queries fail with {@link RejectedExecutionException}. A
+ *     query holds its slot until its work stops, even past its deadline</li>
+ *     <li>a query running longer than the deadline fails with
+ *     {@link TimeoutException}, and its remaining chunks are skipped</li>
+ *     <li>a query submitted while an identical one (same key) is in flight
+ *     shares that computation instead of starting another</li>
+ * </ul>
+ * <p>
+ * Pool threads are daemons, and {@link #close()} shuts the pool down.
+ * </p>
+ */
+public final class AnalyticsEngine implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsEngine.class);
+
+    public static final int DEFAULT_MAX_PENDING_QUERIES = 64;
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(10);
+
+    /**
+     * Point-in-time engine metrics.
+     *
+     * @param pendingQueries  queries admitted whose work has not yet stopped
+     * @param queuedTasks     submissions and subtasks waiting in the pool
+     * @param completed       queries finished successfully
+     * @param timedOut        queries cancelled at their deadline
+     * @param coalesced       queries answered by an identical in-flight one
+     * @param rejected        queries refused because the engine was full
+     * @param meanComputeMillis mean compute time of completed queries
+     * @param maxComputeMillis  longest compute time of a completed query
+     */
+    public record Stats(int pendingQueries, long queuedTasks, long completed, long timedOut,
+                        long coalesced, long rejected, double meanComputeMillis, double maxComputeMillis) {
+    }
+
+    private final ForkJoinPool pool;
+    private final int maxPendingQueries;
+    private final int chunkSize;
+    private final Duration deadline;
+
+    /** A running query: the future the engine completes and the one callers observe. */
+    private record Query(CompletableFuture<?> result, CompletableFuture<?> observed) {
+    }
+
+    private final Map<String, Query> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder computeNanos = new LongAdder();
+    private final AtomicLong maxComputeNanos = new AtomicLong();
+
+    /**
+     * Creates an engine with one worker per processor and default limits.
+     */
+    public AnalyticsEngine() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_PENDING_QUERIES,
+                DEFAULT_CHUNK_SIZE, DEFAULT_DEADLINE);
+    }
+
+    /**
+     * @param parallelism       worker threads in the pool
+     * @param maxPendingQueries queries that may be running or queued at once
+     * @param chunkSize         orders folded sequentially by one subtask
+     * @param deadline          time after which a query is cancelled
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public AnalyticsEngine(int parallelism, int maxPendingQueries, int chunkSize, Duration deadline) {
+        if (parallelism < 1 || maxPendingQueries < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("parallelism, maxPendingQueries and chunkSize must be positive");
+        }
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException("deadline must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism, AnalyticsEngine::newWorker, null, false);
+        this.maxPendingQueries = maxPendingQueries;
+        this.chunkSize = chunkSize;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Runs a query, or joins an identical one already in flight.
+     *
+     * @param key       identifies the query; queries with equal keys must
+     *                  produce equal results
+     * @param source    loads the orders to aggregate; called on a pool thread
+     * @param collector folds orders into the result; its accumulator and
+     *                  combiner are applied to disjoint chunks in parallel
+     * @return the result, failed with {@link RejectedExecutionException} if
+     *         the engine is full or closed, or with {@link TimeoutException}
+     *         if the deadline passes first
+     */
+    @SuppressWarnings("unchecked")
+    public <A, R> CompletableFuture<R> aggregate(String key, Supplier<? extends List<Order>> source,
+                                                 Collector<Order, A, R> collector) {
+        while (true) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Analytics engine is closed"));
+            }
+            Query existing = inFlight.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                // Each caller gets its own stage so one caller cannot cancel the others
+                return (CompletableFuture<R>) existing.observed().copy();
+            }
+            if (pending.incrementAndGet() > maxPendingQueries) {
+                pending.decrementAndGet();
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Analytics engine has " + maxPendingQueries + " queries pending"));
+            }
+
+            CompletableFuture<R> result = new CompletableFuture<>();
+            AtomicBoolean cancelled = new AtomicBoolean();
+            // Bookkeeping completes before any caller observes the outcome
+            CompletableFuture<R> observed = result
+                    .orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS)
+                    .whenComplete((r, e) -> {
+                        inFlight.computeIfPresent(key, (k, q) -> q.result() == result ? null : q);
+                        if (e instanceof TimeoutException) {
+                            timedOut.increment();
+                            cancelled.set(true);
+                            log.warn("Analytics query {} cancelled after {} ms", key, deadline.toMillis());
+                        }
+                    });
+
+            if (inFlight.putIfAbsent(key, new Query(result, observed)) != null) {
+                // Lost a race with an identical query; discard ours and join it
+                pending.decrementAndGet();
+                result.cancel(false);
+                continue;
+            }
+            start(result, cancelled, source, collector);
+            return observed.copy();
+        }
+    }
+
+    private <A, R> void start(CompletableFuture<R> result, AtomicBoolean cancelled,
+                              Supplier<? extends List<Order>> source, Collector<Order, A, R> collector) {
+        try {
+            pool.execute(() -> {
+                long startNanos = System.nanoTime();
+                R value;
+                try {
+                    List<Order> orders = source.get();
+                    A partial = new ChunkTask<>(orders, 0, orders.size(), collector, cancelled).invoke();
+                    value = collector.finisher().apply(partial);
+                } catch (Throwable t) {
+                    pending.decrementAndGet();
+                    result.completeExceptionally(t);
+                    return;
+                }
+                long nanos = System.nanoTime() - startNanos;
+                // Free the slot only now: a timed-out query was still using the pool until here
+                pending.decrementAndGet();
+                if (result.complete(value)) {
+                    computeNanos.add(nanos);
+                    maxComputeNanos.accumulateAndGet(nanos, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            result.completeExceptionally(e);
+        }
+    }
+
+    /** Current queue depth, compute times and counters. */
+    public Stats stats() {
+        long done = completed.sum();
+        return new Stats(
+                pending.get(),
+                pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount(),
+                done,
+                timedOut.sum(),
+                coalesced.sum(),
+                rejected.sum(),
+                done == 0 ? 0.0 : computeNanos.sum() / 1e6 / done,
+                maxComputeNanos.get() / 1e6);
+    }
+
+    /**
+     * Stops accepting queries and shuts the pool down, waiting briefly for
+     * running queries.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("analytics-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Folds orders [from, to) into a partial result, splitting in half until
+     * a range fits in one chunk.
+     */
+    private final class ChunkTask<A> extends RecursiveTask<A> {
+        private final List<Order> orders;
+        private final int from;
+        private final int to;
+        private final Collector<Order, A, ?> collector;
+        private final AtomicBoolean cancelled;
+
+        ChunkTask(List<Order> orders, int from, int to, Collector<Order, A, ?> collector, AtomicBoolean cancelled) {
+            this.orders = orders;
+            this.from = from;
+            this.to = to;
+            this.collector = collector;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected A compute() {
+            if (cancelled.get()) {
+                throw new CancellationException("Analytics query cancelled");
+            }
+            if (to - from <= chunkSize) {
+                A partial = collector.supplier().get();
+                BiConsumer<A, Order> accumulator = collector.accumulator();
+                for (int i = from; i < to; i++) {
+                    accumulator.accept(partial, orders.get(i));
+                }
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask<A> left = new ChunkTask<>(orders, from, mid, collector, cancelled);
+            left.fork();
+            A right = new ChunkTask<>(orders, mid, to, collector, cancelled).compute();
+            return collector.combiner().apply(left.join(), right);
+        }
+    }
+}
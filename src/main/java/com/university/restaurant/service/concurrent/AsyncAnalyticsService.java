@@ -9,62 +9,90 @@ import com.university.restaurant.repository.OrderRepository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 /**
  * Asynchronous analytics computation service.
+ * Queries run on a bounded {@link AnalyticsEngine}: large order lists are
+ * aggregated in parallel chunks, slow queries are cancelled at the engine's
+ * deadline, and identical concurrent queries share one computation.
  */
 public class AsyncAnalyticsService {
 
+    /** Counts items per name; partial maps from different chunks are merged. */
+    private static final Collector<Order, Map<String, Long>, Map<String, Long>> ITEM_COUNTS = Collector.of(
+            HashMap::new,
+            (counts, order) -> {
+                for (MenuItem item : order.getItems()) {
+                    counts.merge(item.getName(), 1L, Long::sum);
+                }
+            },
+            (left, right) -> {
+                right.forEach((name, count) -> left.merge(name, count, Long::sum));
+                return left;
+            });
+
     private final OrderRepository orders;
     private final AnalyticsPermissionChain permissions = new AnalyticsPermissionChain();
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AnalyticsEngine engine;
 
     public AsyncAnalyticsService(OrderRepository orders) {
+        this(orders, new AnalyticsEngine());
+    }
+
+    public AsyncAnalyticsService(OrderRepository orders, AnalyticsEngine engine) {
         this.orders = orders;
+        this.engine = engine;
     }
 
     /**
      * Compute top-selling items asynchronously in the background.
      */
     public CompletableFuture<Map<String, Long>> computeTopSellingAsync(StaffRole actor) {
-        return CompletableFuture.supplyAsync(() -> {
+        try {
             permissions.check(actor, "view top-selling analytics");
+        } catch (SecurityException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
+        return engine.aggregate("top-selling", () -> {
             List<Order> completed = new ArrayList<>(orders.findByStatus(OrderStatus.PAID));
             completed.addAll(orders.findByStatus(OrderStatus.SERVED));
-
-            return completed.stream()
-                    .flatMap(o -> o.getItems().stream())
-                    .collect(Collectors.groupingBy(
-                            MenuItem::getName,
-                            Collectors.counting()
-                    ));
-        }, executor);
+            return completed;
+        }, ITEM_COUNTS);
     }
 
     /**
      * Compute revenue asynchronously.
      */
     public CompletableFuture<Double> computeRevenueTodayAsync(StaffRole actor) {
-        return CompletableFuture.supplyAsync(() -> {
+        try {
             permissions.check(actor, "view revenue analytics");
+        } catch (SecurityException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-            LocalDate today = LocalDate.now();
+        LocalDate today = LocalDate.now();
 
-            return orders.findByStatus(OrderStatus.PAID).stream()
-                    .filter(o -> o.getCreatedAt().toLocalDate().equals(today))
-                    .mapToDouble(Order::calculateTotal)
-                    .sum();
-        }, executor);
+        return engine.aggregate("revenue-today:" + today,
+                () -> orders.findByStatus(OrderStatus.PAID),
+                Collectors.filtering(o -> o.getCreatedAt().toLocalDate().equals(today),
+                        Collectors.summingDouble(Order::calculateTotal)));
+    }
+
+    /**
+     * Queue depth, compute time and query counters of the underlying engine.
+     */
+    public AnalyticsEngine.Stats stats() {
+        return engine.stats();
     }
 
     public void shutdown() {
-        executor.shutdown();
+        engine.close();
     }
 }
@@ -5,21 +5,31 @@ import com.university.restaurant.model.menu.MenuItem;
 import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.order.OrderStatus;
 import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.OrderEventListener;
 import com.university.restaurant.port.OrderServicePort;
 import com.university.restaurant.repository.OrderRepository;
 import com.university.restaurant.repository.RestaurantAuditEntry;
 import com.university.restaurant.repository.RestaurantAuditLogRepository;
+import com.university.restaurant.service.OrderEventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
- * Asynchronous OrderService using CompletableFuture.
+ * Asynchronous OrderService using CompletableFuture. Pipeline stages run on a
+ * thread per task: pooled platform threads by default, or virtual threads in
+ * {@link ExecutionMode#VIRTUAL} mode.
+ * <p>
+ * Orders needing preparation are sent to the {@link KitchenService}. Status
+ * changes made by the kitchen, such as READY, are saved to the repository
+ * and passed on to this service's listeners along with its own.
+ * </p>
  */
 public class AsyncOrderService implements OrderServicePort {
 
@@ -28,19 +38,51 @@ public class AsyncOrderService implements OrderServicePort {
     private final OrderRepository repo;
     private final RestaurantAuditLogRepository audits;
     private final OrderPermissionChain permissions = new OrderPermissionChain();
+    private final ExecutionMode mode;
     private final ExecutorService executor;
     private final KitchenService kitchenService;
 
+    /** Publishes order status transitions to registered listeners. */
+    private final OrderEventPublisher events = new OrderEventPublisher();
+
     public AsyncOrderService(OrderRepository repo, RestaurantAuditLogRepository audits, 
                             KitchenService kitchenService) {
+        this(repo, audits, kitchenService, ExecutionMode.PLATFORM);
+    }
+
+    public AsyncOrderService(OrderRepository repo, RestaurantAuditLogRepository audits,
+                            KitchenService kitchenService, ExecutionMode mode) {
         this.repo = repo;
         this.audits = audits;
         this.kitchenService = kitchenService;
-        this.executor = Executors.newCachedThreadPool();
+        this.mode = mode.resolve();
+        this.executor = this.mode.newPerTaskExecutor();
+        kitchenService.addOrderEventListener(this::onKitchenStatusChanged);
+    }
+
+    /**
+     * Registers a listener notified when orders are placed or change status,
+     * including changes made by the kitchen.
+     */
+    public void addOrderEventListener(OrderEventListener listener) {
+        events.addListener(listener);
+    }
+
+    private void onKitchenStatusChanged(Order order, OrderStatus from, OrderStatus to) {
+        repo.save(order);
+        events.publish(order, from, to);
     }
 
     /**
      * Place order asynchronously with kitchen notification.
+     * <p>
+     * If the kitchen turns the order away, the order is saved as CANCELLED,
+     * its placement is audited with the reason, and the future fails with the {@link KitchenOverloadedException}
+     * itself, so callers can tell an overloaded kitchen from other failures
+     * and retry after its estimate. An order the kitchen sheds later, to make
+     * room for more urgent ones, is saved as CANCELLED and published to this
+     * service's listeners.
+     * </p>
      */
     public CompletableFuture<Order> placeOrderAsync(StaffRole actor, String tableId, List<MenuItem> items) {
         return CompletableFuture.supplyAsync(() -> {
@@ -54,44 +96,73 @@ public class AsyncOrderService implements OrderServicePort {
             }
 
             repo.save(order);
-            
+            events.publish(order, null, order.getStatus());
+
             log.info("Order {} created asynchronously", order.getId());
             return order;
         }, executor)
-        .thenCompose(this::notifyKitchenAsync)
+        .thenCompose(order -> notifyKitchenAsync(actor, order))
         .thenApply(order -> {
             // Notify UI (in real app, this would use WebSocket)
             notifyUI(order);
             
             // Audit
-            audits.append(new RestaurantAuditEntry(
-                    actor.id(),
-                    actor.getClass().getSimpleName(),
-                    "PLACE_ORDER",
-                    "Order",
-                    order.getId().toString(),
-                    "Placed order with %d items".formatted(items.size()),
-                    audits.tailHash()
-            ));
+            auditPlacement(actor, order, "Placed order with %d items".formatted(items.size()));
             
             return order;
         })
         .exceptionally(ex -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof KitchenOverloadedException overloaded) {
+                throw overloaded;
+            }
             log.error("Failed to place order asynchronously", ex);
+            // Keep permission and validation errors recognisable to callers
+            if (cause instanceof SecurityException || cause instanceof IllegalArgumentException) {
+                throw (RuntimeException) cause;
+            }
             throw new RuntimeException("Order placement failed", ex);
         });
     }
 
-    private CompletableFuture<Order> notifyKitchenAsync(Order order) {
+    private CompletableFuture<Order> notifyKitchenAsync(StaffRole actor, Order order) {
         return CompletableFuture.supplyAsync(() -> {
             if (order.requiresKitchenPrep()) {
-                kitchenService.submitOrder(order);
+                // Confirm before the kitchen sees the order, so its READY or CANCELLED is never overwritten
+                OrderStatus previous = order.getStatus();
                 order.updateStatus(OrderStatus.CONFIRMED);
+                repo.save(order);
+                events.publish(order, previous, OrderStatus.CONFIRMED);
+                try {
+                    kitchenService.submitOrder(order);
+                } catch (KitchenOverloadedException e) {
+                    order.updateStatus(OrderStatus.CANCELLED);
+                    repo.save(order);
+                    events.publish(order, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+                    // The audit in placeOrderAsync never runs on this path
+                    auditPlacement(actor, order, "Placed order with %d items; cancelled, kitchen overloaded"
+                            .formatted(order.getItems().size()));
+                    log.warn("Order {} cancelled, kitchen overloaded; retry after {}",
+                            order.getId(), e.getRetryAfter());
+                    throw e;
+                }
             }
             return order;
         }, executor);
     }
 
+    private void auditPlacement(StaffRole actor, Order order, String details) {
+        audits.append(new RestaurantAuditEntry(
+                actor.id(),
+                actor.getClass().getSimpleName(),
+                "PLACE_ORDER",
+                "Order",
+                order.getId().toString(),
+                details,
+                audits.tailHash()
+        ));
+    }
+
     private void notifyUI(Order order) {
         // Simulate UI notification
         log.info("UI notified: Order {} status={}", order.getId(), order.getStatus());
@@ -102,6 +173,13 @@ public class AsyncOrderService implements OrderServicePort {
     public Order placeOrder(StaffRole actor, String tableId, List<MenuItem> items) {
         try {
             return placeOrderAsync(actor, tableId, items).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KitchenOverloadedException
+                    || e.getCause() instanceof SecurityException
+                    || e.getCause() instanceof IllegalArgumentException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to place order", e);
         } catch (Exception e) {
             throw new RuntimeException("Failed to place order", e);
         }
@@ -116,6 +194,7 @@ public class AsyncOrderService implements OrderServicePort {
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
 
         OrderStatus status = OrderStatus.valueOf(newStatus.toUpperCase());
+        OrderStatus previous = order.getStatus();
         order.updateStatus(status);
         repo.save(order);
 
@@ -128,6 +207,8 @@ public class AsyncOrderService implements OrderServicePort {
                 "Status changed to " + status,
                 audits.tailHash()
         ));
+
+        events.publish(order, previous, status);
     }
 
     @Override
@@ -137,6 +218,13 @@ public class AsyncOrderService implements OrderServicePort {
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
     }
 
+    /**
+     * Get whether pipeline stages run on pooled or virtual threads.
+     */
+    public ExecutionMode getExecutionMode() {
+        return mode;
+    }
+
     public void shutdown() {
         executor.shutdown();
     }
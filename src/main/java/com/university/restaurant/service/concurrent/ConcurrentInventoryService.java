@@ -2,41 +2,71 @@ package com.university.restaurant.service.concurrent;
 
 import com.university.restaurant.chain.inventory.InventoryPermissionChain;
 import com.university.restaurant.model.inventory.InventoryItem;
+import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.staff.StaffRole;
 import com.university.restaurant.port.InventoryServicePort;
 import com.university.restaurant.repository.InventoryRepository;
 import com.university.restaurant.repository.MenuRepository;
-import com.university.restaurant.repository.RestaurantAuditEntry;
 import com.university.restaurant.repository.RestaurantAuditLogRepository;
-
+import com.university.restaurant.service.InventoryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.locks.StampedLock;
 
 /**
- * Thread-safe implementation of InventoryService using StampedLock.
- * Provides optimistic reads for queries and write locks for mutations.
+ * Thread-safe implementation of InventoryService using lock striping.
+ * Each inventory item maps to one of a fixed set of StampedLocks, so
+ * mutations of unrelated items proceed in parallel while reads and writes
+ * of the same item stay consistent. Queries use optimistic reads on the
+ * item's stripe and fall back to a read lock if a writer intervened.
+ * Whole-order reservations take the write locks of every affected stripe in
+ * ascending stripe order, so two overlapping reservations cannot deadlock.
  */
 public class ConcurrentInventoryService implements InventoryServicePort {
 
+    private static final int DEFAULT_STRIPES = 64;
+
     private final InventoryRepository repo;
     private final MenuRepository menuRepo;
     private final RestaurantAuditLogRepository audits;
     private final InventoryPermissionChain permissions = new InventoryPermissionChain();
-    
-    // StampedLock for inventory operations
-    private final StampedLock lock = new StampedLock();
 
-    public ConcurrentInventoryService(InventoryRepository r, MenuRepository menuRepo, 
+    // One StampedLock per stripe; an item always hashes to the same stripe
+    private final StampedLock[] stripes;
+
+    public ConcurrentInventoryService(InventoryRepository r, MenuRepository menuRepo,
                                      RestaurantAuditLogRepository a) {
+        this(r, menuRepo, a, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripeCount number of lock stripes; {@code 1} degenerates to a
+     *                    single global lock
+     */
+    public ConcurrentInventoryService(InventoryRepository r, MenuRepository menuRepo,
+                                     RestaurantAuditLogRepository a, int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
         this.repo = r;
         this.menuRepo = menuRepo;
         this.audits = a;
+        this.stripes = new StampedLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new StampedLock();
+        }
     }
 
     @Override
     public void reduceStock(StaffRole actor, String itemId, int qty) {
         permissions.check(actor, "reduce stock");
 
-        // Acquire write lock for mutation
+        StampedLock lock = stripeFor(itemId);
         long stamp = lock.writeLock();
         try {
             InventoryItem item = repo.findById(itemId)
@@ -52,26 +82,26 @@ public class ConcurrentInventoryService implements InventoryServicePort {
                     menuRepo.save(menuItem);
                 });
             }
-
-            // Audit
-            audits.append(new RestaurantAuditEntry(
-                    actor.id(),
-                    actor.getClass().getSimpleName(),
-                    "REDUCE_STOCK",
-                    "InventoryItem",
-                    itemId,
-                    "Reduced stock by " + qty,
-                    audits.tailHash()
-            ));
         } finally {
             lock.unlockWrite(stamp);
         }
+
+        // Audit outside the item lock; the log chains entries atomically
+        audits.appendChained(
+                actor.id(),
+                actor.getClass().getSimpleName(),
+                "REDUCE_STOCK",
+                "InventoryItem",
+                itemId,
+                "Reduced stock by " + qty
+        );
     }
 
     @Override
     public void increaseStock(StaffRole actor, String itemId, int qty) {
         permissions.check(actor, "increase stock");
 
+        StampedLock lock = stripeFor(itemId);
         long stamp = lock.writeLock();
         try {
             InventoryItem item = repo.findById(itemId)
@@ -86,30 +116,112 @@ public class ConcurrentInventoryService implements InventoryServicePort {
                     menuRepo.save(menuItem);
                 });
             }
-
-            audits.append(new RestaurantAuditEntry(
-                    actor.id(),
-                    actor.getClass().getSimpleName(),
-                    "RESTOCK",
-                    "InventoryItem",
-                    itemId,
-                    "Restocked " + qty + " units",
-                    audits.tailHash()
-            ));
         } finally {
             lock.unlockWrite(stamp);
         }
+
+        audits.appendChained(
+                actor.id(),
+                actor.getClass().getSimpleName(),
+                "RESTOCK",
+                "InventoryItem",
+                itemId,
+                "Restocked " + qty + " units"
+        );
+    }
+
+    @Override
+    public void reserveIngredients(StaffRole actor, Order order) {
+        permissions.check(actor, "reduce stock");
+
+        SortedMap<String, Integer> required = order.getIngredientRequirements();
+        if (required.isEmpty()) {
+            return;
+        }
+
+        // Resolve names to item ids before locking; lookups are lock-free
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        for (Map.Entry<String, Integer> e : required.entrySet()) {
+            InventoryItem item = repo.findByName(e.getKey())
+                    .orElseThrow(() -> new IllegalArgumentException("Ingredient not in inventory: " + e.getKey()));
+            quantities.merge(item.getId(), e.getValue(), Integer::sum);
+        }
+
+        // Lock stripes in a fixed global order
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (String itemId : quantities.keySet()) {
+            stripeIndexes.add(stripeIndex(itemId));
+        }
+        List<Integer> locked = new ArrayList<>(stripeIndexes.size());
+        long[] stamps = new long[stripeIndexes.size()];
+
+        SortedMap<String, InventoryItem> items = new TreeMap<>();
+        try {
+            for (int index : stripeIndexes) {
+                stamps[locked.size()] = stripes[index].writeLock();
+                locked.add(index);
+            }
+
+            // Re-read under the locks and check everything before consuming anything
+            for (String itemId : quantities.keySet()) {
+                InventoryItem item = repo.findById(itemId)
+                        .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
+                if (item.getStockLevel() < quantities.get(itemId)) {
+                    throw new IllegalStateException("Insufficient stock: " + item.getName());
+                }
+                items.put(itemId, item);
+            }
+
+            List<InventoryItem> consumed = new ArrayList<>();
+            try {
+                for (InventoryItem item : items.values()) {
+                    item.consume(quantities.get(item.getId()));
+                    consumed.add(item);
+                    repo.save(item);
+                }
+            } catch (RuntimeException ex) {
+                for (InventoryItem item : consumed) {
+                    item.restock(quantities.get(item.getId()));
+                    repo.save(item);
+                }
+                throw ex;
+            }
+
+            for (InventoryItem item : items.values()) {
+                if (item.getStockLevel() == 0) {
+                    menuRepo.findById(item.getId()).ifPresent(menuItem -> {
+                        menuItem.setAvailable(false);
+                        menuRepo.save(menuItem);
+                    });
+                }
+            }
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                stripes[locked.get(i)].unlockWrite(stamps[i]);
+            }
+        }
+
+        audits.appendChained(
+                actor.id(),
+                actor.getClass().getSimpleName(),
+                "RESERVE_INGREDIENTS",
+                "Order",
+                order.getId().toString(),
+                InventoryService.describeReservation(items, quantities)
+        );
     }
 
     @Override
     public int getStockLevel(String itemId) {
+        StampedLock lock = stripeFor(itemId);
+
         // Try optimistic read first
         long stamp = lock.tryOptimisticRead();
         InventoryItem item = repo.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
-        
+
         int stockLevel = item.getStockLevel();
-        
+
         if (!lock.validate(stamp)) {
             // Optimistic read failed, fall back to read lock
             stamp = lock.readLock();
@@ -121,7 +233,15 @@ public class ConcurrentInventoryService implements InventoryServicePort {
                 lock.unlockRead(stamp);
             }
         }
-        
+
         return stockLevel;
     }
+
+    private StampedLock stripeFor(String itemId) {
+        return stripes[stripeIndex(itemId)];
+    }
+
+    private int stripeIndex(String itemId) {
+        return (itemId.hashCode() & 0x7fffffff) % stripes.length;
+    }
 }
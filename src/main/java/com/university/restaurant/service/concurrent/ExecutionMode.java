@@ -0,0 +1,69 @@
+package com.university.restaurant.service.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * How the kitchen and order pipeline run blocking work.
+ * <p>
+ * The project compiles for Java 17, so virtual threads are looked up at run
+ * time; on an older runtime {@link #VIRTUAL} falls back to {@link #PLATFORM}
+ * with a warning.
+ * </p>
+ */
+public enum ExecutionMode {
+
+    /** Pooled platform threads. */
+    PLATFORM,
+
+    /** One Java 21 virtual thread per task. */
+    VIRTUAL;
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionMode.class);
+
+    private static final MethodHandle NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    private static MethodHandle findVirtualExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /** Whether this runtime has virtual threads. */
+    public static boolean virtualThreadsSupported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /** This mode, or {@link #PLATFORM} if it is {@link #VIRTUAL} and virtual threads are unavailable. */
+    public ExecutionMode resolve() {
+        if (this == VIRTUAL && !virtualThreadsSupported()) {
+            log.warn("Virtual threads need Java 21 or later; using platform threads");
+            return PLATFORM;
+        }
+        return this;
+    }
+
+    /**
+     * Executor starting a thread per task: a virtual thread, or in
+     * {@link #PLATFORM} mode a cached pool of platform threads.
+     */
+    public ExecutorService newPerTaskExecutor() {
+        if (resolve() == VIRTUAL) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot create virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+}
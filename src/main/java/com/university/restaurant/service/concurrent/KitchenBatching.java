@@ -0,0 +1,49 @@
+package com.university.restaurant.service.concurrent;
+
+import java.time.Duration;
+
+/**
+ * How the kitchen batches tickets for the same menu item across orders,
+ * and what a batch costs to prepare.
+ * <p>
+ * A batch collects tickets from its creation until {@code window} has
+ * passed or it holds {@code maxBatchSize} tickets, whichever comes first;
+ * a worker picking it up earlier waits for the rest of the window. Preparing
+ * a batch of {@code n} takes {@code setupCost + n * unitCost}.
+ * </p>
+ *
+ * @param window       how long a batch stays open to new tickets
+ * @param maxBatchSize most tickets in one batch; 1 disables batching
+ * @param setupCost    fixed cost of preparing any batch
+ * @param unitCost     additional cost per ticket in the batch
+ */
+public record KitchenBatching(Duration window, int maxBatchSize, Duration setupCost, Duration unitCost) {
+
+    /**
+     * @throws IllegalArgumentException if the batch size is not positive or
+     *                                  a duration is negative
+     */
+    public KitchenBatching {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        if (window.isNegative() || setupCost.isNegative() || unitCost.isNegative()) {
+            throw new IllegalArgumentException("Batching durations must not be negative");
+        }
+    }
+
+    /** Every ticket prepared on its own in 500 ms. */
+    public static KitchenBatching none() {
+        return new KitchenBatching(Duration.ZERO, 1, Duration.ZERO, Duration.ofMillis(500));
+    }
+
+    /** Whether tickets may share a batch. */
+    public boolean enabled() {
+        return maxBatchSize > 1;
+    }
+
+    /** Time to prepare a batch of {@code size} tickets. */
+    public Duration batchCost(int size) {
+        return setupCost.plus(unitCost.multipliedBy(size));
+    }
+}
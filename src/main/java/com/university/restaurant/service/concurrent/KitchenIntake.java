@@ -0,0 +1,46 @@
+package com.university.restaurant.service.concurrent;
+
+import java.time.Duration;
+
+/**
+ * Admission limits of the kitchen: how many tickets may wait to be started,
+ * and what happens to an order that does not fit.
+ *
+ * @param capacity     tickets that may be queued at once
+ * @param overflow     what to do with an order that does not fit
+ * @param blockTimeout how long {@link Overflow#BLOCK} waits for room
+ */
+public record KitchenIntake(int capacity, Overflow overflow, Duration blockTimeout) {
+
+    /** What happens to an order when the intake is full. */
+    public enum Overflow {
+        /** Wait up to the block timeout for room, then reject. */
+        BLOCK,
+        /** Reject at once with an estimate of when to retry. */
+        REJECT,
+        /**
+         * Cancel queued orders of lower priority, lowest first, to make
+         * room; reject if that is not enough. Orders with a ticket already
+         * being prepared are never shed.
+         */
+        SHED
+    }
+
+    /**
+     * @throws IllegalArgumentException if the capacity is not positive or
+     *                                  the timeout is negative
+     */
+    public KitchenIntake {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (blockTimeout.isNegative()) {
+            throw new IllegalArgumentException("blockTimeout must not be negative");
+        }
+    }
+
+    /** No practical limit; nothing is ever rejected. */
+    public static KitchenIntake unbounded() {
+        return new KitchenIntake(Integer.MAX_VALUE, Overflow.REJECT, Duration.ZERO);
+    }
+}
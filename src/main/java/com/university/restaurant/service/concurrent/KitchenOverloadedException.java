@@ -0,0 +1,24 @@
+package com.university.restaurant.service.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when the kitchen intake is full and an order is not admitted.
+ * Carries an estimate of when enough queued tickets will have started for
+ * the order to fit.
+ */
+public class KitchenOverloadedException extends RejectedExecutionException {
+
+    private final Duration retryAfter;
+
+    public KitchenOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /** Estimated time until the order would be admitted. */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
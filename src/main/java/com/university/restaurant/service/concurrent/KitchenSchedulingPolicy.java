@@ -0,0 +1,108 @@
+package com.university.restaurant.service.concurrent;
+
+import com.university.restaurant.model.menu.Combo;
+import com.university.restaurant.model.menu.Entree;
+import com.university.restaurant.model.menu.MenuItem;
+import com.university.restaurant.model.order.Order;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Decides the order in which the kitchen prepares queued orders.
+ * <p>
+ * A policy maps an order to a priority key when it is submitted; the kitchen
+ * queue is a priority heap on that key (lowest first, ties in submission
+ * order), so enqueue and dequeue cost O(log n). Keys are fixed at submission.
+ * Aging still works with fixed keys: preferring an order by one second for
+ * every second it has waited is the same as subtracting its submission time
+ * from every other order's key, so {@link #withAging(double)} simply adds a
+ * multiple of the submission time.
+ * </p>
+ */
+@FunctionalInterface
+public interface KitchenSchedulingPolicy {
+
+    /** Prep time assumed for items that do not declare one, such as desserts and drinks. */
+    long UNTIMED_PREP_MINUTES = 1;
+
+    /**
+     * Returns the priority key of an order; lower keys are prepared first.
+     *
+     * @param order          the submitted order
+     * @param submittedNanos submission time in nanoseconds since the kitchen started
+     */
+    long priority(Order order, long submittedNanos);
+
+    /** First come, first served. */
+    static KitchenSchedulingPolicy fifo() {
+        return (order, submittedNanos) -> submittedNanos;
+    }
+
+    /**
+     * Shortest total prep time first, using {@link Entree#getPrepTimeMinutes()};
+     * a quick dessert ticket overtakes a long entree. Without aging, long
+     * orders can starve under sustained load.
+     */
+    static KitchenSchedulingPolicy shortestPrepFirst() {
+        return (order, submittedNanos) -> prepNanos(order);
+    }
+
+    /**
+     * Earliest deadline first, where an order's deadline is its submission
+     * time plus its SLA.
+     *
+     * @param sla the time each order should be ready within
+     */
+    static KitchenSchedulingPolicy earliestDeadlineFirst(Function<Order, Duration> sla) {
+        return (order, submittedNanos) -> submittedNanos + sla.apply(order).toNanos();
+    }
+
+    /** Earliest deadline first with the same SLA for every order. */
+    static KitchenSchedulingPolicy earliestDeadlineFirst(Duration sla) {
+        return earliestDeadlineFirst(order -> sla);
+    }
+
+    /**
+     * Returns this policy with aging: every nanosecond an order has waited
+     * counts as {@code rate} nanoseconds of priority, so any order is
+     * eventually prepared.
+     *
+     * @param rate priority gained per unit of waiting time; 0 disables aging
+     * @throws IllegalArgumentException if {@code rate} is negative
+     */
+    default KitchenSchedulingPolicy withAging(double rate) {
+        if (rate < 0) {
+            throw new IllegalArgumentException("aging rate must not be negative");
+        }
+        if (rate == 0) {
+            return this;
+        }
+        return (order, submittedNanos) -> priority(order, submittedNanos) + (long) (rate * submittedNanos);
+    }
+
+    /** Total prep time of an order's items, in nanoseconds. */
+    static long prepNanos(Order order) {
+        long minutes = 0;
+        for (MenuItem item : order.getItems()) {
+            minutes += prepMinutes(item);
+        }
+        return TimeUnit.MINUTES.toNanos(minutes);
+    }
+
+    /** Prep time of one item; a combo takes as long as its parts. */
+    static long prepMinutes(MenuItem item) {
+        if (item instanceof Entree entree) {
+            return entree.getPrepTimeMinutes();
+        }
+        if (item instanceof Combo combo) {
+            long minutes = 0;
+            for (MenuItem part : combo.getItems()) {
+                minutes += prepMinutes(part);
+            }
+            return minutes;
+        }
+        return UNTIMED_PREP_MINUTES;
+    }
+}
@@ -1,50 +1,400 @@
 package com.university.restaurant.service.concurrent;
 
+import com.university.restaurant.chain.analytics.AnalyticsPermissionChain;
+import com.university.restaurant.model.menu.Combo;
+import com.university.restaurant.model.menu.MenuItem;
 import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.staff.StaffRole;
+import com.university.restaurant.port.OrderEventListener;
+import com.university.restaurant.service.OrderEventPublisher;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Kitchen service managing a thread pool of workers to process orders.
- * Uses BlockingQueue for thread-safe order distribution.
+ * <p>
+ * Orders are split into one ticket per item (combos into their parts), and
+ * each ticket is routed by its {@link com.university.restaurant.model.menu.MenuCategory}
+ * to a {@link KitchenStation} queue, so the items of one order cook in
+ * parallel. Every worker belongs to a station and takes from its queue
+ * first; an idle worker steals from the station with the longest queue.
+ * An order becomes READY when its last ticket is done.
+ * </p>
+ * <p>
+ * Station queues are priority queues ordered by a pluggable
+ * {@link KitchenSchedulingPolicy}; the default is first come, first served.
+ * Queue wait, per-item preparation and order-to-ready times are recorded in
+ * {@link KitchenLatencyMetrics}.
+ * </p>
+ * <p>
+ * With {@link KitchenBatching} enabled, a ticket joins the open batch of
+ * tickets for the same menu item, from any order, instead of being queued
+ * on its own. Batches are queued and stolen like tickets; the worker that
+ * takes one waits out the rest of its window unless it is full, prepares
+ * it at the batch cost, and completes each ticket's order. By default every
+ * ticket is a batch of one.
+ * </p>
+ * <p>
+ * In {@link ExecutionMode#VIRTUAL} mode there are no pinned workers or
+ * queues: every batch gets its own virtual thread, which waits for a slot
+ * at its station (one per station worker, at least one) and then cooks.
+ * Slots are handed out in arrival order, so the scheduling policy and work
+ * stealing do not apply. Latencies are recorded under the id of the slot
+ * that cooked the batch; slots are numbered from 1 across the stations in
+ * declaration order, as workers are in platform mode.
+ * </p>
+ * <p>
+ * Admission is bounded by a {@link KitchenIntake}: an order is admitted only
+ * if all its tickets fit among the tickets waiting to be started. When they
+ * do not, the intake's overflow policy blocks the caller for a while,
+ * rejects the order with a {@link KitchenOverloadedException}, or sheds
+ * queued orders of lower priority. By default the intake is unbounded.
+ * </p>
  */
 public class KitchenService {
-    
+
     private static final Logger log = LoggerFactory.getLogger(KitchenService.class);
-    
+
+    private final ExecutionMode mode;
     private final ExecutorService workerPool;
-    private final BlockingQueue<Order> orderQueue;
+    private final Map<KitchenStation, BlockingQueue<Batch>> stationQueues = new EnumMap<>(KitchenStation.class);
+    // Cooking slots per station, only used in virtual mode
+    private final Map<KitchenStation, Semaphore> stationSlots = new EnumMap<>(KitchenStation.class);
+    // Ids of the free slots per station; a thread holding a slot permit always finds one
+    private final Map<KitchenStation, Queue<Integer>> freeSlotIds = new EnumMap<>(KitchenStation.class);
+    // One permit per queued batch, so a worker holding a permit always finds a batch
+    private final Semaphore queuedBatches = new Semaphore(0);
+    private final KitchenBatching batching;
+    // Batches still accepting tickets, by menu item id
+    private final ConcurrentHashMap<String, Batch> openBatches = new ConcurrentHashMap<>();
+    private final LongAdder preparedBatches = new LongAdder();
     private final int numWorkers;
+    private final OrderEventPublisher events = new OrderEventPublisher();
+    private final KitchenLatencyMetrics metrics;
+    private final KitchenSchedulingPolicy policy;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder stolenTickets = new LongAdder();
+    private final KitchenIntake intake;
+    // One permit per ticket that may still be admitted
+    private final Semaphore intakeSlots;
+    // Tickets admitted and neither started nor shed
+    private final AtomicInteger waitingTickets = new AtomicInteger();
+    // Queued orders none of whose tickets has started, worst priority last; only kept when shedding
+    private final ConcurrentSkipListSet<OrderProgress> sheddable = new ConcurrentSkipListSet<>(OrderProgress.ORDER);
+    private final int cooks;
+    private final LongAdder preparedTickets = new LongAdder();
+    private final LongAdder preparedNanos = new LongAdder();
+    private final LongAdder admittedOrders = new LongAdder();
+    private final LongAdder rejectedOrders = new LongAdder();
+    private final LongAdder shedOrders = new LongAdder();
+    /** Permission chain guarding the admission counters. */
+    private final AnalyticsPermissionChain permissions = new AnalyticsPermissionChain();
     private volatile boolean shutdown = false;
 
+    /**
+     * One item of an order waiting at a station, stamped with its submission
+     * time and its order's priority under the scheduling policy; the sequence
+     * number breaks ties.
+     */
+    private record Ticket(OrderProgress progress, MenuItem item, long submittedNanos, long priority, long sequence) {
+        static final Comparator<Ticket> ORDER =
+                Comparator.comparingLong(Ticket::priority).thenComparingLong(Ticket::sequence);
+    }
+
+    /**
+     * Tickets for one menu item, prepared together. It is queued by its
+     * first ticket and accepts more until the worker preparing it seals it.
+     */
+    private static final class Batch {
+        static final Comparator<Batch> ORDER = Comparator.comparing((Batch batch) -> batch.first, Ticket.ORDER);
+
+        private final Ticket first;
+        private final List<Ticket> tickets = new ArrayList<>();
+        private boolean sealed;
+
+        Batch(Ticket first) {
+            this.first = first;
+            tickets.add(first);
+        }
+
+        synchronized boolean tryAdd(Ticket ticket, int maxSize) {
+            if (sealed || tickets.size() >= maxSize) {
+                return false;
+            }
+            tickets.add(ticket);
+            if (tickets.size() == maxSize) {
+                notifyAll();
+            }
+            return true;
+        }
+
+        /** Waits until the batch is full or the deadline passes, then closes it. */
+        synchronized List<Ticket> seal(long deadlineNanos, int maxSize) {
+            try {
+                long remaining;
+                while (tickets.size() < maxSize && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                // Seal anyway; preparing the batch sees the interrupt
+                Thread.currentThread().interrupt();
+            }
+            sealed = true;
+            return List.copyOf(tickets);
+        }
+    }
+
+    /**
+     * An order whose tickets are in the kitchen: how many are not done yet,
+     * and how many have started, or {@link #SHED} once it was shed.
+     */
+    private record OrderProgress(Order order, long submittedNanos, long priority, long sequence, int tickets,
+                                 AtomicInteger remaining, AtomicInteger started) {
+        static final int SHED = -1;
+        static final Comparator<OrderProgress> ORDER =
+                Comparator.comparingLong(OrderProgress::priority).thenComparingLong(OrderProgress::sequence);
+    }
+
+    /**
+     * Admission counters: tickets waiting to be started against the intake
+     * capacity, and orders admitted, rejected and shed since start.
+     */
+    public record IntakeStats(int queuedTickets, int capacity, KitchenIntake.Overflow overflow,
+                              long admittedOrders, long rejectedOrders, long shedOrders) {
+    }
+
     public KitchenService(int numWorkers) {
-        this.numWorkers = numWorkers;
-        this.orderQueue = new LinkedBlockingQueue<>();
-        this.workerPool = Executors.newFixedThreadPool(numWorkers);
-        
-        // Start workers
+        this(numWorkers, new KitchenLatencyMetrics());
+    }
+
+    public KitchenService(int numWorkers, KitchenLatencyMetrics metrics) {
+        this(numWorkers, metrics, KitchenSchedulingPolicy.fifo());
+    }
+
+    /**
+     * Spreads {@code numWorkers} over the stations in turn, starting with the
+     * grill.
+     */
+    public KitchenService(int numWorkers, KitchenLatencyMetrics metrics, KitchenSchedulingPolicy policy) {
+        this(numWorkers, metrics, policy, ExecutionMode.PLATFORM);
+    }
+
+    public KitchenService(int numWorkers, KitchenLatencyMetrics metrics, KitchenSchedulingPolicy policy,
+                          ExecutionMode mode) {
+        this(evenly(numWorkers), metrics, policy, mode);
+    }
+
+    public KitchenService(Map<KitchenStation, Integer> stationWorkers, KitchenLatencyMetrics metrics,
+                          KitchenSchedulingPolicy policy) {
+        this(stationWorkers, metrics, policy, ExecutionMode.PLATFORM);
+    }
+
+    public KitchenService(Map<KitchenStation, Integer> stationWorkers, KitchenLatencyMetrics metrics,
+                          KitchenSchedulingPolicy policy, ExecutionMode mode) {
+        this(stationWorkers, metrics, policy, mode, KitchenIntake.unbounded());
+    }
+
+    public KitchenService(int numWorkers, KitchenLatencyMetrics metrics, KitchenSchedulingPolicy policy,
+                          ExecutionMode mode, KitchenIntake intake) {
+        this(evenly(numWorkers), metrics, policy, mode, intake);
+    }
+
+    public KitchenService(Map<KitchenStation, Integer> stationWorkers, KitchenLatencyMetrics metrics,
+                          KitchenSchedulingPolicy policy, ExecutionMode mode, KitchenIntake intake) {
+        this(stationWorkers, metrics, policy, mode, intake, KitchenBatching.none());
+    }
+
+    public KitchenService(int numWorkers, KitchenLatencyMetrics metrics, KitchenSchedulingPolicy policy,
+                          ExecutionMode mode, KitchenIntake intake, KitchenBatching batching) {
+        this(evenly(numWorkers), metrics, policy, mode, intake, batching);
+    }
+
+    /**
+     * @param stationWorkers workers belonging to each station; stations
+     *                       without workers are served by stealing
+     * @param mode           platform workers, or a virtual thread per batch
+     * @param intake         how many tickets may wait, and what happens to
+     *                       orders that do not fit
+     * @param batching       how tickets for the same item are batched, and
+     *                       what a batch costs to prepare
+     * @throws IllegalArgumentException if there are no workers
+     */
+    public KitchenService(Map<KitchenStation, Integer> stationWorkers, KitchenLatencyMetrics metrics,
+                          KitchenSchedulingPolicy policy, ExecutionMode mode, KitchenIntake intake,
+                          KitchenBatching batching) {
+        int total = stationWorkers.values().stream().mapToInt(Integer::intValue).sum();
+        if (total < 1) {
+            throw new IllegalArgumentException("Kitchen needs at least one worker");
+        }
+        this.numWorkers = total;
+        this.metrics = metrics;
+        this.policy = policy;
+        this.mode = mode.resolve();
+        this.intake = intake;
+        this.batching = batching;
+        this.intakeSlots = new Semaphore(intake.capacity(), true);
+        int slots = 0;
+        for (KitchenStation station : KitchenStation.values()) {
+            int stationSlotCount = Math.max(1, stationWorkers.getOrDefault(station, 0));
+            stationQueues.put(station, new PriorityBlockingQueue<>(64, Batch.ORDER));
+            stationSlots.put(station, new Semaphore(stationSlotCount, true));
+            Queue<Integer> slotIds = new ConcurrentLinkedQueue<>();
+            for (int i = 0; i < stationSlotCount; i++) {
+                slotIds.add(slots + i + 1);
+            }
+            freeSlotIds.put(station, slotIds);
+            slots += stationSlotCount;
+        }
+        this.cooks = this.mode == ExecutionMode.VIRTUAL ? slots : total;
+
+        if (this.mode == ExecutionMode.VIRTUAL) {
+            this.workerPool = this.mode.newPerTaskExecutor();
+        } else {
+            this.workerPool = Executors.newFixedThreadPool(numWorkers);
+
+            // Start workers
+            int workerId = 0;
+            for (KitchenStation station : KitchenStation.values()) {
+                for (int i = 0; i < stationWorkers.getOrDefault(station, 0); i++) {
+                    workerPool.submit(new KitchenWorker(++workerId, station));
+                }
+            }
+        }
+
+        log.info("Kitchen service started with {} {} workers {}", numWorkers, this.mode, stationWorkers);
+    }
+
+    private static Map<KitchenStation, Integer> evenly(int numWorkers) {
+        Map<KitchenStation, Integer> workers = new EnumMap<>(KitchenStation.class);
+        KitchenStation[] stations = KitchenStation.values();
         for (int i = 0; i < numWorkers; i++) {
-            final int workerId = i + 1;
-            workerPool.submit(new KitchenWorker(workerId, orderQueue));
+            workers.merge(stations[i % stations.length], 1, Integer::sum);
         }
-        
-        log.info("Kitchen service started with {} workers", numWorkers);
+        return workers;
+    }
+
+    /**
+     * Register a listener notified when a worker marks an order READY.
+     */
+    public void addOrderEventListener(OrderEventListener listener) {
+        events.addListener(listener);
     }
 
     /**
-     * Submit an order to the kitchen queue.
+     * Submit an order to the kitchen, one ticket per item at the item's
+     * station, prioritised by the scheduling policy. An order without items
+     * is READY at once.
+     *
+     * @throws KitchenOverloadedException if the intake is full and the
+     *                                    overflow policy cannot make room
+     * @throws IllegalArgumentException   if the order has more tickets than
+     *                                    the intake holds
      */
     public void submitOrder(Order order) {
         if (shutdown) {
             throw new IllegalStateException("Kitchen service is shut down");
         }
-        
+
+        long now = System.nanoTime();
+        long priority = policy.priority(order, now - startNanos);
+        List<MenuItem> items = new ArrayList<>();
+        for (MenuItem item : order.getItems()) {
+            addPreparedItems(item, items);
+        }
+        OrderProgress progress = new OrderProgress(order, now, priority, sequence.getAndIncrement(), items.size(),
+                new AtomicInteger(items.size()), new AtomicInteger());
+        if (items.isEmpty()) {
+            complete(progress);
+            return;
+        }
+        admit(progress);
+
+        for (MenuItem item : items) {
+            Batch batch = batch(new Ticket(progress, item, now, priority, progress.sequence()));
+            if (batch == null) {
+                continue;
+            }
+            KitchenStation station = KitchenStation.forCategory(item.getCategory());
+            if (mode == ExecutionMode.VIRTUAL) {
+                workerPool.execute(() -> prepareInSlot(station, batch));
+            } else {
+                stationQueues.get(station).offer(batch);
+                queuedBatches.release();
+            }
+        }
+        log.info("Order {} submitted to kitchen as {} tickets", order.getId(), items.size());
+    }
+
+    /**
+     * Adds a ticket to the open batch for its item.
+     *
+     * @return a new batch to queue, or null if the ticket joined one
+     */
+    private Batch batch(Ticket ticket) {
+        if (!batching.enabled()) {
+            return new Batch(ticket);
+        }
+        Batch[] created = new Batch[1];
+        openBatches.compute(ticket.item().getId(), (id, open) -> {
+            if (open != null && open.tryAdd(ticket, batching.maxBatchSize())) {
+                return open;
+            }
+            created[0] = new Batch(ticket);
+            return created[0];
+        });
+        return created[0];
+    }
+
+    /**
+     * Reserves intake room for all of an order's tickets, applying the
+     * overflow policy if there is not enough.
+     */
+    private void admit(OrderProgress progress) {
+        int tickets = progress.tickets();
+        if (tickets > intake.capacity()) {
+            throw new IllegalArgumentException("Order " + progress.order().getId() + " has " + tickets
+                    + " tickets, more than the kitchen intake of " + intake.capacity());
+        }
+
+        boolean admitted = switch (intake.overflow()) {
+            case REJECT -> intakeSlots.tryAcquire(tickets);
+            case BLOCK -> acquireWithin(tickets, intake.blockTimeout().toNanos());
+            case SHED -> intakeSlots.tryAcquire(tickets) || shedFor(progress);
+        };
+        if (!admitted) {
+            rejectedOrders.increment();
+            Duration retryAfter = estimateRetryAfter(tickets);
+            log.warn("Kitchen full, rejecting order {} ({} tickets); retry after {}",
+                    progress.order().getId(), tickets, retryAfter);
+            throw new KitchenOverloadedException("Kitchen is full, retry after " + retryAfter.toMillis() + " ms",
+                    retryAfter);
+        }
+
+        waitingTickets.addAndGet(tickets);
+        admittedOrders.increment();
+        if (intake.overflow() == KitchenIntake.Overflow.SHED) {
+            sheddable.add(progress);
+        }
+    }
+
+    private boolean acquireWithin(int tickets, long timeoutNanos) {
         try {
-            orderQueue.offer(order, 5, TimeUnit.SECONDS);
-            log.info("Order {} submitted to kitchen queue", order.getId());
+            return intakeSlots.tryAcquire(tickets, timeoutNanos, TimeUnit.NANOSECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Failed to submit order", e);
@@ -52,14 +402,191 @@ public class KitchenService {
     }
 
     /**
-     * Get current queue size.
+     * Sheds queued orders of lower priority than {@code progress}, worst
+     * first, until its tickets fit. Nothing is shed unless the lower-priority
+     * backlog and the free room together cover the order; the intake room of
+     * the orders shed goes straight to it.
+     *
+     * @return whether the order's tickets were admitted
+     */
+    private synchronized boolean shedFor(OrderProgress progress) {
+        int needed = progress.tickets() - intakeSlots.availablePermits();
+        List<OrderProgress> victims = new ArrayList<>();
+        int freed = 0;
+        for (OrderProgress candidate : sheddable.descendingSet()) {
+            if (freed >= needed || OrderProgress.ORDER.compare(candidate, progress) < 0) {
+                break;
+            }
+            if (candidate.started().get() == 0) {
+                victims.add(candidate);
+                freed += candidate.tickets();
+            }
+        }
+        if (freed < needed) {
+            // Everything that could go is too small to make room
+            return false;
+        }
+
+        int reserved = 0;
+        for (OrderProgress victim : victims) {
+            // Lost the race against a worker starting one of its tickets
+            if (victim.started().compareAndSet(0, OrderProgress.SHED)) {
+                sheddable.remove(victim);
+                shed(victim);
+                reserved += victim.tickets();
+            }
+        }
+        int rest = progress.tickets() - reserved;
+        if (rest <= 0) {
+            intakeSlots.release(-rest);
+            return true;
+        }
+        if (intakeSlots.tryAcquire(rest)) {
+            return true;
+        }
+        // Free room was taken by another admission meanwhile
+        intakeSlots.release(reserved);
+        return false;
+    }
+
+    /**
+     * Cancels a shed order; its queued tickets are skipped when taken. Its
+     * intake room is kept by the caller for the order it was shed for.
+     */
+    private void shed(OrderProgress victim) {
+        waitingTickets.addAndGet(-victim.tickets());
+        shedOrders.increment();
+
+        Order order = victim.order();
+        OrderStatus previous = order.getStatus();
+        order.updateStatus(OrderStatus.CANCELLED);
+        events.publish(order, previous, OrderStatus.CANCELLED);
+        log.warn("Shed order {} to make room in the kitchen", order.getId());
+    }
+
+    /**
+     * Marks a taken ticket as started, freeing its intake room.
+     *
+     * @return false if its order was shed and the ticket must be skipped
+     */
+    private boolean start(Ticket ticket) {
+        OrderProgress progress = ticket.progress();
+        int started;
+        do {
+            started = progress.started().get();
+            if (started == OrderProgress.SHED) {
+                return false;
+            }
+        } while (!progress.started().compareAndSet(started, started + 1));
+
+        if (started == 0 && intake.overflow() == KitchenIntake.Overflow.SHED) {
+            sheddable.remove(progress);
+        }
+        waitingTickets.decrementAndGet();
+        intakeSlots.release();
+        return true;
+    }
+
+    /**
+     * Time until enough waiting tickets have started for {@code tickets} more
+     * to fit: the excess, spread over every cook, at the mean preparation
+     * time seen so far.
+     */
+    private Duration estimateRetryAfter(int tickets) {
+        long excess = Math.max(1, waitingTickets.get() + tickets - (long) intake.capacity());
+        long prepared = preparedTickets.sum();
+        long meanNanos = prepared == 0
+                ? batching.batchCost(1).toNanos()
+                : preparedNanos.sum() / prepared;
+        long rounds = (excess + cooks - 1) / cooks;
+        return Duration.ofNanos(rounds * meanNanos);
+    }
+
+    private static void addPreparedItems(MenuItem item, List<MenuItem> items) {
+        if (item instanceof Combo combo) {
+            for (MenuItem part : combo.getItems()) {
+                addPreparedItems(part, items);
+            }
+        } else {
+            items.add(item);
+        }
+    }
+
+    /**
+     * Latency histograms recorded by this kitchen's workers.
+     */
+    public KitchenLatencyMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the number of admitted tickets not yet started.
      */
     public int getQueueSize() {
-        return orderQueue.size();
+        return waitingTickets.get();
+    }
+
+    /**
+     * Get the number of batches (tickets, unless batching) waiting at one
+     * station; in virtual mode, an estimate of the batches waiting for a
+     * slot. Tickets of shed orders are counted until a worker discards them.
+     */
+    public int getQueueSize(KitchenStation station) {
+        return mode == ExecutionMode.VIRTUAL
+                ? stationSlots.get(station).getQueueLength()
+                : stationQueues.get(station).size();
+    }
+
+    /**
+     * Get whether tickets run on pooled workers or on virtual threads.
+     */
+    public ExecutionMode getExecutionMode() {
+        return mode;
     }
 
     /**
-     * Shutdown the kitchen service gracefully.
+     * Get the intake's queue depth and admission counters, for a staff member.
+     *
+     * @throws SecurityException if the role is not authorized to view analytics
+     */
+    public IntakeStats getIntakeStats(StaffRole actor) {
+
+        permissions.check(actor, "view kitchen intake analytics");
+
+        return getIntakeStats();
+    }
+
+    /**
+     * Get the intake's queue depth and admission counters.
+     */
+    public IntakeStats getIntakeStats() {
+        return new IntakeStats(waitingTickets.get(), intake.capacity(), intake.overflow(),
+                admittedOrders.sum(), rejectedOrders.sum(), shedOrders.sum());
+    }
+
+    /**
+     * Get the number of tickets prepared, and the number of batches they
+     * were prepared in; their ratio is the mean batch size.
+     */
+    public long getPreparedTickets() {
+        return preparedTickets.sum();
+    }
+
+    public long getPreparedBatches() {
+        return preparedBatches.sum();
+    }
+
+    /**
+     * Get the number of batches (tickets, unless batching) prepared by a
+     * worker of another station.
+     */
+    public long getStolenTickets() {
+        return stolenTickets.sum();
+    }
+
+    /**
+     * Shutdown the kitchen service gracefully; tickets already queued are
+     * still prepared.
      */
     public void shutdown() {
         shutdown = true;
@@ -75,28 +602,117 @@ public class KitchenService {
         log.info("Kitchen service shut down");
     }
 
+    /** Runs on a batch's virtual thread: waits for a slot at the station, then cooks. */
+    private void prepareInSlot(KitchenStation station, Batch batch) {
+        Semaphore slots = stationSlots.get(station);
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting at {} for {}", station, batch.first.item().getName());
+            return;
+        }
+        Integer slotId = freeSlotIds.get(station).poll();
+        try {
+            prepare(slotId, batch);
+        } finally {
+            freeSlotIds.get(station).add(slotId);
+            slots.release();
+        }
+    }
+
     /**
-     * Kitchen worker runnable that processes orders from the queue.
+     * Seals a batch, prepares the tickets whose orders were not shed, and
+     * completes the orders that have no tickets left.
      */
-    private static class KitchenWorker implements Runnable {
+    private void prepare(int workerId, Batch batch) {
+        long windowNanos = batching.window().toNanos();
+        List<Ticket> sealed = batch.seal(batch.first.submittedNanos() + windowNanos, batching.maxBatchSize());
+        if (batching.enabled()) {
+            openBatches.remove(batch.first.item().getId(), batch);
+        }
+        List<Ticket> tickets = new ArrayList<>(sealed.size());
+        for (Ticket ticket : sealed) {
+            if (start(ticket)) {
+                tickets.add(ticket);
+            }
+        }
+        if (tickets.isEmpty()) {
+            return;
+        }
+
+        MenuItem item = batch.first.item();
+        log.info("Worker {} preparing {} x{}", workerId, item.getName(), tickets.size());
+
+        try {
+            long start = System.nanoTime();
+            for (Ticket ticket : tickets) {
+                metrics.recordQueueWait(workerId, item.getCategory(), start - ticket.submittedNanos());
+            }
+
+            // Simulate cooking time
+            TimeUnit.NANOSECONDS.sleep(batching.batchCost(tickets.size()).toNanos());
+            long elapsed = System.nanoTime() - start;
+            preparedNanos.add(elapsed);
+            preparedTickets.add(tickets.size());
+            preparedBatches.increment();
+
+            for (Ticket ticket : tickets) {
+                metrics.recordProcessing(workerId, item.getCategory(), elapsed);
+                // A failing listener must not hold back the other orders in the batch
+                try {
+                    if (ticket.progress().remaining().decrementAndGet() == 0) {
+                        complete(ticket.progress());
+                        log.info("Worker {} completed order {}", workerId, ticket.progress().order().getId());
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Worker {} failed to complete order {}", workerId,
+                            ticket.progress().order().getId(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Worker {} interrupted while preparing {}", workerId, item.getName());
+        } catch (Exception e) {
+            log.error("Worker {} failed to prepare {}", workerId, item.getName(), e);
+        }
+    }
+
+    /** Marks an order READY once all its tickets are done. */
+    private void complete(OrderProgress progress) {
+        Order order = progress.order();
+        metrics.recordOrderToReady(System.nanoTime() - progress.submittedNanos());
+
+        // Update order status
+        OrderStatus previous = order.getStatus();
+        order.updateStatus(OrderStatus.READY);
+        events.publish(order, previous, OrderStatus.READY);
+    }
+
+    /**
+     * Kitchen worker runnable that prepares batches for its station, or
+     * steals them from the busiest station when its own queue is empty.
+     */
+    private final class KitchenWorker implements Runnable {
         private final int workerId;
-        private final BlockingQueue<Order> queue;
+        private final KitchenStation station;
         private static final Logger log = LoggerFactory.getLogger(KitchenWorker.class);
 
-        KitchenWorker(int workerId, BlockingQueue<Order> queue) {
+        KitchenWorker(int workerId, KitchenStation station) {
             this.workerId = workerId;
-            this.queue = queue;
+            this.station = station;
         }
 
         @Override
         public void run() {
-            log.info("Kitchen worker {} started", workerId);
-            
-            while (!Thread.interrupted()) {
+            log.info("Kitchen worker {} started at {}", workerId, station);
+
+            while (!Thread.currentThread().isInterrupted()) {
                 try {
-                    Order order = queue.poll(1, TimeUnit.SECONDS);
-                    if (order != null) {
-                        processOrder(order);
+                    if (queuedBatches.tryAcquire(1, TimeUnit.SECONDS)) {
+                        prepare(workerId, take());
+                    } else if (shutdown) {
+                        break;
                     }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -104,27 +720,31 @@ public class KitchenService {
                     break;
                 }
             }
-            
+
             log.info("Kitchen worker {} stopped", workerId);
         }
 
-        private void processOrder(Order order) {
-            log.info("Worker {} processing order {}", workerId, order.getId());
-            
-            try {
-                // Simulate cooking time based on number of items
-                int cookingTimeMs = order.getItems().size() * 500;
-                Thread.sleep(cookingTimeMs);
-                
-                // Update order status
-                order.updateStatus(OrderStatus.READY);
-                
-                log.info("Worker {} completed order {}", workerId, order.getId());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Worker {} interrupted while processing order {}", workerId, order.getId());
-            } catch (Exception e) {
-                log.error("Worker {} failed to process order {}", workerId, order.getId(), e);
+        /** Takes a batch; the caller holds a permit, so one is queued somewhere. */
+        private Batch take() {
+            BlockingQueue<Batch> own = stationQueues.get(station);
+            while (true) {
+                Batch batch = own.poll();
+                if (batch != null) {
+                    return batch;
+                }
+                BlockingQueue<Batch> busiest = own;
+                for (BlockingQueue<Batch> queue : stationQueues.values()) {
+                    if (queue.size() > busiest.size()) {
+                        busiest = queue;
+                    }
+                }
+                batch = busiest.poll();
+                if (batch != null) {
+                    stolenTickets.increment();
+                    return batch;
+                }
+                // Another worker took the batch we saw; ours is still queued elsewhere
+                Thread.onSpinWait();
             }
         }
     }
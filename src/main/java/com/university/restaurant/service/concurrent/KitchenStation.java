@@ -0,0 +1,25 @@
+package com.university.restaurant.service.concurrent;
+
+import com.university.restaurant.model.menu.MenuCategory;
+
+/**
+ * Kitchen stations; each prepares the items of some menu categories from
+ * its own queue.
+ */
+public enum KitchenStation {
+    GRILL,
+    PASTRY,
+    BAR;
+
+    /**
+     * Station preparing items of {@code category}. Combos are split into
+     * their parts before routing; a combo that reaches here goes to the grill.
+     */
+    public static KitchenStation forCategory(MenuCategory category) {
+        return switch (category) {
+            case ENTREE, COMBO -> GRILL;
+            case DESSERT -> PASTRY;
+            case DRINK -> BAR;
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package com.university.restaurant.concurrent;
+
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.service.concurrent.AnalyticsEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AnalyticsEngine chunking, coalescing, deadlines and bounds.
+ */
+class AnalyticsEngineTest {
+
+    private AnalyticsEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    private static List<Order> orders(int n) {
+        Drink coke = new Drink("d1", "Coke", "desc", 1.0, false);
+        Drink sprite = new Drink("d2", "Sprite", "desc", 2.0, false);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Order order = new Order(i % 20, "w1");
+            order.addItem(i % 3 == 0 ? sprite : coke);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static final java.util.stream.Collector<Order, ?, Map<Integer, Long>> BY_TABLE =
+            Collectors.groupingBy(Order::getTableNumber, Collectors.counting());
+
+    @Test
+    void aggregate_inChunks_shouldMatchSequentialResult() throws Exception {
+        engine = new AnalyticsEngine(4, 8, 100, Duration.ofSeconds(10));
+        List<Order> orders = orders(10_000);
+
+        double total = engine.aggregate("total", () -> orders, Collectors.summingDouble(Order::calculateTotal))
+                .get(5, TimeUnit.SECONDS);
+        Map<Integer, Long> byTable = engine.aggregate("by-table", () -> orders, BY_TABLE)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(orders.stream().mapToDouble(Order::calculateTotal).sum(), total, 1e-6);
+        assertEquals(orders.stream().collect(BY_TABLE), byTable);
+        AnalyticsEngine.Stats stats = engine.stats();
+        assertEquals(2, stats.completed());
+        assertEquals(0, stats.pendingQueries());
+        assertTrue(stats.maxComputeMillis() >= stats.meanComputeMillis());
+    }
+
+    @Test
+    void identicalConcurrentQueries_shouldShareOneComputation() throws Exception {
+        engine = new AnalyticsEngine(2, 8, 100, Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Order> orders = orders(500);
+
+        List<CompletableFuture<Double>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(engine.aggregate("total", () -> {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return orders;
+            }, Collectors.summingDouble(Order::calculateTotal)));
+        }
+        release.countDown();
+
+        for (CompletableFuture<Double> f : futures) {
+            assertEquals(333 * 1.0 + 167 * 2.0, f.get(5, TimeUnit.SECONDS), 1e-9);
+        }
+        assertEquals(1, loads.get());
+        assertEquals(4, engine.stats().coalesced());
+    }
+
+    @Test
+    void queryPastDeadline_shouldBeCancelled() throws Exception {
+        engine = new AnalyticsEngine(2, 8, 100, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Long> slow = engine.aggregate("slow", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return orders(10);
+        }, Collectors.counting());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        release.countDown();
+        assertEquals(1, engine.stats().timedOut());
+
+        // The key is free again once the query has been cancelled
+        assertEquals(10L, engine.aggregate("slow", () -> orders(10), Collectors.counting()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void queryPastDeadline_shouldKeepItsSlotUntilItsWorkStops() throws Exception {
+        engine = new AnalyticsEngine(2, 1, 100, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Long> slow = engine.aggregate("slow", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return orders(10);
+        }, Collectors.counting());
+
+        assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+        assertEquals(1, engine.stats().pendingQueries());
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> engine.aggregate("other", () -> orders(10), Collectors.counting()).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> engine.stats().pendingQueries() == 0);
+        assertEquals(10L, engine.aggregate("other", () -> orders(10), Collectors.counting()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void queriesBeyondBound_shouldBeRejected() throws Exception {
+        engine = new AnalyticsEngine(1, 1, 100, Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Long> first = engine.aggregate("first", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return orders(1);
+        }, Collectors.counting());
+        CompletableFuture<Long> second = engine.aggregate("second", () -> orders(1), Collectors.counting());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, engine.stats().pendingQueries());
+        assertEquals(1, engine.stats().rejected());
+
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aggregate_afterClose_shouldBeRejected() {
+        engine = new AnalyticsEngine();
+        engine.close();
+
+        CompletableFuture<Long> f = engine.aggregate("x", () -> orders(1), Collectors.counting());
+
+        ExecutionException e = assertThrows(ExecutionException.class, f::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+}
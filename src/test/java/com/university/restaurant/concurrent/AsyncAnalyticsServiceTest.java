@@ -60,6 +60,23 @@ class AsyncAnalyticsServiceTest {
         assertEquals(1L, topSelling.get("Sprite"));
     }
 
+    @Test
+    void computeTopSellingAsync_afterStatusChange_shouldUseCurrentStatus() throws Exception {
+        Order cancelled = orderRepo.findByStatus(OrderStatus.PAID).stream()
+                .filter(o -> o.getTableNumber() == 2)
+                .findFirst()
+                .orElseThrow();
+        cancelled.updateStatus(OrderStatus.CANCELLED);
+        orderRepo.save(cancelled);
+
+        Map<String, Long> topSelling = service.computeTopSellingAsync(manager).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, topSelling.size());
+        assertEquals(2L, topSelling.get("Coke"));
+        assertEquals(1, orderRepo.findByStatus(OrderStatus.CANCELLED).size());
+        assertEquals(1, orderRepo.findByTable(2).size());
+    }
+
     @Test
     void computeRevenueTodayAsync_shouldReturnTotal() throws ExecutionException, InterruptedException, TimeoutException {
         CompletableFuture<Double> future = service.computeRevenueTodayAsync(manager);
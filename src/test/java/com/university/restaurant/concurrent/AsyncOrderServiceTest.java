@@ -1,22 +1,34 @@
 package com.university.restaurant.concurrent;
 
+import com.university.restaurant.model.menu.DietaryType;
 import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.Entree;
 import com.university.restaurant.model.menu.MenuItem;
 import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.order.OrderStatus;
 import com.university.restaurant.model.staff.Waiter;
 import com.university.restaurant.repository.InMemoryOrderRepo;
 import com.university.restaurant.repository.InMemoryRestaurantAuditRepo;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics;
 import com.university.restaurant.service.concurrent.AsyncOrderService;
+import com.university.restaurant.service.concurrent.ExecutionMode;
+import com.university.restaurant.service.concurrent.KitchenIntake;
+import com.university.restaurant.service.concurrent.KitchenOverloadedException;
+import com.university.restaurant.service.concurrent.KitchenSchedulingPolicy;
 import com.university.restaurant.service.concurrent.KitchenService;
+import com.university.restaurant.service.concurrent.KitchenStation;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Tests for AsyncOrderService using CompletableFuture.
@@ -75,6 +87,21 @@ class AsyncOrderServiceTest {
                    order.getStatus() == OrderStatus.PENDING);
     }
 
+    @Test
+    void kitchenStatusChanges_shouldBePublishedToListeners() throws ExecutionException, InterruptedException, TimeoutException {
+        List<OrderStatus> transitions = new CopyOnWriteArrayList<>();
+        service.addOrderEventListener((order, from, to) -> transitions.add(to));
+        List<MenuItem> items = List.of(
+            new Entree("e1", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 30)
+        );
+
+        Order order = service.placeOrderAsync(waiter, "2", items).get(5, TimeUnit.SECONDS);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> transitions.contains(OrderStatus.READY));
+        assertEquals(List.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.READY), transitions);
+        assertEquals(OrderStatus.READY, order.getStatus());
+    }
+
     @Test
     void multipleConcurrentOrders_shouldAllComplete() throws InterruptedException, ExecutionException, TimeoutException {
         int numOrders = 10;
@@ -139,4 +166,96 @@ class AsyncOrderServiceTest {
         assertNotNull(f4.get());
         assertNotNull(f5.get());
     }
+
+    @Test
+    void virtualMode_shouldRunPipelineAndKitchen() throws ExecutionException, InterruptedException, TimeoutException {
+        assumeTrue(ExecutionMode.virtualThreadsSupported(), "virtual threads need Java 21");
+        KitchenService virtualKitchen = new KitchenService(3, new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.VIRTUAL);
+        AsyncOrderService virtualService = new AsyncOrderService(
+            new InMemoryOrderRepo(),
+            new InMemoryRestaurantAuditRepo(),
+            virtualKitchen,
+            ExecutionMode.VIRTUAL
+        );
+        try {
+            List<MenuItem> items = List.of(
+                new Entree("e1", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 30)
+            );
+
+            Order order = virtualService.placeOrderAsync(waiter, "4", items).get(5, TimeUnit.SECONDS);
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> order.getStatus() == OrderStatus.READY);
+            assertEquals(ExecutionMode.VIRTUAL, virtualKitchen.getExecutionMode());
+            assertEquals(ExecutionMode.VIRTUAL, virtualService.getExecutionMode());
+        } finally {
+            virtualService.shutdown();
+            virtualKitchen.shutdown();
+        }
+    }
+
+    @Test
+    void overloadedKitchen_shouldFailWithRetryEstimate() throws ExecutionException, InterruptedException, TimeoutException {
+        KitchenService smallKitchen = new KitchenService(1, new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.PLATFORM,
+                new KitchenIntake(1, KitchenIntake.Overflow.REJECT, Duration.ZERO));
+        InMemoryOrderRepo repo = new InMemoryOrderRepo();
+        InMemoryRestaurantAuditRepo audits = new InMemoryRestaurantAuditRepo();
+        AsyncOrderService smallService = new AsyncOrderService(repo, audits, smallKitchen);
+        try {
+            List<MenuItem> items = List.of(
+                new Entree("e1", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 30)
+            );
+            smallService.placeOrderAsync(waiter, "1", items).get(5, TimeUnit.SECONDS);
+            await().atMost(2, TimeUnit.SECONDS).until(() -> smallKitchen.getQueueSize() == 0);
+            smallService.placeOrderAsync(waiter, "2", items).get(5, TimeUnit.SECONDS);
+
+            CompletableFuture<Order> rejected = smallService.placeOrderAsync(waiter, "3", items);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            KitchenOverloadedException overloaded = assertInstanceOf(KitchenOverloadedException.class, e.getCause());
+            assertFalse(overloaded.getRetryAfter().isNegative());
+            List<Order> cancelled = repo.findByStatus(OrderStatus.CANCELLED);
+            assertEquals(1, cancelled.size());
+            String cancelledId = cancelled.get(0).getId().toString();
+            assertEquals(1, audits.all().stream()
+                    .filter(entry -> entry.getEntityId().equals(cancelledId) && entry.getDetails().contains("kitchen overloaded"))
+                    .count());
+            assertTrue(audits.verifyChain());
+        } finally {
+            smallService.shutdown();
+            smallKitchen.shutdown();
+        }
+    }
+
+    @Test
+    void shedOrder_shouldBeSavedAndPublishedAsCancelled() throws ExecutionException, InterruptedException, TimeoutException {
+        KitchenService sheddingKitchen = new KitchenService(Map.of(KitchenStation.GRILL, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.shortestPrepFirst(), ExecutionMode.PLATFORM,
+                new KitchenIntake(1, KitchenIntake.Overflow.SHED, Duration.ZERO));
+        InMemoryOrderRepo repo = new InMemoryOrderRepo();
+        AsyncOrderService sheddingService = new AsyncOrderService(repo, new InMemoryRestaurantAuditRepo(), sheddingKitchen);
+        List<Order> cancelled = new CopyOnWriteArrayList<>();
+        sheddingService.addOrderEventListener((order, from, to) -> {
+            if (to == OrderStatus.CANCELLED) {
+                cancelled.add(order);
+            }
+        });
+        try {
+            List<MenuItem> slow = List.of(new Entree("e1", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 40));
+            List<MenuItem> quick = List.of(new Entree("e2", "Salad", "desc", 9.0, DietaryType.REGULAR, List.of("egg"), 5));
+            sheddingService.placeOrderAsync(waiter, "1", slow).get(5, TimeUnit.SECONDS);
+            await().atMost(2, TimeUnit.SECONDS).until(() -> sheddingKitchen.getQueueSize() == 0);
+            Order shed = sheddingService.placeOrderAsync(waiter, "2", slow).get(5, TimeUnit.SECONDS);
+
+            sheddingService.placeOrderAsync(waiter, "3", quick).get(5, TimeUnit.SECONDS);
+
+            assertEquals(List.of(shed), cancelled);
+            assertEquals(OrderStatus.CANCELLED, shed.getStatus());
+            assertEquals(List.of(shed), repo.findByStatus(OrderStatus.CANCELLED));
+        } finally {
+            sheddingService.shutdown();
+            sheddingKitchen.shutdown();
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package com.university.restaurant.concurrent;
+
+import com.university.restaurant.repository.AuditPipeline;
+import com.university.restaurant.repository.InMemoryRestaurantAuditRepo;
+import com.university.restaurant.repository.RestaurantAuditEntry;
+import com.university.restaurant.repository.RestaurantAuditLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the single-writer audit pipeline.
+ */
+class AuditPipelineTest {
+
+    private InMemoryRestaurantAuditRepo store;
+    private AuditPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRestaurantAuditRepo();
+        pipeline = new AuditPipeline(store, 64, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void concurrentAppends_shouldProduceValidChain() throws InterruptedException {
+        int numThreads = 8;
+        int appendsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        for (int i = 0; i < numThreads; i++) {
+            final String user = "u" + i;
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < appendsPerThread; j++) {
+                        pipeline.appendChained(user, "Manager", "TEST", "Thing", "id-" + j, "n=" + j);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(numThreads * appendsPerThread, pipeline.all().size());
+        assertTrue(pipeline.verifyChain());
+        assertEquals(store.tailHash(), pipeline.tailHash());
+    }
+
+    @Test
+    void submit_shouldCompleteWithChainedEntry() throws Exception {
+        RestaurantAuditEntry first = pipeline.submit("u1", "Manager", "A", "T", "1", "d").get(5, TimeUnit.SECONDS);
+        RestaurantAuditEntry second = pipeline.submit("u1", "Manager", "B", "T", "2", "d").get(5, TimeUnit.SECONDS);
+
+        assertEquals("GENESIS", first.getPrevHash());
+        assertEquals(first.getHash(), second.getPrevHash());
+        assertEquals(List.of(first, second), store.all());
+    }
+
+    @Test
+    void append_withStalePrevHash_shouldBeRechained() {
+        String stale = pipeline.tailHash();
+        pipeline.append(new RestaurantAuditEntry("u1", "Manager", "A", "T", "1", "d", stale));
+        pipeline.append(new RestaurantAuditEntry("u2", "Manager", "B", "T", "2", "d", stale));
+
+        List<RestaurantAuditEntry> all = pipeline.all();
+        assertEquals(2, all.size());
+        assertEquals(all.get(0).getHash(), all.get(1).getPrevHash());
+        assertTrue(pipeline.verifyChain());
+    }
+
+    @Test
+    void writes_shouldBeBatched() throws Exception {
+        BatchCountingRepo counting = new BatchCountingRepo();
+        try (AuditPipeline batched = new AuditPipeline(counting, 256, 32)) {
+            for (int i = 0; i < 200; i++) {
+                batched.appendChained("u1", "Manager", "A", "T", "" + i, "d");
+            }
+            batched.flush();
+
+            assertEquals(200, counting.delegate.all().size());
+            assertTrue(counting.largestBatch <= 32);
+            assertTrue(counting.batches <= 200);
+        }
+    }
+
+    @Test
+    void failedWrite_shouldFailFutureAndKeepChainFromLastWrittenEntry() throws Exception {
+        FailingRepo failing = new FailingRepo();
+        try (AuditPipeline p = new AuditPipeline(failing, 16, 1)) {
+            RestaurantAuditEntry ok = p.submit("u1", "Manager", "A", "T", "1", "d").get(5, TimeUnit.SECONDS);
+
+            failing.fail.set(true);
+            CompletableFuture<RestaurantAuditEntry> lost = p.submit("u1", "Manager", "B", "T", "2", "d");
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> lost.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, ex.getCause());
+
+            failing.fail.set(false);
+            RestaurantAuditEntry next = p.submit("u1", "Manager", "C", "T", "3", "d").get(5, TimeUnit.SECONDS);
+            assertEquals(ok.getHash(), next.getPrevHash());
+            assertTrue(p.verifyChain());
+        }
+    }
+
+    @Test
+    void transientWriteFailure_shouldBeRetried() {
+        FailingRepo failing = new FailingRepo();
+        failing.transientFailures.set(2);
+        try (AuditPipeline p = new AuditPipeline(failing, 16, 4)) {
+            p.appendChained("u1", "Manager", "A", "T", "1", "d");
+            p.flush();
+
+            assertEquals(1, failing.all().size());
+            assertTrue(p.verifyChain());
+        }
+    }
+
+    @Test
+    void failingTailLookup_shouldNotStopWriter() throws Exception {
+        FailingRepo failing = new FailingRepo();
+        failing.failTail.set(true);
+        try (AuditPipeline p = new AuditPipeline(failing, 4, 1)) {
+            CompletableFuture<RestaurantAuditEntry> lost = p.submit("u1", "Manager", "A", "T", "1", "d");
+            assertThrows(ExecutionException.class, () -> lost.get(5, TimeUnit.SECONDS));
+
+            // The writer is still running: later records are written once the store recovers
+            failing.failTail.set(false);
+            for (int i = 0; i < 8; i++) {
+                p.appendChained("u1", "Manager", "B", "T", "" + i, "d");
+            }
+            p.flush();
+            assertEquals(8, failing.all().size());
+        }
+    }
+
+    @Test
+    void submitAfterClose_shouldThrow() {
+        pipeline.appendChained("u1", "Manager", "A", "T", "1", "d");
+        pipeline.close();
+
+        assertEquals(1, store.all().size());
+        assertThrows(IllegalStateException.class, () ->
+                pipeline.appendChained("u1", "Manager", "B", "T", "2", "d"));
+    }
+
+    @Test
+    void constructor_withInvalidCapacity_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new AuditPipeline(store, 100, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AuditPipeline(store, 64, 0));
+    }
+
+    private static final class BatchCountingRepo implements RestaurantAuditLogRepository {
+        final InMemoryRestaurantAuditRepo delegate = new InMemoryRestaurantAuditRepo();
+        volatile int batches;
+        volatile int largestBatch;
+
+        @Override public void append(RestaurantAuditEntry entry) { delegate.append(entry); }
+        @Override public List<RestaurantAuditEntry> all() { return delegate.all(); }
+        @Override public boolean verifyChain() { return delegate.verifyChain(); }
+        @Override public String tailHash() { return delegate.tailHash(); }
+
+        @Override
+        public void appendAll(List<RestaurantAuditEntry> entries) {
+            batches++;
+            largestBatch = Math.max(largestBatch, entries.size());
+            delegate.appendAll(entries);
+        }
+    }
+
+    private static final class FailingRepo implements RestaurantAuditLogRepository {
+        final InMemoryRestaurantAuditRepo delegate = new InMemoryRestaurantAuditRepo();
+        final AtomicBoolean fail = new AtomicBoolean();
+        final AtomicBoolean failTail = new AtomicBoolean();
+        final AtomicInteger transientFailures = new AtomicInteger();
+
+        @Override public void append(RestaurantAuditEntry entry) { delegate.append(entry); }
+        @Override public List<RestaurantAuditEntry> all() { return delegate.all(); }
+        @Override public boolean verifyChain() { return delegate.verifyChain(); }
+
+        @Override
+        public String tailHash() {
+            if (failTail.get()) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return delegate.tailHash();
+        }
+
+        @Override
+        public void appendAll(List<RestaurantAuditEntry> entries) {
+            if (fail.get() || transientFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            delegate.appendAll(entries);
+        }
+    }
+}
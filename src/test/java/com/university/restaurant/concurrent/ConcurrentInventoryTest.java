@@ -1,36 +1,43 @@
 package com.university.restaurant.concurrent;
 
 import com.university.restaurant.model.inventory.InventoryItem;
+import com.university.restaurant.model.menu.DietaryType;
+import com.university.restaurant.model.menu.Entree;
+import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.staff.Manager;
-import com.university.restaurant.repository.InMemoryInventoryRepo;
-import com.university.restaurant.repository.InMemoryMenuRepo;
+import com.university.restaurant.repository.ConcurrentInventoryRepo;
+import com.university.restaurant.repository.ConcurrentMenuRepo;
 import com.university.restaurant.repository.InMemoryRestaurantAuditRepo;
 import com.university.restaurant.service.concurrent.ConcurrentInventoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Concurrency tests for InventoryService using StampedLock.
+ * Concurrency tests for InventoryService using striped StampedLocks.
  */
 class ConcurrentInventoryTest {
 
     private ConcurrentInventoryService service;
-    private InMemoryInventoryRepo repo;
+    private ConcurrentInventoryRepo repo;
+    private InMemoryRestaurantAuditRepo audits;
     private Manager manager;
     private static final int INITIAL_STOCK = 1000;
 
     @BeforeEach
     void setUp() {
-        repo = new InMemoryInventoryRepo();
+        repo = new ConcurrentInventoryRepo();
+        audits = new InMemoryRestaurantAuditRepo();
         service = new ConcurrentInventoryService(
             repo,
-            new InMemoryMenuRepo(),
-            new InMemoryRestaurantAuditRepo()
+            new ConcurrentMenuRepo(),
+            audits
         );
         manager = new Manager("m1", "Alice");
 
@@ -73,6 +80,93 @@ class ConcurrentInventoryTest {
             "Stock level should be consistent after concurrent reductions");
     }
 
+    @Test
+    void concurrentReduceStock_onUnrelatedItems_shouldKeepEachItemConsistent() throws InterruptedException {
+        int numItems = 8;
+        int numThreads = 16;
+        int reductionsPerThread = 50;
+        for (int i = 0; i < numItems; i++) {
+            repo.save(new InventoryItem("other-" + i, "Other " + i, "kg", INITIAL_STOCK, 10, 2000));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        for (int i = 0; i < numThreads; i++) {
+            final String itemId = "other-" + (i % numItems);
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < reductionsPerThread; j++) {
+                        service.reduceStock(manager, itemId, 1);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        int perItem = (numThreads / numItems) * reductionsPerThread;
+        for (int i = 0; i < numItems; i++) {
+            assertEquals(INITIAL_STOCK - perItem, service.getStockLevel("other-" + i));
+        }
+        assertEquals(numThreads * reductionsPerThread, audits.all().size());
+        assertTrue(audits.verifyChain());
+    }
+
+    @Test
+    void concurrentReserveIngredients_shouldNeverOversellOrDeadlock() throws InterruptedException {
+        repo.save(new InventoryItem("inv-beef", "beef", "kg", 100, 10, 200));
+        repo.save(new InventoryItem("inv-bun", "bun", "pcs", 100, 10, 200));
+        Entree burger = new Entree("E1", "Burger", "desc", 10.0, DietaryType.REGULAR,
+                List.of("beef", "bun"), 10);
+        Entree reversed = new Entree("E2", "Bun Burger", "desc", 10.0, DietaryType.REGULAR,
+                List.of("bun", "beef"), 10);
+
+        int numThreads = 10;
+        int ordersPerThread = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        AtomicInteger reserved = new AtomicInteger();
+
+        for (int i = 0; i < numThreads; i++) {
+            final Entree item = i % 2 == 0 ? burger : reversed;
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < ordersPerThread; j++) {
+                        Order order = new Order(1, "w1");
+                        order.addItem(item);
+                        try {
+                            service.reserveIngredients(manager, order);
+                            reserved.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            // Out of stock
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(100, reserved.get());
+        assertEquals(0, service.getStockLevel("inv-beef"));
+        assertEquals(0, service.getStockLevel("inv-bun"));
+        assertEquals(100, audits.all().size());
+        assertTrue(audits.verifyChain());
+    }
+
+    @Test
+    void constructor_withNonPositiveStripeCount_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new ConcurrentInventoryService(repo, new ConcurrentMenuRepo(), audits, 0));
+    }
+
     @Test
     void concurrentIncreaseStock_shouldMaintainConsistency() throws InterruptedException {
         // First reduce stock to create room for increases
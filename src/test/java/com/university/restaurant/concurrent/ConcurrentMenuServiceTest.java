@@ -0,0 +1,107 @@
+package com.university.restaurant.concurrent;
+
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.MenuCategory;
+import com.university.restaurant.model.menu.MenuItem;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.model.staff.Waiter;
+import com.university.restaurant.repository.ConcurrentMenuRepo;
+import com.university.restaurant.repository.InMemoryRestaurantAuditRepo;
+import com.university.restaurant.service.concurrent.ConcurrentMenuService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ConcurrentMenuService backed by a concurrent repository.
+ */
+class ConcurrentMenuServiceTest {
+
+    private ConcurrentMenuService service;
+    private ConcurrentMenuRepo repo;
+    private InMemoryRestaurantAuditRepo audits;
+    private Manager manager;
+
+    @BeforeEach
+    void setUp() {
+        repo = new ConcurrentMenuRepo();
+        audits = new InMemoryRestaurantAuditRepo();
+        service = new ConcurrentMenuService(repo, audits);
+        manager = new Manager("m1", "Alice");
+    }
+
+    @Test
+    void addMenuItem_withWaiterRole_shouldThrowSecurityException() {
+        assertThrows(SecurityException.class, () ->
+                service.addMenuItem(new Waiter("w1", "Bob"), new Drink("d1", "Coke", "desc", 2.99, false)));
+        assertTrue(repo.findByCategory(MenuCategory.DRINK).isEmpty());
+    }
+
+    @Test
+    void concurrentAddsAndReads_shouldKeepIndexesAndAuditChainConsistent() throws InterruptedException {
+        int numThreads = 16;
+        int itemsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        CyclicBarrier barrier = new CyclicBarrier(numThreads);
+
+        for (int i = 0; i < numThreads; i++) {
+            final int threadNum = i;
+            executor.submit(() -> {
+                try {
+                    barrier.await();
+                    for (int j = 0; j < itemsPerThread; j++) {
+                        service.addMenuItem(manager,
+                                new Drink("d-" + threadNum + "-" + j, "Drink", "desc", 2.99, false));
+                        service.listMenuAvailableItems();
+                    }
+                } catch (Exception e) {
+                    fail(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(15, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(numThreads * itemsPerThread, repo.findByCategory(MenuCategory.DRINK).size());
+        assertEquals(numThreads * itemsPerThread, service.listMenuAvailableItems().size());
+        assertEquals(numThreads * itemsPerThread, audits.all().size());
+        assertTrue(audits.verifyChain());
+    }
+
+    @Test
+    void concurrentPriceUpdates_shouldLeaveSingleIndexedItem() throws InterruptedException {
+        service.addMenuItem(manager, new Drink("d1", "Coke", "desc", 2.99, false));
+
+        int numThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        for (int i = 0; i < numThreads; i++) {
+            final double price = 3.0 + i;
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < 20; j++) {
+                        service.updatePrice(manager, "d1", price);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(1, repo.findByCategory(MenuCategory.DRINK).size());
+        MenuItem item = repo.findById("d1").orElseThrow();
+        assertTrue(item.calculatePrice() >= 3.0);
+        assertTrue(audits.verifyChain());
+    }
+}
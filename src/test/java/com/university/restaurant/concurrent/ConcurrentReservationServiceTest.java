@@ -4,7 +4,7 @@ import com.university.restaurant.model.reservation.Reservation;
 import com.university.restaurant.model.reservation.ReservationStatus;
 import com.university.restaurant.model.staff.Manager;
 import com.university.restaurant.model.staff.Waiter;
-import com.university.restaurant.repository.InMemoryReservationRepo;
+import com.university.restaurant.repository.ConcurrentReservationRepo;
 import com.university.restaurant.repository.InMemoryRestaurantAuditRepo;
 import com.university.restaurant.service.concurrent.ConcurrentReservationService;
 
@@ -19,22 +19,21 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Tests for ConcurrentReservationService with StampedLock.
+ * Tests for ConcurrentReservationService backed by a concurrent repository.
  */
 class ConcurrentReservationServiceTest {
 
     private ConcurrentReservationService service;
-    private InMemoryReservationRepo repo;
+    private ConcurrentReservationRepo repo;
+    private InMemoryRestaurantAuditRepo audits;
     private Manager manager;
     private Waiter waiter;
 
     @BeforeEach
     void setUp() {
-        repo = new InMemoryReservationRepo();
-        service = new ConcurrentReservationService(
-                repo,
-                new InMemoryRestaurantAuditRepo()
-        );
+        repo = new ConcurrentReservationRepo();
+        audits = new InMemoryRestaurantAuditRepo();
+        service = new ConcurrentReservationService(repo, audits);
         manager = new Manager("m1", "Alice");
         waiter = new Waiter("w1", "Bob");
     }
@@ -89,6 +88,11 @@ class ConcurrentReservationServiceTest {
 
         // All IDs should be unique
         assertEquals(numThreads * reservationsPerThread, createdIds.size());
+        assertEquals(numThreads * reservationsPerThread, repo.findActive().size());
+
+        // Every audit entry must chain to a distinct predecessor
+        assertEquals(numThreads * reservationsPerThread, audits.all().size());
+        assertTrue(audits.verifyChain());
     }
 
     @Test
@@ -152,6 +156,8 @@ class ConcurrentReservationServiceTest {
         for (Reservation res : reservations) {
             assertEquals(ReservationStatus.CANCELLED, res.getStatus());
         }
+        assertTrue(repo.findActive().isEmpty());
+        assertTrue(audits.verifyChain());
     }
 
     @Test
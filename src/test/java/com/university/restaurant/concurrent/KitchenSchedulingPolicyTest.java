@@ -0,0 +1,72 @@
+package com.university.restaurant.concurrent;
+
+import com.university.restaurant.model.menu.Dessert;
+import com.university.restaurant.model.menu.DietaryType;
+import com.university.restaurant.model.menu.Entree;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.service.concurrent.KitchenSchedulingPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for kitchen scheduling policies.
+ */
+class KitchenSchedulingPolicyTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static Order entreeOrder(int prepMinutes) {
+        Order order = new Order(1, "w1");
+        order.addItem(new Entree("e1", "Roast", "desc", 30.0, DietaryType.REGULAR, List.of("beef"), prepMinutes));
+        return order;
+    }
+
+    private static Order dessertOrder() {
+        Order order = new Order(2, "w1");
+        order.addItem(new Dessert("s1", "Tiramisu", "desc", 6.0, DietaryType.VEGETARIAN, List.of()));
+        order.addItem(new Dessert("s2", "Ice Cream", "desc", 4.0, DietaryType.VEGETARIAN, List.of()));
+        return order;
+    }
+
+    @Test
+    void fifo_shouldPreferEarlierSubmission() {
+        KitchenSchedulingPolicy fifo = KitchenSchedulingPolicy.fifo();
+
+        assertTrue(fifo.priority(entreeOrder(40), 0) < fifo.priority(dessertOrder(), SECOND));
+    }
+
+    @Test
+    void shortestPrepFirst_shouldLetDessertsOvertakeLongEntrees() {
+        KitchenSchedulingPolicy spf = KitchenSchedulingPolicy.shortestPrepFirst();
+
+        assertTrue(spf.priority(dessertOrder(), SECOND) < spf.priority(entreeOrder(40), 0));
+        assertEquals(TimeUnit.MINUTES.toNanos(40), KitchenSchedulingPolicy.prepNanos(entreeOrder(40)));
+        assertEquals(TimeUnit.MINUTES.toNanos(2), KitchenSchedulingPolicy.prepNanos(dessertOrder()));
+    }
+
+    @Test
+    void earliestDeadlineFirst_shouldUsePerOrderSla() {
+        KitchenSchedulingPolicy edf = KitchenSchedulingPolicy.earliestDeadlineFirst(
+                order -> order.getTableNumber() == 1 ? Duration.ofMinutes(45) : Duration.ofMinutes(10));
+
+        // Submitted a minute later, but due 34 minutes sooner
+        assertTrue(edf.priority(dessertOrder(), 60 * SECOND) < edf.priority(entreeOrder(40), 0));
+    }
+
+    @Test
+    void aging_shouldEventuallyFavourLongWaitingOrders() {
+        KitchenSchedulingPolicy aged = KitchenSchedulingPolicy.shortestPrepFirst().withAging(1.0);
+        long entree = aged.priority(entreeOrder(40), 0);
+
+        // A dessert arriving shortly after still goes first ...
+        assertTrue(aged.priority(dessertOrder(), 60 * SECOND) < entree);
+        // ... but one arriving after the entree has waited its prep time does not
+        assertTrue(aged.priority(dessertOrder(), 40 * 60 * SECOND) > entree);
+        assertThrows(IllegalArgumentException.class, () -> aged.withAging(-1));
+    }
+}
@@ -1,16 +1,35 @@
 package com.university.restaurant.concurrent;
 
+import com.university.restaurant.model.menu.Dessert;
+import com.university.restaurant.model.menu.DietaryType;
 import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.Entree;
+import com.university.restaurant.model.menu.MenuCategory;
 import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.model.staff.Waiter;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics;
+import com.university.restaurant.service.concurrent.ExecutionMode;
+import com.university.restaurant.service.concurrent.KitchenBatching;
+import com.university.restaurant.service.concurrent.KitchenIntake;
+import com.university.restaurant.service.concurrent.KitchenOverloadedException;
+import com.university.restaurant.service.concurrent.KitchenSchedulingPolicy;
 import com.university.restaurant.service.concurrent.KitchenService;
+import com.university.restaurant.service.concurrent.KitchenStation;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.*;
 
 import static org.awaitility.Awaitility.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Tests for Kitchen Worker Thread Pool.
@@ -42,6 +61,291 @@ class KitchenServiceTest {
         assertEquals(OrderStatus.READY, order.getStatus());
     }
 
+    @Test
+    void processedOrder_shouldRecordLatencyPerWorkerAndCategory() {
+        KitchenLatencyMetrics metrics = new KitchenLatencyMetrics();
+        kitchenService = new KitchenService(1, metrics);
+
+        Order order = new Order(1, "w1");
+        order.addItem(new Entree("e1", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 30));
+        order.addItem(new Drink("d1", "Coke", "desc", 2.99, false));
+        kitchenService.submitOrder(order);
+
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> order.getStatus() == OrderStatus.READY);
+
+        KitchenLatencyMetrics.Report report = metrics.latency(new Manager("m1", "Alice"));
+        KitchenLatencyMetrics.Breakdown processing = report.stages().get(KitchenLatencyMetrics.Stage.PROCESSING);
+        assertEquals(2, processing.total().count());
+        assertEquals(2, processing.byWorker().get(1).count());
+        assertTrue(processing.byCategory().get(MenuCategory.ENTREE).valueAtPercentile(50) >= 500_000_000L);
+        assertEquals(2, report.stages().get(KitchenLatencyMetrics.Stage.QUEUE_WAIT).total().count());
+        assertEquals(1, report.stages().get(KitchenLatencyMetrics.Stage.ORDER_TO_READY).total().count());
+    }
+
+    @Test
+    void shortestPrepFirst_shouldPrepareQuickEntreeBeforeEarlierLongEntree() {
+        kitchenService = new KitchenService(1, new KitchenLatencyMetrics(), KitchenSchedulingPolicy.shortestPrepFirst());
+        List<UUID> ready = new CopyOnWriteArrayList<>();
+        kitchenService.addOrderEventListener((order, from, to) -> ready.add(order.getId()));
+
+        Order busy = new Order(1, "w1");
+        busy.addItem(new Entree("e1", "Burger", "desc", 12.0, DietaryType.REGULAR, List.of("beef"), 10));
+        Order slow = new Order(2, "w1");
+        slow.addItem(new Entree("e2", "Roast", "desc", 30.0, DietaryType.REGULAR, List.of("beef"), 40));
+        Order quick = new Order(3, "w1");
+        quick.addItem(new Entree("e3", "Salad", "desc", 8.0, DietaryType.VEGETARIAN, List.of("lettuce"), 5));
+
+        kitchenService.submitOrder(busy);
+        kitchenService.submitOrder(slow);
+        kitchenService.submitOrder(quick);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> ready.size() == 3);
+
+        assertTrue(ready.indexOf(quick.getId()) < ready.indexOf(slow.getId()));
+    }
+
+    @Test
+    void mixedOrder_shouldCookItemsInParallelAtTheirStations() {
+        kitchenService = new KitchenService(3);
+        List<OrderStatus> events = new CopyOnWriteArrayList<>();
+        kitchenService.addOrderEventListener((order, from, to) -> events.add(to));
+
+        Order order = new Order(1, "w1");
+        order.addItem(new Entree("e1", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 30));
+        order.addItem(new Dessert("s1", "Tiramisu", "desc", 6.0, DietaryType.VEGETARIAN, List.of()));
+        order.addItem(new Drink("d1", "Coke", "desc", 2.99, false));
+        kitchenService.submitOrder(order);
+
+        // Three 500 ms items, one per station: well under the 1.5 s a single cook would need
+        await().atMost(Duration.ofMillis(1400))
+               .until(() -> order.getStatus() == OrderStatus.READY);
+
+        assertEquals(List.of(OrderStatus.READY), events);
+    }
+
+    @Test
+    void idleWorkers_shouldStealFromBusyStations() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.BAR, 2),
+                new KitchenLatencyMetrics(), KitchenSchedulingPolicy.fifo());
+
+        Order order = new Order(1, "w1");
+        for (int i = 0; i < 4; i++) {
+            order.addItem(new Entree("e" + i, "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 30));
+        }
+        kitchenService.submitOrder(order);
+
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> order.getStatus() == OrderStatus.READY);
+
+        assertEquals(4, kitchenService.getStolenTickets());
+        assertEquals(0, kitchenService.getQueueSize(KitchenStation.GRILL));
+    }
+
+    @Test
+    void virtualMode_shouldLimitEachStationToItsSlots() {
+        assumeTrue(ExecutionMode.virtualThreadsSupported(), "virtual threads need Java 21");
+        KitchenLatencyMetrics metrics = new KitchenLatencyMetrics();
+        kitchenService = new KitchenService(Map.of(KitchenStation.GRILL, 2), metrics,
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.VIRTUAL);
+        assertEquals(ExecutionMode.VIRTUAL, kitchenService.getExecutionMode());
+
+        Order order = new Order(1, "w1");
+        for (int i = 0; i < 4; i++) {
+            order.addItem(new Entree("e" + i, "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 30));
+        }
+        order.addItem(new Drink("d1", "Coke", "desc", 2.99, false));
+        long start = System.nanoTime();
+        kitchenService.submitOrder(order);
+
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> order.getStatus() == OrderStatus.READY);
+
+        // Four entrees on two grill slots take two rounds; the drink gets the bar's single slot
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(0, kitchenService.getQueueSize());
+        // Grill slots are 1 and 2, pastry's is 3 and the bar's is 4
+        KitchenLatencyMetrics.Breakdown processing = metrics.latency(new Manager("m1", "Alice"))
+                .stages().get(KitchenLatencyMetrics.Stage.PROCESSING);
+        assertEquals(Set.of(1, 2, 4), processing.byWorker().keySet());
+    }
+
+    @Test
+    void fullIntake_shouldRejectWithRetryEstimate() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.GRILL, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.PLATFORM,
+                new KitchenIntake(2, KitchenIntake.Overflow.REJECT, Duration.ZERO));
+
+        kitchenService.submitOrder(entreeOrder(1, 30));
+        await().atMost(2, TimeUnit.SECONDS).until(() -> kitchenService.getQueueSize() == 0);
+        kitchenService.submitOrder(entreeOrder(2, 30));
+        kitchenService.submitOrder(entreeOrder(3, 30));
+
+        KitchenOverloadedException e = assertThrows(KitchenOverloadedException.class,
+                () -> kitchenService.submitOrder(entreeOrder(4, 30)));
+
+        // One ticket too many for a single cook: about one preparation time
+        assertFalse(e.getRetryAfter().isZero());
+        KitchenService.IntakeStats stats = kitchenService.getIntakeStats();
+        assertEquals(2, stats.queuedTickets());
+        assertEquals(3, stats.admittedOrders());
+        assertEquals(1, stats.rejectedOrders());
+    }
+
+    @Test
+    void blockingIntake_shouldAdmitOnceRoomFrees() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.GRILL, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.PLATFORM,
+                new KitchenIntake(1, KitchenIntake.Overflow.BLOCK, Duration.ofSeconds(3)));
+
+        kitchenService.submitOrder(entreeOrder(1, 30));
+        await().atMost(2, TimeUnit.SECONDS).until(() -> kitchenService.getQueueSize() == 0);
+        kitchenService.submitOrder(entreeOrder(2, 30));
+
+        // Waits for order 2 to start, when order 1 is done
+        long start = System.nanoTime();
+        Order order = entreeOrder(3, 30);
+        kitchenService.submitOrder(order);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> order.getStatus() == OrderStatus.READY);
+        assertEquals(0, kitchenService.getIntakeStats().rejectedOrders());
+    }
+
+    @Test
+    void sheddingIntake_shouldCancelLowerPriorityQueuedOrders() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.GRILL, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.shortestPrepFirst(), ExecutionMode.PLATFORM,
+                new KitchenIntake(1, KitchenIntake.Overflow.SHED, Duration.ZERO));
+
+        kitchenService.submitOrder(entreeOrder(1, 30));
+        await().atMost(2, TimeUnit.SECONDS).until(() -> kitchenService.getQueueSize() == 0);
+        Order slow = entreeOrder(2, 40);
+        kitchenService.submitOrder(slow);
+
+        Order quick = entreeOrder(3, 5);
+        kitchenService.submitOrder(quick);
+
+        assertEquals(OrderStatus.CANCELLED, slow.getStatus());
+        // Everything queued now matters more than another slow order
+        assertThrows(KitchenOverloadedException.class, () -> kitchenService.submitOrder(entreeOrder(4, 40)));
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> quick.getStatus() == OrderStatus.READY);
+        assertEquals(OrderStatus.CANCELLED, slow.getStatus());
+        assertEquals(1, kitchenService.getIntakeStats().shedOrders());
+        assertEquals(1, kitchenService.getIntakeStats().rejectedOrders());
+    }
+
+    @Test
+    void sheddingIntake_withTooSmallBacklog_shouldShedNothing() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.GRILL, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.shortestPrepFirst(), ExecutionMode.PLATFORM,
+                new KitchenIntake(4, KitchenIntake.Overflow.SHED, Duration.ZERO));
+
+        kitchenService.submitOrder(entreeOrder(1, 30));
+        await().atMost(2, TimeUnit.SECONDS).until(() -> kitchenService.getQueueSize() == 0);
+        kitchenService.submitOrder(entreeOrder(2, 5));
+        kitchenService.submitOrder(entreeOrder(3, 5));
+        Order slow = entreeOrder(4, 40);
+        kitchenService.submitOrder(slow);
+
+        // Needs three tickets; one is free and only the slow order ranks below it
+        Order big = new Order(5, "w1");
+        for (int i = 0; i < 3; i++) {
+            big.addItem(new Entree("e5", "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), 5));
+        }
+        assertThrows(KitchenOverloadedException.class, () -> kitchenService.submitOrder(big));
+
+        assertNotEquals(OrderStatus.CANCELLED, slow.getStatus());
+        assertEquals(0, kitchenService.getIntakeStats().shedOrders());
+        assertEquals(3, kitchenService.getQueueSize());
+        await().atMost(10, TimeUnit.SECONDS)
+               .until(() -> slow.getStatus() == OrderStatus.READY);
+    }
+
+    @Test
+    void intakeStats_shouldRequirePermission() {
+        kitchenService = new KitchenService(1);
+
+        assertThrows(SecurityException.class,
+                () -> kitchenService.getIntakeStats(new Waiter("w1", "Bob")));
+        assertEquals(0, kitchenService.getIntakeStats(new Manager("m1", "Alice")).admittedOrders());
+    }
+
+    @Test
+    void batching_shouldPrepareSameItemAcrossOrdersTogether() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.GRILL, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.PLATFORM, KitchenIntake.unbounded(),
+                new KitchenBatching(Duration.ofMillis(300), 8, Duration.ofMillis(400), Duration.ofMillis(100)));
+
+        Order[] orders = new Order[5];
+        long start = System.nanoTime();
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = new Order(i + 1, "w1");
+            orders[i].addItem(new Entree("e1", "Burger", "desc", 12.0, DietaryType.REGULAR, List.of("beef"), 10));
+            kitchenService.submitOrder(orders[i]);
+        }
+
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> List.of(orders).stream().allMatch(o -> o.getStatus() == OrderStatus.READY));
+
+        // One batch of five takes 900 ms; five single burgers on one grill would take 2.5 s
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(2000));
+        assertEquals(1, kitchenService.getPreparedBatches());
+        assertEquals(5, kitchenService.getPreparedTickets());
+    }
+
+    @Test
+    void batching_withFailingListener_shouldStillCompleteEveryOrder() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.GRILL, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.PLATFORM, KitchenIntake.unbounded(),
+                new KitchenBatching(Duration.ofMillis(200), 8, Duration.ofMillis(100), Duration.ofMillis(10)));
+        Order[] orders = new Order[3];
+        kitchenService.addOrderEventListener((order, from, to) -> {
+            if (order == orders[0]) {
+                throw new IllegalStateException("save failed");
+            }
+        });
+
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = new Order(i + 1, "w1");
+            orders[i].addItem(new Entree("e1", "Burger", "desc", 12.0, DietaryType.REGULAR, List.of("beef"), 10));
+            kitchenService.submitOrder(orders[i]);
+        }
+
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> List.of(orders).stream().allMatch(o -> o.getStatus() == OrderStatus.READY));
+        assertEquals(1, kitchenService.getPreparedBatches());
+    }
+
+    @Test
+    void batching_shouldStartNewBatchOnceFull() {
+        kitchenService = new KitchenService(Map.of(KitchenStation.BAR, 1), new KitchenLatencyMetrics(),
+                KitchenSchedulingPolicy.fifo(), ExecutionMode.PLATFORM, KitchenIntake.unbounded(),
+                new KitchenBatching(Duration.ofMillis(200), 2, Duration.ofMillis(100), Duration.ofMillis(50)));
+
+        Order order = new Order(1, "w1");
+        for (int i = 0; i < 3; i++) {
+            order.addItem(new Drink("d1", "Coke", "desc", 2.99, false));
+        }
+        order.addItem(new Drink("d2", "Lemonade", "desc", 3.49, false));
+        kitchenService.submitOrder(order);
+
+        await().atMost(5, TimeUnit.SECONDS)
+               .until(() -> order.getStatus() == OrderStatus.READY);
+
+        // Two cokes, then the third coke, then the lemonade
+        assertEquals(3, kitchenService.getPreparedBatches());
+        assertEquals(4, kitchenService.getPreparedTickets());
+    }
+
+    private static Order entreeOrder(int table, int prepMinutes) {
+        Order order = new Order(table, "w1");
+        order.addItem(new Entree("e" + table, "Steak", "desc", 20.0, DietaryType.REGULAR, List.of("beef"), prepMinutes));
+        return order;
+    }
+
     @Test
     void multipleOrders_shouldBeProcessedConcurrently() {
         kitchenService = new KitchenService(5);
@@ -0,0 +1,138 @@
+package com.university.restaurant.infrastructure.adapter;
+
+import com.university.restaurant.infrastructure.jpa.AuditLinkView;
+import com.university.restaurant.infrastructure.jpa.AuditLogJpaRepository;
+import com.university.restaurant.repository.ChainVerification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the paginated chain verification against a fake audit table.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditLogJpaAdapterTest {
+
+    @Mock
+    private AuditLogJpaRepository jpaRepo;
+
+    private AuditLogJpaAdapter adapter;
+    private final List<AuditLinkView> table = new ArrayList<>();
+
+    private record Link(Long getId, String getPrevHash, String getHash) implements AuditLinkView {
+    }
+
+    @BeforeEach
+    void setUp() {
+        adapter = new AuditLogJpaAdapter(jpaRepo);
+
+        lenient().when(jpaRepo.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> page(inv.getArgument(0), Long.MAX_VALUE, inv.getArgument(1)));
+        lenient().when(jpaRepo.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(anyLong(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> page(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2)));
+        lenient().when(jpaRepo.findTopByIdLessThanEqualOrderByIdDesc(anyLong()))
+                .thenAnswer(inv -> {
+                    long id = inv.getArgument(0);
+                    AuditLinkView found = null;
+                    for (AuditLinkView row : table) {
+                        if (row.getId() <= id) found = row;
+                    }
+                    return found;
+                });
+        lenient().when(jpaRepo.findMinId()).thenAnswer(inv -> table.isEmpty() ? null : table.get(0).getId());
+        lenient().when(jpaRepo.findMaxId()).thenAnswer(inv -> table.isEmpty() ? null : table.get(table.size() - 1).getId());
+    }
+
+    private List<AuditLinkView> page(long afterId, long upToId, Pageable pageable) {
+        return table.stream()
+                .filter(row -> row.getId() > afterId && row.getId() <= upToId)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private void chain(int count) {
+        String prev = table.isEmpty() ? "GENESIS" : table.get(table.size() - 1).getHash();
+        long id = table.isEmpty() ? 1 : table.get(table.size() - 1).getId() + 1;
+        for (int i = 0; i < count; i++, id++) {
+            String hash = "h" + id;
+            table.add(new Link(id, prev, hash));
+            prev = hash;
+        }
+    }
+
+    private void breakAt(long id) {
+        for (int i = 0; i < table.size(); i++) {
+            if (table.get(i).getId() == id) {
+                table.set(i, new Link(id, "tampered", table.get(i).getHash()));
+            }
+        }
+    }
+
+    @Test
+    void verifyChain_shouldWalkAllPagesInIdOrder() {
+        chain(2500);
+        AtomicLong lastProgress = new AtomicLong();
+
+        ChainVerification result = adapter.verifyChain(100, lastProgress::set);
+
+        assertTrue(result.valid());
+        assertEquals(2500, result.entriesChecked());
+        assertEquals(2500, lastProgress.get());
+        verify(jpaRepo, times(26)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+        verify(jpaRepo, never()).findAllByOrderByTimestampDesc();
+    }
+
+    @Test
+    void forEachHash_shouldStreamEveryPageInIdOrder() {
+        chain(250);
+        List<String> hashes = new ArrayList<>();
+
+        adapter.forEachHash(100, hashes::add);
+
+        assertEquals(table.stream().map(AuditLinkView::getHash).toList(), hashes);
+        verify(jpaRepo, times(3)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void verifyChain_shouldReportFirstBrokenId() {
+        chain(500);
+        breakAt(321);
+        breakAt(400);
+
+        ChainVerification result = adapter.verifyChain(64, null);
+
+        assertFalse(result.valid());
+        assertEquals(321, result.firstBrokenAt());
+        assertFalse(adapter.verifyChain());
+    }
+
+    @Test
+    void verifyChainParallel_shouldCheckLinksAcrossRangeBoundaries() {
+        chain(1000);
+        assertTrue(adapter.verifyChainParallel(4, 50, null).valid());
+        assertEquals(1000, adapter.verifyChainParallel(4, 50, null).entriesChecked());
+
+        // 251 is the first row of the second range
+        breakAt(251);
+        breakAt(900);
+        ChainVerification result = adapter.verifyChainParallel(4, 50, null);
+        assertFalse(result.valid());
+        assertEquals(251, result.firstBrokenAt());
+    }
+
+    @Test
+    void verifyChainParallel_onEmptyTable_shouldSucceed() {
+        assertTrue(adapter.verifyChainParallel(4, 50, null).valid());
+    }
+}
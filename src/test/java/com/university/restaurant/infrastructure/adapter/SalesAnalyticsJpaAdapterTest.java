@@ -0,0 +1,109 @@
+package com.university.restaurant.infrastructure.adapter;
+
+import com.university.restaurant.infrastructure.entity.OrderEntity;
+import com.university.restaurant.infrastructure.entity.OrderItemEntity;
+import com.university.restaurant.infrastructure.entity.PaymentEntity;
+import com.university.restaurant.infrastructure.jpa.OrderJpaRepository;
+import com.university.restaurant.infrastructure.jpa.PaymentJpaRepository;
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.payment.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the aggregate queries against an embedded H2 database.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class SalesAnalyticsJpaAdapterTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private OrderJpaRepository orderRepo;
+
+    @Autowired
+    private PaymentJpaRepository paymentRepo;
+
+    private SalesAnalyticsJpaAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new SalesAnalyticsJpaAdapter(orderRepo, paymentRepo);
+
+        order(OrderStatus.PAID, NOON, NOON.plusMinutes(30), "Coke", "Coke", "Burger");
+        order(OrderStatus.PAID, NOON.minusDays(1), NOON.minusDays(1).plusHours(7), "Burger");
+        order(OrderStatus.SERVED, NOON, null, "Coke", "Fries");
+        order(OrderStatus.PENDING, NOON, null, "Fries", "Fries", "Fries");
+        em.flush();
+        em.clear();
+    }
+
+    private void order(OrderStatus status, LocalDateTime createdAt, LocalDateTime paidAt, String... items) {
+        OrderEntity order = new OrderEntity(UUID.randomUUID(), 1, "w1", status, createdAt.atOffset(ZoneOffset.UTC));
+        double total = 0;
+        for (String name : items) {
+            double price = name.equals("Burger") ? 10.0 : 2.5;
+            order.addItem(new OrderItemEntity(name.toLowerCase(), name, price, 1));
+            total += price;
+        }
+        order.setTotalAmount(total);
+        if (paidAt != null) {
+            PaymentEntity payment = new PaymentEntity(UUID.randomUUID().toString(), PaymentMethod.CASH, total, paidAt);
+            payment.setOrder(order);
+            order.setPayment(payment);
+        }
+        em.persist(order);
+    }
+
+    @Test
+    void unitsSoldByItem_shouldGroupInDatabase() {
+        Map<String, Long> sold = adapter.unitsSoldByItem(EnumSet.of(OrderStatus.SERVED, OrderStatus.PAID));
+
+        assertEquals(Map.of("Coke", 3L, "Burger", 2L, "Fries", 1L), sold);
+    }
+
+    @Test
+    void topSellingItems_shouldOrderAndLimitInDatabase() {
+        List<ItemSales> top = adapter.topSellingItems(EnumSet.of(OrderStatus.SERVED, OrderStatus.PAID), 2);
+
+        assertEquals(List.of(new ItemSales("Coke", 3, 0), new ItemSales("Burger", 2, 0)), top);
+        assertTrue(adapter.topSellingItems(EnumSet.of(OrderStatus.CANCELLED), 5).isEmpty());
+    }
+
+    @Test
+    void revenueQueries_shouldRespectWindows() {
+        LocalDate day = NOON.toLocalDate();
+
+        assertEquals(15.0, adapter.revenueOfOrdersCreatedBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay()), 1e-9);
+        assertEquals(15.0, adapter.paymentsBetween(NOON, NOON.plusHours(1)), 1e-9);
+        assertEquals(0.0, adapter.paymentsBetween(NOON, NOON.plusMinutes(30)), 1e-9);
+        assertEquals(25.0, adapter.paymentsBetween(NOON.minusDays(2), NOON.plusDays(1)), 1e-9);
+
+        double[] byHour = adapter.paymentsByHourOfDay(day.minusDays(1), day);
+        assertEquals(15.0, byHour[12], 1e-9);
+        assertEquals(10.0, byHour[19], 1e-9);
+        assertEquals(0.0, adapter.paymentsByHourOfDay(day.plusDays(1), day.plusDays(2))[12], 1e-9);
+    }
+}
@@ -5,6 +5,7 @@
 // ==================== ComboTest.java ====================
 package com.university.restaurant.model.menu;
 
+import com.university.restaurant.model.order.Order;
 import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.ArrayList;
@@ -155,4 +156,25 @@ class ComboTest {
         String expected = "Combo[C001: Special | $0.00 | Available]";
         assertEquals(expected, combo.toString());
     }
+
+    @Test
+    void testOrderIngredientRequirementsFlattenCombo() {
+        Entree burger = new Entree("E001", "Burger", "Beef", 10.00,
+                DietaryType.REGULAR, Arrays.asList("beef", "bun"), 15);
+        Entree slider = new Entree("E002", "Slider", "Mini", 6.00,
+                DietaryType.REGULAR, Arrays.asList("beef", "bun"), 10);
+        Drink soda = new Drink("DR001", "Soda", "Cola", 2.00, false);
+        Combo combo = new Combo("C001", "Meal Deal", "Burger, slider and drink",
+                Arrays.asList(burger, slider, soda), 10.0);
+
+        Order order = new Order(1, "w1");
+        order.addItem(combo);
+        order.addItem(burger);
+
+        var required = order.getIngredientRequirements();
+        assertEquals(3, required.get("beef"));
+        assertEquals(3, required.get("bun"));
+        assertEquals(1, required.get("soda"));
+        assertEquals(Arrays.asList("beef", "bun", "soda"), new ArrayList<>(required.keySet()));
+    }
 }
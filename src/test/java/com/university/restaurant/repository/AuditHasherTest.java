@@ -0,0 +1,97 @@
+package com.university.restaurant.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that AuditHasher produces the same hashes as the original
+ * string-concatenation implementation, so existing chains still verify.
+ */
+class AuditHasherTest {
+
+    // The hashing RestaurantAuditEntry used before AuditHasher
+    private static String legacySha256(String data) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        byte[] bytes = md.digest(data.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    private static String legacy(String userId, String role, String action, String entityType,
+                                 String entityId, String details, LocalDateTime timestamp,
+                                 String prevHash) throws Exception {
+        return legacySha256(userId + role + action + entityType + entityId + details + timestamp + prevHash);
+    }
+
+    @Test
+    void hash_shouldMatchLegacyForTypicalEntry() throws Exception {
+        LocalDateTime ts = LocalDateTime.of(2024, 3, 9, 14, 5, 7, 123_456_789);
+        assertEquals(
+                legacy("m1", "Manager", "REDUCE_STOCK", "InventoryItem", "item-1", "Reduced stock by 5", ts, "GENESIS"),
+                AuditHasher.hash("m1", "Manager", "REDUCE_STOCK", "InventoryItem", "item-1", "Reduced stock by 5", ts, "GENESIS"));
+    }
+
+    @Test
+    void hash_shouldMatchLegacyForAllTimestampPrecisions() throws Exception {
+        LocalDateTime[] times = {
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 1, 0, 0, 5),
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0, 1),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 120_000_000),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 123_456_000),
+                LocalDateTime.of(987, 6, 5, 4, 3, 2, 1_000),
+                LocalDateTime.of(12345, 6, 5, 4, 3, 2)
+        };
+        for (LocalDateTime ts : times) {
+            assertEquals(legacy("u", "r", "a", "t", "i", "d", ts, "p"),
+                    AuditHasher.hash("u", "r", "a", "t", "i", "d", ts, "p"), ts.toString());
+        }
+    }
+
+    @Test
+    void hash_shouldMatchLegacyForNullsAndNonAscii() throws Exception {
+        LocalDateTime ts = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 500_000_000);
+        assertEquals(legacy(null, "Chef", "X", null, null, null, ts, "GENESIS"),
+                AuditHasher.hash(null, "Chef", "X", null, null, null, ts, "GENESIS"));
+        assertEquals(legacy("w1", "Waiter", "NOTE", "Order", "o-1", "Crème brûlée ☕ 寿司 🍣", ts, "abc"),
+                AuditHasher.hash("w1", "Waiter", "NOTE", "Order", "o-1", "Crème brûlée ☕ 寿司 🍣", ts, "abc"));
+        assertEquals(legacy("w1", "Waiter", "NOTE", "Order", "o-1", "lone \uD83C surrogate", ts, "abc"),
+                AuditHasher.hash("w1", "Waiter", "NOTE", "Order", "o-1", "lone \uD83C surrogate", ts, "abc"));
+        assertEquals(legacy(null, null, null, null, null, null, null, null),
+                AuditHasher.hash(null, null, null, null, null, null, null, null));
+    }
+
+    @Test
+    void hash_shouldMatchLegacyForDetailsLongerThanBuffer() throws Exception {
+        String details = "é".repeat(700) + "x".repeat(300);
+        LocalDateTime ts = LocalDateTime.of(2024, 5, 1, 12, 30);
+        assertEquals(legacy("m1", "Manager", "A", "T", "1", details, ts, "GENESIS"),
+                AuditHasher.hash("m1", "Manager", "A", "T", "1", details, ts, "GENESIS"));
+    }
+
+    @Test
+    void digest_shouldBeRawFormOfHash() {
+        LocalDateTime ts = LocalDateTime.of(2024, 5, 1, 12, 30);
+        byte[] raw = AuditHasher.digest("m1", "Manager", "A", "T", "1", "d", ts, "GENESIS");
+
+        assertEquals(AuditHasher.HASH_BYTES, raw.length);
+        assertEquals(AuditHasher.hash("m1", "Manager", "A", "T", "1", "d", ts, "GENESIS"),
+                AuditHasher.toHex(raw));
+    }
+
+    @Test
+    void entry_hasValidHash_shouldDetectTampering() {
+        RestaurantAuditEntry entry = new RestaurantAuditEntry("m1", "Manager", "A", "T", "1", "d", "GENESIS");
+        assertTrue(entry.hasValidHash());
+
+        RestaurantAuditEntry forged = new RestaurantAuditEntry("m1", "Manager", "A", "T", "1", "forged",
+                "GENESIS", entry.getTimestamp());
+        assertNotEquals(entry.getHash(), forged.getHash());
+    }
+}
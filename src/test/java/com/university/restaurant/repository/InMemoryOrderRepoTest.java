@@ -0,0 +1,52 @@
+package com.university.restaurant.repository;
+
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InMemoryOrderRepoTest {
+
+    private InMemoryOrderRepo repo;
+
+    @BeforeEach
+    void setUp() {
+        repo = new InMemoryOrderRepo();
+    }
+
+    @Test
+    void findByStatus_shouldFollowStatusChangesWithoutSave() {
+        Order order = new Order(1, "w1");
+        repo.save(order);
+
+        order.updateStatus(OrderStatus.READY);
+
+        assertTrue(repo.findByStatus(OrderStatus.PENDING).isEmpty());
+        assertEquals(List.of(order), repo.findByStatus(OrderStatus.READY));
+    }
+
+    @Test
+    void findByStatus_shouldIgnoreReplacedInstances() {
+        Order order = new Order(1, "w1");
+        repo.save(order);
+        repo.save(order);
+        assertEquals(1, repo.findByStatus(OrderStatus.PENDING).size());
+
+        // Orders cannot be constructed with a given id, so the second instance is a mock
+        Order replacement = mock(Order.class);
+        when(replacement.getId()).thenReturn(order.getId());
+        when(replacement.getStatus()).thenReturn(OrderStatus.PENDING);
+        when(replacement.getTableNumber()).thenReturn(1);
+        repo.save(replacement);
+
+        order.updateStatus(OrderStatus.CONFIRMED);
+        assertTrue(repo.findByStatus(OrderStatus.CONFIRMED).isEmpty());
+        assertEquals(List.of(replacement), repo.findByStatus(OrderStatus.PENDING));
+        assertEquals(List.of(replacement), repo.findByTable(1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.university.restaurant.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRestaurantAuditRepoTest {
+
+    private InMemoryRestaurantAuditRepo repo;
+
+    @BeforeEach
+    void setUp() {
+        repo = new InMemoryRestaurantAuditRepo();
+    }
+
+    private void appendValid(int count) {
+        for (int i = 0; i < count; i++) {
+            repo.appendChained("m1", "Manager", "TEST", "Thing", "id-" + i, "n=" + i);
+        }
+    }
+
+    private void appendBroken() {
+        repo.append(new RestaurantAuditEntry("m1", "Manager", "TEST", "Thing", "bad", "bad", "not-the-tail"));
+    }
+
+    @Test
+    void verifyChain_shouldAdvanceCheckpoint() {
+        appendValid(10);
+        assertTrue(repo.verifyChain());
+        assertEquals(10, repo.verifiedCount());
+
+        appendValid(5);
+        assertTrue(repo.verifyChain());
+        assertEquals(15, repo.verifiedCount());
+    }
+
+    @Test
+    void verifyChain_withBrokenLinkAfterCheckpoint_shouldFailAndKeepCheckpoint() {
+        appendValid(10);
+        assertTrue(repo.verifyChain());
+
+        appendBroken();
+        appendValid(3);
+
+        assertFalse(repo.verifyChain());
+        assertFalse(repo.verifyChain());
+        assertEquals(10, repo.verifiedCount());
+    }
+
+    @Test
+    void verifyFull_onValidLog_shouldSucceedAndMoveCheckpoint() {
+        appendValid(1000);
+
+        ChainVerification result = repo.verifyFull(4);
+
+        assertTrue(result.valid());
+        assertEquals(1000, result.entriesChecked());
+        assertEquals(-1, result.firstBrokenAt());
+        assertEquals(1000, repo.verifiedCount());
+    }
+
+    @Test
+    void verifyFull_shouldFindBreakAtSegmentBoundary() {
+        appendValid(250);
+        appendBroken();
+        appendValid(749);
+
+        ChainVerification result = repo.verifyFull(4);
+
+        assertFalse(result.valid());
+        assertEquals(250, result.firstBrokenAt());
+        assertEquals(0, repo.verifiedCount());
+    }
+
+    @Test
+    void verifyFull_shouldReportEarliestOfSeveralBreaks() {
+        appendValid(100);
+        appendBroken();
+        appendValid(500);
+        appendBroken();
+
+        assertEquals(100, repo.verifyFull(8).firstBrokenAt());
+    }
+
+    @Test
+    void verifyFull_onEmptyLog_shouldSucceed() {
+        assertTrue(repo.verifyFull(3).valid());
+    }
+
+    @Test
+    void verifyFull_withNonPositiveSegments_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> repo.verifyFull(0));
+    }
+}
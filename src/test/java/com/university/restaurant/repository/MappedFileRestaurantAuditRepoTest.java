@@ -0,0 +1,207 @@
+package com.university.restaurant.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileRestaurantAuditRepoTest {
+
+    @TempDir
+    Path dir;
+
+    private static void appendValid(RestaurantAuditLogRepository repo, int count) {
+        for (int i = 0; i < count; i++) {
+            repo.appendChained("m1", "Manager", "TEST", "Thing", "id-" + i, "détails n=" + i);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void entries_shouldSurviveReopen() throws IOException {
+        List<RestaurantAuditEntry> written;
+        String tail;
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 0)) {
+            appendValid(repo, 100);
+            written = List.copyOf(repo.all());
+            tail = repo.tailHash();
+        }
+
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 0)) {
+            List<RestaurantAuditEntry> read = repo.all();
+            assertEquals(100, read.size());
+            for (int i = 0; i < read.size(); i++) {
+                RestaurantAuditEntry entry = read.get(i);
+                assertEquals(written.get(i).getHash(), entry.getHash());
+                assertEquals(written.get(i).getDetails(), entry.getDetails());
+                assertEquals(written.get(i).getTimestamp(), entry.getTimestamp());
+                assertTrue(entry.hasValidHash());
+            }
+            assertEquals(tail, repo.tailHash());
+            assertTrue(repo.verifyChain());
+        }
+    }
+
+    @Test
+    void appends_shouldRollOverSegmentsAndSupportRandomAccess() throws IOException {
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 4096, 0)) {
+            appendValid(repo, 500);
+
+            assertTrue(segmentFiles().size() > 1);
+            List<RestaurantAuditEntry> all = repo.all();
+            assertEquals(500, all.size());
+            assertEquals("id-0", all.get(0).getEntityId());
+            assertEquals("id-199", all.get(199).getEntityId());
+            assertEquals("id-499", all.get(499).getEntityId());
+            assertEquals(all.get(299).getHash(), all.get(300).getPrevHash());
+
+            Iterator<RestaurantAuditEntry> it = repo.reader(450);
+            int n = 0;
+            while (it.hasNext()) {
+                assertEquals("id-" + (450 + n), it.next().getEntityId());
+                n++;
+            }
+            assertEquals(50, n);
+            assertTrue(repo.verifyChain());
+        }
+
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 4096, 0)) {
+            assertEquals(500, repo.size());
+            assertTrue(repo.verifyChain());
+        }
+    }
+
+    @Test
+    void recovery_shouldTruncateTornTail() throws IOException {
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 0)) {
+            appendValid(repo, 10);
+        }
+
+        // Corrupt a payload byte of the last record
+        Path segment = segmentFiles().get(0);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(4);
+            int pos = 0;
+            int last = 0;
+            while (true) {
+                buf.clear();
+                ch.read(buf, pos);
+                int len = buf.getInt(0);
+                if (len == 0) break;
+                last = pos;
+                pos += 8 + len;
+            }
+            ch.write(ByteBuffer.wrap(new byte[]{0x7f}), last + 20);
+        }
+
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 0)) {
+            assertEquals(9, repo.size());
+            assertTrue(repo.verifyChain());
+
+            appendValid(repo, 3);
+            assertEquals(12, repo.size());
+            assertTrue(repo.verifyChain());
+        }
+    }
+
+    @Test
+    void recovery_afterCrashOnRollover_shouldTreatEmptyTrailingSegmentAsTail() throws IOException {
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 0)) {
+            appendValid(repo, 10);
+        }
+        Path segment = segmentFiles().get(0);
+        long lastStart;
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(4);
+            long pos = 0;
+            long last = 0;
+            while (true) {
+                buf.clear();
+                ch.read(buf, pos);
+                int len = buf.getInt(0);
+                if (len == 0) break;
+                last = pos;
+                pos += 8 + len;
+            }
+            lastStart = last;
+            // Torn last record, then a rollover whose new segment was never written
+            ch.write(ByteBuffer.wrap(new byte[]{0x7f}), last + 20);
+        }
+        assertTrue(lastStart > 0);
+        Files.write(dir.resolve(String.format("%020d.seg", 10)), new byte[1 << 16]);
+
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 0)) {
+            assertEquals(9, repo.size());
+            assertTrue(repo.verifyChain());
+
+            appendValid(repo, 3);
+            assertEquals(12, repo.size());
+            assertTrue(repo.verifyChain());
+        }
+    }
+
+    @Test
+    void sync_fromManyThreads_shouldMakeEverythingDurable() throws Exception {
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 20, 0)) {
+            int numThreads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+            CountDownLatch latch = new CountDownLatch(numThreads);
+            for (int t = 0; t < numThreads; t++) {
+                executor.submit(() -> {
+                    try {
+                        for (int i = 0; i < 50; i++) {
+                            repo.appendChained("m1", "Manager", "TEST", "Thing", "x", "d");
+                            repo.sync();
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            executor.shutdown();
+
+            assertEquals(400, repo.size());
+            assertEquals(400, repo.durableCount());
+            assertTrue(repo.verifyChain());
+        }
+    }
+
+    @Test
+    void backgroundSync_shouldEventuallyMakeAppendsDurable() throws Exception {
+        try (MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 5)) {
+            appendValid(repo, 20);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (repo.durableCount() < 20 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(20, repo.durableCount());
+        }
+    }
+
+    @Test
+    void append_afterClose_shouldThrow() throws IOException {
+        MappedFileRestaurantAuditRepo repo = new MappedFileRestaurantAuditRepo(dir, 1 << 16, 0);
+        repo.close();
+        assertThrows(IllegalStateException.class, () -> appendValid(repo, 1));
+    }
+}
@@ -0,0 +1,163 @@
+package com.university.restaurant.repository;
+
+import com.university.restaurant.repository.MerkleAccumulator.ConsistencyProof;
+import com.university.restaurant.repository.MerkleAccumulator.InclusionProof;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleAccumulatorTest {
+
+    // Straightforward RFC 6962 Merkle tree hash, used as the reference
+    private static byte[] referenceRoot(List<String> leaves) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        if (leaves.isEmpty()) {
+            return md.digest();
+        }
+        if (leaves.size() == 1) {
+            md.update((byte) 0);
+            md.update(leaves.get(0).getBytes(StandardCharsets.UTF_8));
+            return md.digest();
+        }
+        int k = Integer.highestOneBit(leaves.size() - 1);
+        byte[] left = referenceRoot(leaves.subList(0, k));
+        byte[] right = referenceRoot(leaves.subList(k, leaves.size()));
+        md.update((byte) 1);
+        md.update(left);
+        md.update(right);
+        return md.digest();
+    }
+
+    private static List<String> leaves(int n) {
+        List<String> leaves = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            leaves.add("entry-hash-" + i);
+        }
+        return leaves;
+    }
+
+    private static MerkleAccumulator accumulatorOf(List<String> leaves) {
+        MerkleAccumulator acc = new MerkleAccumulator();
+        leaves.forEach(acc::append);
+        return acc;
+    }
+
+    @Test
+    void root_shouldMatchReferenceForEverySize() throws Exception {
+        List<String> leaves = leaves(70);
+        MerkleAccumulator acc = new MerkleAccumulator();
+        assertArrayEquals(referenceRoot(List.of()), acc.root());
+        for (int n = 1; n <= leaves.size(); n++) {
+            acc.append(leaves.get(n - 1));
+            assertArrayEquals(referenceRoot(leaves.subList(0, n)), acc.root(), "size " + n);
+        }
+        // Historical roots come from the same stored nodes
+        assertArrayEquals(referenceRoot(leaves.subList(0, 37)), acc.root(37));
+    }
+
+    @Test
+    void root_acrossStoragePages_shouldMatchReference() throws Exception {
+        // Level 0 spills into a third page, level 1 into a second
+        List<String> leaves = leaves(70_000);
+        MerkleAccumulator acc = accumulatorOf(leaves);
+
+        assertArrayEquals(referenceRoot(leaves), acc.root());
+        assertTrue(MerkleAccumulator.verifyInclusion(leaves.get(65_537), acc.inclusionProof(65_537), acc.root()));
+    }
+
+    @Test
+    void inclusionProof_shouldVerifyForEveryLeaf() {
+        for (int n = 1; n <= 33; n++) {
+            List<String> leaves = leaves(n);
+            MerkleAccumulator acc = accumulatorOf(leaves);
+            byte[] root = acc.root();
+            for (int i = 0; i < n; i++) {
+                InclusionProof proof = acc.inclusionProof(i);
+                assertTrue(proof.path().size() <= 64 - Long.numberOfLeadingZeros(n));
+                assertTrue(MerkleAccumulator.verifyInclusion(leaves.get(i), proof, root), n + "/" + i);
+            }
+        }
+    }
+
+    @Test
+    void inclusionProof_shouldRejectWrongLeafOrRoot() {
+        List<String> leaves = leaves(21);
+        MerkleAccumulator acc = accumulatorOf(leaves);
+        InclusionProof proof = acc.inclusionProof(13);
+
+        assertFalse(MerkleAccumulator.verifyInclusion("tampered", proof, acc.root()));
+        assertFalse(MerkleAccumulator.verifyInclusion(leaves.get(13), proof, acc.root(20)));
+        assertFalse(MerkleAccumulator.verifyInclusion(leaves.get(12), proof, acc.root()));
+    }
+
+    @Test
+    void consistencyProof_shouldVerifyForEveryPairOfSizes() {
+        List<String> leaves = leaves(33);
+        MerkleAccumulator acc = accumulatorOf(leaves);
+        for (int newSize = 1; newSize <= 33; newSize++) {
+            for (int oldSize = 0; oldSize <= newSize; oldSize++) {
+                ConsistencyProof proof = acc.consistencyProof(oldSize, newSize);
+                assertTrue(MerkleAccumulator.verifyConsistency(proof, acc.root(oldSize), acc.root(newSize)),
+                        oldSize + "->" + newSize);
+            }
+        }
+    }
+
+    @Test
+    void consistencyProof_shouldRejectRewrittenHistory() {
+        List<String> original = leaves(20);
+        List<String> rewritten = new ArrayList<>(original);
+        rewritten.set(5, "rewritten");
+
+        MerkleAccumulator honest = accumulatorOf(original);
+        MerkleAccumulator forged = accumulatorOf(rewritten);
+
+        ConsistencyProof proof = forged.consistencyProof(11);
+        assertFalse(MerkleAccumulator.verifyConsistency(proof, honest.root(11), forged.root()));
+    }
+
+    @Test
+    void proofs_withOutOfRangeArguments_shouldThrow() {
+        MerkleAccumulator acc = accumulatorOf(leaves(5));
+        assertThrows(IllegalArgumentException.class, () -> acc.inclusionProof(5));
+        assertThrows(IllegalArgumentException.class, () -> acc.consistencyProof(6));
+        assertThrows(IllegalArgumentException.class, () -> acc.root(6));
+    }
+
+    @Test
+    void auditRepo_shouldMaintainTreeAlongsideChain() {
+        InMemoryRestaurantAuditRepo repo = new InMemoryRestaurantAuditRepo();
+        for (int i = 0; i < 12; i++) {
+            repo.appendChained("m1", "Manager", "COMPLETE_PAYMENT", "Payment", "p-" + i, "paid");
+        }
+        RestaurantAuditEntry payment = repo.all().get(7);
+        MerkleAccumulator tree = repo.merkleTree();
+
+        assertEquals(12, tree.size());
+        assertTrue(MerkleAccumulator.verifyInclusion(payment.getHash(), tree.inclusionProof(7), tree.root()));
+    }
+
+    @Test
+    void auditPipeline_shouldExtendTreeSeededFromStore() {
+        InMemoryRestaurantAuditRepo store = new InMemoryRestaurantAuditRepo();
+        store.appendChained("m1", "Manager", "CREATE_ORDER", "Order", "o-0", "before startup");
+        MerkleAccumulator seeded = new MerkleAccumulator();
+        store.all().forEach(entry -> seeded.append(entry.getHash()));
+
+        try (AuditPipeline pipeline = new AuditPipeline(store, 16, 4, seeded)) {
+            for (int i = 1; i < 10; i++) {
+                pipeline.appendChained("m1", "Manager", "CREATE_ORDER", "Order", "o-" + i, "live");
+            }
+            pipeline.flush();
+
+            MerkleAccumulator tree = pipeline.merkleTree();
+            assertEquals(10, tree.size());
+            assertArrayEquals(store.merkleTree().root(), tree.root());
+        }
+    }
+}
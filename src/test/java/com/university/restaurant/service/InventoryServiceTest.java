@@ -2,8 +2,11 @@ package com.university.restaurant.service;
 
 import com.university.restaurant.model.inventory.InventoryItem;
 import com.university.restaurant.model.inventory.StockStatus;
+import com.university.restaurant.model.menu.DietaryType;
 import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.Entree;
 import com.university.restaurant.model.menu.MenuItem;
+import com.university.restaurant.model.order.Order;
 import com.university.restaurant.model.staff.Manager;
 import com.university.restaurant.model.staff.Waiter;
 import com.university.restaurant.repository.InventoryRepository;
@@ -15,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -146,4 +150,62 @@ class InventoryServiceTest {
             service.getStockLevel("invalid");
         });
     }
+
+    @Test
+    void reserveIngredients_shouldConsumeAllIngredientsWithOneAudit() {
+        InventoryItem beef = new InventoryItem("inv-beef", "beef", "kg", 10, 2, 50);
+        InventoryItem bun = new InventoryItem("inv-bun", "bun", "pcs", 10, 2, 50);
+        when(inventoryRepo.findByName("beef")).thenReturn(Optional.of(beef));
+        when(inventoryRepo.findByName("bun")).thenReturn(Optional.of(bun));
+
+        Order order = new Order(1, "w1");
+        Entree burger = new Entree("E1", "Burger", "desc", 10.0, DietaryType.REGULAR,
+                List.of("beef", "bun"), 10);
+        order.addItem(burger);
+        order.addItem(burger);
+
+        service.reserveIngredients(manager, order);
+
+        assertEquals(8, beef.getStockLevel());
+        assertEquals(8, bun.getStockLevel());
+        verify(auditRepo, times(1)).append(any());
+    }
+
+    @Test
+    void reserveIngredients_insufficientStock_shouldLeaveStockUnchanged() {
+        InventoryItem beef = new InventoryItem("inv-beef", "beef", "kg", 10, 2, 50);
+        InventoryItem bun = new InventoryItem("inv-bun", "bun", "pcs", 1, 2, 50);
+        when(inventoryRepo.findByName("beef")).thenReturn(Optional.of(beef));
+        when(inventoryRepo.findByName("bun")).thenReturn(Optional.of(bun));
+
+        Order order = new Order(1, "w1");
+        Entree burger = new Entree("E1", "Burger", "desc", 10.0, DietaryType.REGULAR,
+                List.of("beef", "bun"), 10);
+        order.addItem(burger);
+        order.addItem(burger);
+
+        assertThrows(IllegalStateException.class, () -> service.reserveIngredients(manager, order));
+
+        assertEquals(10, beef.getStockLevel());
+        assertEquals(1, bun.getStockLevel());
+        verify(inventoryRepo, never()).save(any());
+        verify(auditRepo, never()).append(any());
+    }
+
+    @Test
+    void reserveIngredients_unknownIngredient_shouldThrowException() {
+        when(inventoryRepo.findByName("cola")).thenReturn(Optional.empty());
+
+        Order order = new Order(1, "w1");
+        order.addItem(new Drink("D1", "Cola", "desc", 2.0, false));
+
+        assertThrows(IllegalArgumentException.class, () -> service.reserveIngredients(manager, order));
+    }
+
+    @Test
+    void reserveIngredients_withWaiterRole_shouldThrowSecurityException() {
+        Order order = new Order(1, "w1");
+
+        assertThrows(SecurityException.class, () -> service.reserveIngredients(waiter, order));
+    }
 }
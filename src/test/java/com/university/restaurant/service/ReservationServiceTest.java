@@ -14,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -71,6 +73,29 @@ class ReservationServiceTest {
         verify(reservationRepo).save(reservation);
     }
 
+    @Test
+    void createReservation_shouldNotifyListenersAfterSaving() {
+        List<Reservation> created = new ArrayList<>();
+        service.addReservationEventListener(created::add);
+
+        Reservation reservation = service.createReservation(
+            waiter, "John Doe", "555-1234", "john@example.com", 4, LocalDateTime.now().plusDays(1)
+        );
+
+        assertEquals(List.of(reservation), created);
+    }
+
+    @Test
+    void createReservation_deniedRole_shouldNotNotifyListeners() {
+        List<Reservation> created = new ArrayList<>();
+        service.addReservationEventListener(created::add);
+
+        assertThrows(SecurityException.class, () ->
+            service.createReservation(chef, "Test", "555-0000", "test@example.com", 4, LocalDateTime.now())
+        );
+        assertTrue(created.isEmpty());
+    }
+
     @Test
     void createReservation_withChefRole_shouldThrowSecurityException() {
         LocalDateTime time = LocalDateTime.now().plusDays(1);
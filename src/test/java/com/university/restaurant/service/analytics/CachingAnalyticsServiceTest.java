@@ -0,0 +1,194 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.model.staff.Waiter;
+import com.university.restaurant.port.AnalyticsServicePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAnalyticsServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private AnalyticsServicePort delegate;
+
+    private MutableClock clock;
+    private CachingAnalyticsService cache;
+    private Manager manager;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.now());
+        cache = new CachingAnalyticsService(delegate, Duration.ofSeconds(30), 16, clock);
+        manager = new Manager("m1", "Alice");
+    }
+
+    private static Order order(String... items) {
+        Order order = new Order(1, "w1");
+        for (String name : items) {
+            order.addItem(new Drink(name.toLowerCase(), name, "desc", 2.5, false));
+        }
+        return order;
+    }
+
+    @Test
+    void repeatedQuery_shouldBeServedFromCache() {
+        when(delegate.revenueBetween(manager, NOON, NOON.plusHours(1))).thenReturn(40.0);
+        when(delegate.revenueBetween(manager, NOON, NOON.plusHours(2))).thenReturn(55.0);
+
+        assertEquals(40.0, cache.revenueBetween(manager, NOON, NOON.plusHours(1)));
+        assertEquals(40.0, cache.revenueBetween(manager, NOON, NOON.plusHours(1)));
+        assertEquals(55.0, cache.revenueBetween(manager, NOON, NOON.plusHours(2)));
+
+        verify(delegate, times(1)).revenueBetween(manager, NOON, NOON.plusHours(1));
+        CachingAnalyticsService.CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    void entryOlderThanMaxStaleness_shouldBeRecomputed() {
+        when(delegate.topSellingItems(manager, 3)).thenReturn(List.of(new ItemSales("Coke", 4, 0)));
+
+        cache.topSellingItems(manager, 3);
+        clock.advance(Duration.ofSeconds(29));
+        cache.topSellingItems(manager, 3);
+        clock.advance(Duration.ofSeconds(2));
+        cache.topSellingItems(manager, 3);
+
+        verify(delegate, times(2)).topSellingItems(manager, 3);
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    void paymentEvent_shouldDropAffectedResults() {
+        when(delegate.topSellingItems(manager)).thenReturn(Map.of("Coke", 2L), Map.of("Coke", 3L, "Sprite", 1L));
+        when(delegate.totalRevenueToday(manager)).thenReturn(10.0, 15.0);
+        when(delegate.revenueBetween(any(), any(), any())).thenReturn(10.0);
+        cache.topSellingItems(manager);
+        cache.totalRevenueToday(manager);
+        cache.revenueBetween(manager, NOON, NOON.plusHours(1));
+
+        Order order = order("Coke", "Sprite");
+        cache.onStatusChanged(order, OrderStatus.READY, OrderStatus.SERVED);
+        cache.onStatusChanged(order, OrderStatus.SERVED, OrderStatus.PAID);
+
+        assertEquals(Map.of("Coke", 3L, "Sprite", 1L), cache.topSellingItems(manager));
+        assertEquals(15.0, cache.totalRevenueToday(manager), 1e-9);
+        cache.revenueBetween(manager, NOON, NOON.plusHours(1));
+        verify(delegate, times(2)).topSellingItems(manager);
+        verify(delegate, times(2)).totalRevenueToday(manager);
+        verify(delegate, times(2)).revenueBetween(manager, NOON, NOON.plusHours(1));
+        assertEquals(3, cache.stats().invalidations());
+    }
+
+    @Test
+    void resultComputedBetweenSaveAndPublish_shouldNotCountTheOrderTwice() {
+        // The order is already in the store when the query runs; its event comes after
+        when(delegate.topSellingItems(manager)).thenReturn(Map.of("Coke", 3L));
+        when(delegate.totalRevenueToday(manager)).thenReturn(12.5);
+        cache.topSellingItems(manager);
+        cache.totalRevenueToday(manager);
+
+        Order order = order("Coke");
+        cache.onStatusChanged(order, OrderStatus.READY, OrderStatus.SERVED);
+        cache.onStatusChanged(order, OrderStatus.SERVED, OrderStatus.PAID);
+
+        assertEquals(Map.of("Coke", 3L), cache.topSellingItems(manager));
+        assertEquals(12.5, cache.totalRevenueToday(manager), 1e-9);
+    }
+
+    @Test
+    void resultComputedAcrossAnEvent_shouldNotBeCached() {
+        Order order = order("Coke");
+        when(delegate.topSellingItems(manager, 5)).thenAnswer(invocation -> {
+            cache.onStatusChanged(order, OrderStatus.READY, OrderStatus.SERVED);
+            return List.of(new ItemSales("Coke", 1, 0));
+        });
+
+        cache.topSellingItems(manager, 5);
+        cache.topSellingItems(manager, 5);
+
+        verify(delegate, times(2)).topSellingItems(manager, 5);
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void cachedResult_shouldStillRequirePermission() {
+        when(delegate.totalRevenueToday(manager)).thenReturn(10.0);
+        cache.totalRevenueToday(manager);
+
+        assertThrows(SecurityException.class, () -> cache.totalRevenueToday(new Waiter("w1", "Bob")));
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void stats_shouldRequirePermission() {
+        assertThrows(SecurityException.class, () -> cache.stats(new Waiter("w1", "Bob")));
+        assertEquals(0, cache.stats(manager).misses());
+    }
+
+    @Test
+    void fullCache_shouldStillAnswerWithoutStoring() {
+        CachingAnalyticsService tiny = new CachingAnalyticsService(delegate, Duration.ofSeconds(30), 1, clock);
+        when(delegate.revenueBetween(any(), any(), any())).thenReturn(1.0);
+
+        tiny.revenueBetween(manager, NOON, NOON.plusHours(1));
+        tiny.revenueBetween(manager, NOON, NOON.plusHours(2));
+        tiny.revenueBetween(manager, NOON, NOON.plusHours(2));
+
+        assertEquals(3, tiny.stats().misses());
+        assertEquals(1.0, tiny.revenueBetween(manager, NOON, NOON.plusHours(1)));
+        assertEquals(1, tiny.stats().hits());
+    }
+
+    /** Clock that tests move forward by hand. */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
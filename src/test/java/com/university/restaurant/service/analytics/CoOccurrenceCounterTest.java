@@ -0,0 +1,97 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.ItemAssociation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoOccurrenceCounterTest {
+
+    @Test
+    void associations_shouldReportSupportConfidenceAndLift() {
+        CoOccurrenceCounter counter = new CoOccurrenceCounter();
+        counter.add(List.of("Burger", "Fries", "Coke"));
+        counter.add(List.of("Burger", "Fries"));
+        counter.add(List.of("Burger", "Burger"));
+        counter.add(List.of("Salad"));
+
+        List<ItemAssociation> withBurger = counter.associations("Burger", 5, 0.0);
+
+        assertEquals(2, withBurger.size());
+        ItemAssociation fries = withBurger.get(0);
+        assertEquals("Fries", fries.associatedItem());
+        assertEquals(2, fries.togetherCount());
+        assertEquals(0.5, fries.support(), 1e-9);
+        assertEquals(2.0 / 3, fries.confidence(), 1e-9);
+        assertEquals((2.0 / 3) / (2.0 / 4), fries.lift(), 1e-9);
+        assertEquals(List.of(fries), counter.associations("Burger", 5, 0.6));
+        assertTrue(counter.associations("Salad", 5, 0.0).isEmpty());
+        assertTrue(counter.associations("Unknown", 5, 0.0).isEmpty());
+    }
+
+    @Test
+    void topPairs_shouldReadEachPairFromTheRarerItem() {
+        CoOccurrenceCounter counter = new CoOccurrenceCounter();
+        for (int i = 0; i < 3; i++) {
+            counter.add(List.of("Coffee", "Tiramisu"));
+        }
+        counter.add(List.of("Coffee"));
+        counter.add(List.of("Coffee", "Water"));
+
+        List<ItemAssociation> top = counter.topPairs(1);
+
+        assertEquals(1, top.size());
+        assertEquals("Tiramisu", top.get(0).itemName());
+        assertEquals("Coffee", top.get(0).associatedItem());
+        assertEquals(1.0, top.get(0).confidence(), 1e-9);
+    }
+
+    @Test
+    void pruning_shouldBoundPairsAndKeepFrequentOnes() {
+        Random random = new Random(3);
+        CoOccurrenceCounter counter = new CoOccurrenceCounter(200);
+        long burgerFries = 0;
+        for (int i = 0; i < 5000; i++) {
+            List<String> basket = new ArrayList<>();
+            if (i % 3 == 0) {
+                basket.add("Burger");
+                basket.add("Fries");
+            }
+            // A long tail of rare items creates far more pairs than the budget
+            basket.add("item" + random.nextInt(300));
+            basket.add("item" + random.nextInt(300));
+            counter.add(basket);
+            if (i % 3 == 0) {
+                burgerFries++;
+            }
+        }
+
+        assertTrue(counter.pairs() <= 200);
+        assertTrue(counter.prunedPairs() > 0);
+        ItemAssociation top = counter.topPairs(1).get(0);
+        assertEquals("Burger", top.itemName());
+        assertTrue(top.togetherCount() <= burgerFries);
+        assertTrue(top.togetherCount() >= burgerFries - counter.maxUndercount());
+    }
+
+    @Test
+    void pruning_withTiedCounts_shouldKeepHalfTheBudget() {
+        CoOccurrenceCounter counter = new CoOccurrenceCounter(10);
+        for (int i = 0; i < 11; i++) {
+            counter.add(List.of("a" + i, "b" + i));
+        }
+
+        assertEquals(5, counter.pairs());
+        assertEquals(6, counter.prunedPairs());
+        assertEquals(5, counter.topPairs(10).size());
+    }
+
+    @Test
+    void invalidBudget_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CoOccurrenceCounter(1));
+    }
+}
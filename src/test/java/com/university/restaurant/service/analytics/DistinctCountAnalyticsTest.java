@@ -0,0 +1,97 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.payment.PaymentMethod;
+import com.university.restaurant.model.reservation.Customer;
+import com.university.restaurant.model.reservation.Reservation;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.model.staff.Waiter;
+import com.university.restaurant.service.analytics.DistinctCountAnalytics.Subject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistinctCountAnalyticsTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private DistinctCountAnalytics analytics;
+    private Manager manager;
+
+    @BeforeEach
+    void setUp() {
+        analytics = new DistinctCountAnalytics();
+        manager = new Manager("m1", "Alice");
+    }
+
+    private void reserve(String phone, LocalDateTime time) {
+        analytics.onReservationCreated(new Reservation(new Customer("Guest", phone, "g@example.com"), time, 2));
+    }
+
+    private void pay(int table, String waiter) {
+        Order order = new Order(table, waiter);
+        order.addItem(new Drink("d1", "Coke", "desc", 2.5, false));
+        order.updateStatus(OrderStatus.SERVED);
+        order.processPayment(PaymentMethod.CASH);
+        analytics.onStatusChanged(order, OrderStatus.SERVED, OrderStatus.PAID);
+    }
+
+    @Test
+    void customers_shouldBeCountedOncePerRange() {
+        reserve("555-0001", NOON);
+        reserve("555-0002", NOON);
+        reserve("555-0001", NOON.plusDays(1));
+        reserve("555-0003", NOON.plusDays(1));
+
+        LocalDate day = NOON.toLocalDate();
+        assertEquals(2, analytics.distinctCustomers(manager, day, day));
+        assertEquals(2, analytics.distinctCustomers(manager, day.plusDays(1), day.plusDays(1)));
+        assertEquals(3, analytics.distinctCustomers(manager, day, day.plusDays(1)));
+        assertEquals(0, analytics.distinctCustomers(manager, day.plusDays(5), day.plusDays(6)));
+        // Only days with a sketch are read, however wide the range
+        assertEquals(3, analytics.distinctCustomers(manager, LocalDate.MIN, LocalDate.MAX));
+    }
+
+    @Test
+    void paidOrders_shouldCountTablesAndWaiters() {
+        pay(1, "w1");
+        pay(2, "w1");
+        pay(2, "w2");
+        Order unpaid = new Order(9, "w9");
+        analytics.onStatusChanged(unpaid, null, OrderStatus.PENDING);
+
+        LocalDate today = LocalDate.now();
+        assertEquals(2, analytics.distinctTables(manager, today, today));
+        assertEquals(2, analytics.distinctWaiters(manager, today, today));
+    }
+
+    @Test
+    void sketchesFromAnotherSite_shouldMergeIntoTheDailyCount() {
+        reserve("555-0001", NOON);
+        DistinctCountAnalytics otherSite = new DistinctCountAnalytics();
+        otherSite.onReservationCreated(new Reservation(new Customer("A", "555-0001", "a@x"), NOON, 2));
+        otherSite.onReservationCreated(new Reservation(new Customer("B", "555-0009", "b@x"), NOON, 2));
+
+        LocalDate day = NOON.toLocalDate();
+        HyperLogLog shipped = HyperLogLog.fromByteArray(otherSite.sketch(Subject.CUSTOMERS, day, day).toByteArray());
+        analytics.merge(Subject.CUSTOMERS, day, shipped);
+
+        assertEquals(2, analytics.distinctCount(manager, Subject.CUSTOMERS, day, day));
+    }
+
+    @Test
+    void nonManager_shouldBeDenied() {
+        LocalDate day = NOON.toLocalDate();
+
+        assertThrows(SecurityException.class,
+                () -> analytics.distinctTables(new Waiter("w1", "Bob"), day, day));
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.distinctTables(manager, day, day.minusDays(1)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.university.restaurant.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_shouldBeWithinErrorBoundForLargeCardinality() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 200_000; i++) {
+            sketch.add("555-" + i);
+            // Duplicates must not move the estimate
+            sketch.add("555-" + (i / 2));
+        }
+
+        double error = Math.abs(sketch.estimate() - 200_000) / 200_000.0;
+        assertTrue(error < 4 * sketch.relativeStandardError(), "relative error " + error);
+    }
+
+    @Test
+    void estimate_shouldBeNearlyExactForSmallCardinality() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int table = 1; table <= 40; table++) {
+            sketch.add(table);
+            sketch.add(table);
+        }
+
+        assertEquals(0, new HyperLogLog().estimate());
+        assertEquals(40, sketch.estimate(), 1);
+    }
+
+    @Test
+    void merge_shouldCountTheUnion() {
+        HyperLogLog monday = new HyperLogLog(14);
+        HyperLogLog tuesday = new HyperLogLog(14);
+        for (int i = 0; i < 30_000; i++) {
+            monday.add("c" + i);
+            tuesday.add("c" + (i + 20_000));
+        }
+
+        HyperLogLog both = monday.merge(tuesday);
+
+        assertEquals(50_000, both.estimate(), 50_000 * 4 * both.relativeStandardError());
+        assertEquals(30_000, monday.estimate(), 30_000 * 4 * monday.relativeStandardError());
+        assertThrows(IllegalArgumentException.class, () -> monday.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void byteArray_shouldRoundTrip() {
+        HyperLogLog sketch = new HyperLogLog(8);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("w" + i);
+        }
+
+        HyperLogLog copy = HyperLogLog.fromByteArray(sketch.toByteArray());
+
+        assertEquals(8, copy.precision());
+        assertEquals(sketch.estimate(), copy.estimate());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromByteArray(new byte[]{8, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+
+    @Test
+    void fromByteArray_shouldRejectImpossibleRegisters() {
+        byte[] bytes = new HyperLogLog(8).toByteArray();
+        bytes[1] = 65 - 8;
+        assertEquals(8, HyperLogLog.fromByteArray(bytes).precision());
+
+        bytes[1] = 65 - 8 + 1;
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromByteArray(bytes));
+        bytes[1] = -1;
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromByteArray(bytes));
+    }
+}
@@ -0,0 +1,262 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.ItemSales;
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.menu.MenuItem;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.payment.PaymentMethod;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.model.staff.Waiter;
+import com.university.restaurant.repository.OrderRepository;
+import com.university.restaurant.repository.PaymentRepository;
+import com.university.restaurant.repository.RestaurantAuditLogRepository;
+import com.university.restaurant.service.AnalyticsService;
+import com.university.restaurant.service.OrderService;
+import com.university.restaurant.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IncrementalAnalyticsServiceTest {
+
+    @Mock
+    private OrderRepository orderRepo;
+
+    @Mock
+    private PaymentRepository paymentRepo;
+
+    @Mock
+    private RestaurantAuditLogRepository auditRepo;
+
+    private IncrementalAnalyticsService analytics;
+    private Manager manager;
+    private Waiter waiter;
+
+    @BeforeEach
+    void setUp() {
+        analytics = new IncrementalAnalyticsService();
+        manager = new Manager("m1", "Alice");
+        waiter = new Waiter("w1", "Bob");
+        lenient().when(auditRepo.tailHash()).thenReturn("GENESIS");
+    }
+
+    private static Order order(OrderStatus status, MenuItem... items) {
+        Order order = new Order(1, "w1");
+        for (MenuItem item : items) {
+            order.addItem(item);
+        }
+        order.updateStatus(status);
+        return order;
+    }
+
+    @Test
+    void replay_shouldMatchFullRecomputation() {
+        Drink coke = new Drink("d1", "Coke", "desc", 2.50, false);
+        Drink sprite = new Drink("d2", "Sprite", "desc", 3.00, false);
+        List<Order> history = List.of(
+                order(OrderStatus.PAID, coke, coke),
+                order(OrderStatus.PAID, sprite),
+                order(OrderStatus.SERVED, coke, sprite),
+                order(OrderStatus.PENDING, sprite, sprite, sprite)
+        );
+        analytics.replay(history);
+
+        List<Order> paid = history.stream().filter(o -> o.getStatus() == OrderStatus.PAID).toList();
+        List<Order> served = history.stream().filter(o -> o.getStatus() == OrderStatus.SERVED).toList();
+        when(orderRepo.findByStatus(OrderStatus.PAID)).thenReturn(paid);
+        when(orderRepo.findByStatus(OrderStatus.SERVED)).thenReturn(served);
+        AnalyticsService reference = new AnalyticsService(orderRepo);
+
+        assertEquals(reference.topSellingItems(manager), analytics.topSellingItems(manager));
+        assertEquals(reference.totalRevenueToday(manager), analytics.totalRevenueToday(manager), 1e-9);
+        assertEquals(5.00, analytics.revenueByItem(manager).get("Coke"), 1e-9);
+        assertEquals(3.00, analytics.revenueByItem(manager).get("Sprite"), 1e-9);
+    }
+
+    @Test
+    void leavingCompletedStatus_shouldUncountOrder() {
+        Drink coke = new Drink("d1", "Coke", "desc", 2.50, false);
+        Order order = order(OrderStatus.PENDING, coke);
+
+        analytics.onStatusChanged(order, OrderStatus.PENDING, OrderStatus.SERVED);
+        analytics.onStatusChanged(order, OrderStatus.SERVED, OrderStatus.PAID);
+        assertEquals(Map.of("Coke", 1L), analytics.topSellingItems(manager));
+        assertEquals(2.50, analytics.totalRevenueToday(manager), 1e-9);
+
+        analytics.onStatusChanged(order, OrderStatus.PAID, OrderStatus.CANCELLED);
+        assertTrue(analytics.topSellingItems(manager).isEmpty());
+        assertEquals(0.0, analytics.totalRevenueToday(manager), 1e-9);
+    }
+
+    @Test
+    void services_shouldPublishTransitionsToAnalytics() {
+        OrderService orders = new OrderService(orderRepo, auditRepo);
+        PaymentService payments = new PaymentService(orderRepo, paymentRepo, auditRepo);
+        orders.addOrderEventListener(analytics);
+        payments.addOrderEventListener(analytics);
+
+        Order order = orders.placeOrder(waiter, "4", List.of(
+                new Drink("d1", "Coke", "desc", 2.50, false),
+                new Drink("d2", "Sprite", "desc", 3.00, false)));
+        when(orderRepo.findById(order.getId())).thenReturn(Optional.of(order));
+        assertTrue(analytics.topSellingItems(manager).isEmpty());
+
+        orders.updateOrderStatus(waiter, order.getId().toString(), "SERVED");
+        assertEquals(Map.of("Coke", 1L, "Sprite", 1L), analytics.topSellingItems(manager));
+        assertEquals(0.0, analytics.totalRevenueToday(manager), 1e-9);
+
+        payments.completePayment(waiter, order.getId().toString(), PaymentMethod.CASH);
+        assertEquals(Map.of("Coke", 1L, "Sprite", 1L), analytics.topSellingItems(manager));
+        assertEquals(5.50, analytics.totalRevenueToday(manager), 1e-9);
+    }
+
+    @Test
+    void revenueWindows_shouldMatchFullRecomputation() {
+        Drink coke = new Drink("d1", "Coke", "desc", 2.50, false);
+        Drink sprite = new Drink("d2", "Sprite", "desc", 3.00, false);
+        Order first = order(OrderStatus.SERVED, coke, coke);
+        first.processPayment(PaymentMethod.CASH);
+        Order second = order(OrderStatus.SERVED, sprite);
+        second.processPayment(PaymentMethod.CREDIT_CARD);
+        analytics.replay(List.of(first, second, order(OrderStatus.SERVED, coke)));
+
+        when(orderRepo.findByStatus(OrderStatus.PAID)).thenReturn(List.of(first, second));
+        AnalyticsService reference = new AnalyticsService(orderRepo);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minusHours(3).withSecond(0).withNano(0);
+        LocalDateTime to = now.plusMinutes(2).withSecond(0).withNano(0);
+        assertEquals(reference.revenueBetween(manager, from, to), analytics.revenueBetween(manager, from, to), 1e-9);
+        assertEquals(8.00, analytics.revenueBetween(manager, from, to), 1e-9);
+
+        LocalDate today = now.toLocalDate();
+        assertArrayEquals(reference.revenueByHourOfDay(manager, today, today),
+                analytics.revenueByHourOfDay(manager, today, today), 1e-9);
+    }
+
+    @Test
+    void topSellingItemsWithK_shouldRankBySketch() {
+        Drink coke = new Drink("d1", "Coke", "desc", 2.50, false);
+        Drink sprite = new Drink("d2", "Sprite", "desc", 3.00, false);
+        Drink water = new Drink("d3", "Water", "desc", 1.00, false);
+        analytics.replay(List.of(
+                order(OrderStatus.PAID, coke, coke, sprite),
+                order(OrderStatus.SERVED, coke, water),
+                order(OrderStatus.PENDING, water, water, water)));
+
+        assertEquals(List.of(new ItemSales("Coke", 3, 0), new ItemSales("Sprite", 1, 0)),
+                analytics.topSellingItems(manager, 2));
+        LocalDate today = LocalDate.now();
+        assertEquals(analytics.topSellingItems(manager, 3),
+                analytics.topSellingItems(manager, 3, today.minusDays(1), today));
+        assertTrue(analytics.topSellingItems(manager, 3, today.plusDays(1), today.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    void salesOnly_shouldKeepCubeAndPairsButNotTotals() {
+        analytics = IncrementalAnalyticsService.salesOnly(1000, Clock.systemDefaultZone());
+        Drink coke = new Drink("d1", "Coke", "desc", 2.50, false);
+        Drink sprite = new Drink("d2", "Sprite", "desc", 3.00, false);
+        Order paid = order(OrderStatus.SERVED, coke, sprite);
+        paid.processPayment(PaymentMethod.CASH);
+        analytics.replay(List.of(paid));
+
+        assertEquals(2, analytics.salesBy(manager, SalesCube.Query.all()).get(0).units());
+        assertEquals(1, analytics.topItemPairs(manager, 5).size());
+        assertThrows(UnsupportedOperationException.class, () -> analytics.topSellingItems(manager));
+        assertThrows(UnsupportedOperationException.class, () -> analytics.topSellingItems(manager, 3));
+        assertThrows(UnsupportedOperationException.class, () -> analytics.totalRevenueToday(manager));
+        assertThrows(UnsupportedOperationException.class,
+                () -> analytics.revenueBetween(manager, LocalDateTime.now().minusDays(1), LocalDateTime.now()));
+    }
+
+    @Test
+    void daysPastRetention_shouldBeDropped() {
+        Clock clock = mock(Clock.class);
+        Instant now = Instant.now();
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(now);
+        analytics = new IncrementalAnalyticsService(16, 1000, clock);
+        Drink coke = new Drink("d1", "Coke", "desc", 2.50, false);
+        LocalDate today = LocalDate.now(clock);
+
+        Order paid = order(OrderStatus.SERVED, coke);
+        paid.processPayment(PaymentMethod.CASH);
+        analytics.replay(List.of(paid));
+        assertEquals(2.50, analytics.totalRevenueToday(manager), 1e-9);
+        assertEquals(1, analytics.topSellingItems(manager, 3, today, today).size());
+        assertEquals(1, analytics.salesBy(manager, SalesCube.Query.all()).get(0).units());
+
+        // Once the creation date falls outside the retention, its daily entries and sales lines go
+        when(clock.instant()).thenReturn(now.plus(Duration.ofDays(IncrementalAnalyticsService.RETAINED_DAYS + 1)));
+        analytics.replay(List.of(order(OrderStatus.SERVED, coke)));
+
+        assertTrue(analytics.topSellingItems(manager, 3, today, today).isEmpty());
+        assertEquals(2, analytics.topSellingItems(manager, 3).get(0).count());
+        assertEquals(0, analytics.salesBy(manager, SalesCube.Query.all()).get(0).units());
+    }
+
+    @Test
+    void concurrentTransitions_shouldNotLoseUpdates() throws InterruptedException {
+        Drink coke = new Drink("d1", "Coke", "desc", 1.00, false);
+        int numThreads = 8;
+        int perThread = 500;
+        List<Order> served = new ArrayList<>();
+        for (int i = 0; i < numThreads * perThread; i++) {
+            served.add(order(OrderStatus.SERVED, coke));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        for (int t = 0; t < numThreads; t++) {
+            List<Order> slice = served.subList(t * perThread, (t + 1) * perThread);
+            executor.submit(() -> {
+                try {
+                    for (Order o : slice) {
+                        analytics.onStatusChanged(o, OrderStatus.SERVED, OrderStatus.PAID);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // SERVED -> PAID only adds revenue; counts were never recorded for SERVED here
+        assertTrue(analytics.topSellingItems(manager).isEmpty());
+        assertEquals(numThreads * perThread, analytics.totalRevenueToday(manager), 1e-6);
+    }
+
+    @Test
+    void analytics_withUnauthorizedRole_shouldThrowSecurityException() {
+        assertThrows(SecurityException.class, () -> analytics.topSellingItems(waiter));
+        assertThrows(SecurityException.class, () -> analytics.totalRevenueToday(waiter));
+        assertThrows(SecurityException.class, () -> analytics.revenueByItem(waiter));
+        assertThrows(SecurityException.class, () -> analytics.topSellingItems(waiter, 3));
+        assertThrows(SecurityException.class,
+                () -> analytics.revenueByHourOfDay(waiter, LocalDate.now(), LocalDate.now()));
+    }
+}
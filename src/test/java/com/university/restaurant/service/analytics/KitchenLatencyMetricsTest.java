@@ -0,0 +1,67 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.menu.MenuCategory;
+import com.university.restaurant.model.staff.Manager;
+import com.university.restaurant.model.staff.Waiter;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics.Breakdown;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics.Report;
+import com.university.restaurant.service.analytics.KitchenLatencyMetrics.Stage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KitchenLatencyMetricsTest {
+
+    private KitchenLatencyMetrics metrics;
+    private Manager manager;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new KitchenLatencyMetrics();
+        manager = new Manager("m1", "Alice");
+    }
+
+    @Test
+    void latency_shouldBreakDownByWorkerAndCategory() {
+        metrics.recordQueueWait(1, MenuCategory.ENTREE, 1_000_000);
+        metrics.recordQueueWait(2, MenuCategory.DESSERT, 3_000_000);
+        metrics.recordProcessing(1, MenuCategory.ENTREE, 500_000_000);
+        metrics.recordOrderToReady(501_000_000);
+
+        Report report = metrics.latency(manager);
+
+        Breakdown wait = report.stages().get(Stage.QUEUE_WAIT);
+        assertEquals(2, wait.total().count());
+        assertEquals(Set.of(1, 2), wait.byWorker().keySet());
+        assertEquals(Set.of(MenuCategory.ENTREE, MenuCategory.DESSERT), wait.byCategory().keySet());
+        assertEquals(1, report.stages().get(Stage.PROCESSING).byCategory().get(MenuCategory.ENTREE).count());
+        assertEquals(1, report.stages().get(Stage.ORDER_TO_READY).total().count());
+        assertTrue(report.stages().get(Stage.ORDER_TO_READY).byWorker().isEmpty());
+    }
+
+    @Test
+    void intervalLatency_shouldResetBetweenIntervals() {
+        metrics.recordProcessing(1, MenuCategory.DRINK, 1_000);
+
+        Report first = metrics.intervalLatency(manager);
+        metrics.recordProcessing(1, MenuCategory.DRINK, 2_000);
+        metrics.recordProcessing(1, MenuCategory.DRINK, 3_000);
+        Report second = metrics.intervalLatency(manager);
+
+        assertEquals(1, first.stages().get(Stage.PROCESSING).total().count());
+        assertEquals(2, second.stages().get(Stage.PROCESSING).byWorker().get(1).count());
+        assertEquals(first.to(), second.from());
+        assertEquals(3, metrics.latency(manager).stages().get(Stage.PROCESSING).total().count());
+    }
+
+    @Test
+    void nonManager_shouldBeDenied() {
+        Waiter waiter = new Waiter("w1", "Bob");
+
+        assertThrows(SecurityException.class, () -> metrics.latency(waiter));
+        assertThrows(SecurityException.class, () -> metrics.intervalLatency(waiter));
+    }
+}
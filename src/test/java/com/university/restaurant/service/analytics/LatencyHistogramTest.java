@@ -0,0 +1,113 @@
+package com.university.restaurant.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentiles_shouldBeWithinRelativeErrorAcrossRanges() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1 µs to 1 ms in 1 µs steps, and 10 ms to 10 s in 10 ms steps
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+            histogram.record(i * 10_000_000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2000, snapshot.count());
+        assertEquals(500_000L, snapshot.valueAtPercentile(25), 500_000 * 0.016);
+        assertEquals(1_000_000L, snapshot.valueAtPercentile(50), 1_000_000 * 0.016);
+        assertEquals(9_900_000_000L, snapshot.valueAtPercentile(99.5), 9_900_000_000L * 0.016);
+        assertEquals(10_000_000_000L, snapshot.max(), 10_000_000_000L * 0.016);
+        assertTrue(snapshot.valueAtPercentile(99.9) >= 9_980_000_000L);
+    }
+
+    @Test
+    void smallValues_shouldBeExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(i);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(49, snapshot.valueAtPercentile(50));
+        assertEquals(99, snapshot.max());
+        assertEquals(49.5, snapshot.mean(), 1e-9);
+    }
+
+    @Test
+    void outOfRangeValues_shouldBeClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(7, 1_000_000);
+        histogram.record(-5);
+        histogram.record(5_000_000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.valueAtPercentile(50));
+        assertEquals(1_000_000, snapshot.max(), 1_000_000 * 0.016);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.valueAtPercentile(101));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(1, 100));
+    }
+
+    @Test
+    void intervalSnapshot_shouldOnlyCountValuesSincePreviousInterval() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.record(2_000);
+
+        assertEquals(2, histogram.intervalSnapshot().count());
+
+        histogram.record(5_000_000);
+        LatencyHistogram.Snapshot second = histogram.intervalSnapshot();
+
+        assertEquals(1, second.count());
+        assertEquals(5_000_000, second.valueAtPercentile(50), 5_000_000 * 0.016);
+        assertEquals(0, histogram.intervalSnapshot().count());
+        assertEquals(3, histogram.snapshot().count());
+    }
+
+    @Test
+    void merge_shouldCombineCounts() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(20);
+
+        LatencyHistogram.Snapshot merged = a.snapshot().merge(b.snapshot());
+
+        assertEquals(2, merged.count());
+        assertEquals(20, merged.max());
+        assertThrows(IllegalArgumentException.class,
+                () -> merged.merge(new LatencyHistogram(5, 100).snapshot()));
+    }
+
+    @Test
+    void concurrentRecording_shouldNotLoseValues() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertEquals((long) threads * perThread, histogram.snapshot().count());
+    }
+}
@@ -0,0 +1,126 @@
+package com.university.restaurant.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueRollupTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    private record Sale(LocalDateTime at, double amount) {
+    }
+
+    @Test
+    void revenueBetween_shouldMatchBruteForceForArbitraryWindows() {
+        // Retain every minute of the three days so all edges are exact
+        RevenueRollup rollup = new RevenueRollup(3 * 24 * 60, 3 * 24, 3);
+        Random random = new Random(7);
+        List<Sale> sales = new ArrayList<>();
+        // Three days of payments, to the second
+        for (int i = 0; i < 5_000; i++) {
+            Sale sale = new Sale(START.plusSeconds(random.nextInt(3 * 24 * 3600)), 1 + random.nextInt(50));
+            sales.add(sale);
+            rollup.record(sale.at(), sale.amount());
+        }
+
+        for (int q = 0; q < 200; q++) {
+            LocalDateTime from = START.plusMinutes(random.nextInt(3 * 24 * 60));
+            LocalDateTime to = from.plusMinutes(random.nextInt(3 * 24 * 60));
+            double expected = sales.stream()
+                    .filter(s -> !s.at().isBefore(from) && s.at().isBefore(to))
+                    .mapToDouble(Sale::amount)
+                    .sum();
+            assertEquals(expected, rollup.revenueBetween(from, to), 1e-6, from + " -> " + to);
+        }
+    }
+
+    @Test
+    void revenueByHourOfDay_shouldFoldDaysTogether() {
+        RevenueRollup rollup = new RevenueRollup();
+        rollup.record(LocalDateTime.of(2024, 5, 1, 12, 15), 10);
+        rollup.record(LocalDateTime.of(2024, 5, 2, 12, 45), 20);
+        rollup.record(LocalDateTime.of(2024, 5, 2, 19, 0), 5);
+        rollup.record(LocalDateTime.of(2024, 5, 3, 12, 0), 100);
+
+        double[] byHour = rollup.revenueByHourOfDay(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 2));
+
+        assertEquals(24, byHour.length);
+        assertEquals(30, byHour[12], 1e-9);
+        assertEquals(5, byHour[19], 1e-9);
+        assertEquals(35, sum(byHour), 1e-9);
+        assertArrayEquals(new double[]{10, 25, 100},
+                rollup.revenueByDay(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 3)), 1e-9);
+    }
+
+    @Test
+    void revenueByHourOfDay_shouldHandleDaysBeforeEpoch() {
+        RevenueRollup rollup = new RevenueRollup();
+        rollup.record(LocalDateTime.of(1969, 12, 31, 23, 30), 7);
+
+        double[] byHour = rollup.revenueByHourOfDay(LocalDate.of(1969, 12, 31), LocalDate.of(1969, 12, 31));
+
+        assertEquals(7, byHour[23], 1e-9);
+        assertEquals(7, sum(byHour), 1e-9);
+    }
+
+    @Test
+    void dayQueries_shouldRejectReversedRange() {
+        RevenueRollup rollup = new RevenueRollup();
+        LocalDate day = LocalDate.of(2024, 5, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> rollup.revenueByHourOfDay(day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> rollup.revenueByDay(day, day.minusDays(1)));
+    }
+
+    @Test
+    void negativeAmounts_shouldReversePayments() {
+        RevenueRollup rollup = new RevenueRollup();
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 9, 30);
+        rollup.record(at, 42);
+        rollup.record(at, -42);
+
+        assertEquals(0, rollup.revenueBetween(at.minusDays(1), at.plusDays(1)), 1e-9);
+    }
+
+    @Test
+    void buckets_shouldBeRecycledPastRetention() {
+        RevenueRollup rollup = new RevenueRollup(60, 24, 7);
+        rollup.record(START, 10);
+        // Two hours later the minute slot for START has been reused
+        rollup.record(START.plusMinutes(60), 1);
+        rollup.record(START.plusMinutes(120), 1);
+
+        assertEquals(0, rollup.revenueBetween(START, START.plusMinutes(1)), 1e-9);
+        // Whole hours and days are still retained
+        assertEquals(11, rollup.revenueBetween(START, START.plusHours(2)), 1e-9);
+        assertEquals(12, rollup.revenueBetween(START, START.plusDays(1)), 1e-9);
+
+        // A late payment older than the retention is dropped rather than
+        // overwriting a newer bucket
+        rollup.record(START.plusDays(10), 3);
+        rollup.record(START.plusDays(3), 99);
+        assertEquals(3, rollup.revenueBetween(START.plusDays(10), START.plusDays(11)), 1e-9);
+    }
+
+    @Test
+    void invalidArguments_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new RevenueRollup(0, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RevenueRollup().revenueBetween(START.plusMinutes(1), START));
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double v : values) {
+            total += v;
+        }
+        return total;
+    }
+}
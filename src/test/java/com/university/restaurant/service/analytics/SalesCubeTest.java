@@ -0,0 +1,158 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.SalesSlice;
+import com.university.restaurant.model.menu.Drink;
+import com.university.restaurant.model.order.Order;
+import com.university.restaurant.model.order.OrderStatus;
+import com.university.restaurant.model.payment.PaymentMethod;
+import com.university.restaurant.service.analytics.SalesCube.Dimension;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesCubeTest {
+
+    private static final Drink[] DRINKS = {
+            new Drink("d1", "Coke", "desc", 2.5, false),
+            new Drink("d2", "Sprite", "desc", 2.25, false),
+            new Drink("d3", "Wine", "desc", 7.0, true),
+    };
+
+    private static Order paidOrder(int table, String waiter, PaymentMethod method, Drink... items) {
+        Order order = new Order(table, waiter);
+        for (Drink item : items) {
+            order.addItem(item);
+        }
+        order.updateStatus(OrderStatus.SERVED);
+        order.processPayment(method);
+        return order;
+    }
+
+    @Test
+    void groupBy_shouldMatchBruteForceOverOrders() {
+        Random random = new Random(7);
+        SalesCube cube = new SalesCube(4);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Drink[] items = new Drink[1 + random.nextInt(4)];
+            for (int j = 0; j < items.length; j++) {
+                items[j] = DRINKS[random.nextInt(DRINKS.length)];
+            }
+            Order order = paidOrder(1 + random.nextInt(12), "w" + random.nextInt(4),
+                    PaymentMethod.values()[random.nextInt(PaymentMethod.values().length)], items);
+            orders.add(order);
+            cube.add(order);
+        }
+
+        List<SalesSlice> slices = cube.aggregate(SalesCube.Query.all()
+                .tables(Set.of(2, 3, 5))
+                .paymentMethods(List.of(PaymentMethod.CASH, PaymentMethod.MOBILE))
+                .groupBy(Dimension.WAITER, Dimension.ITEM));
+
+        Map<List<String>, long[]> expected = new HashMap<>();
+        for (Order order : orders) {
+            if (!Set.of(2, 3, 5).contains(order.getTableNumber())
+                    || order.getPayment().getMethod() == PaymentMethod.CREDIT_CARD
+                    || order.getPayment().getMethod() == PaymentMethod.DEBIT_CARD) {
+                continue;
+            }
+            for (var item : order.getItems()) {
+                long[] acc = expected.computeIfAbsent(List.of(order.getAssignedWaiterId(), item.getName()),
+                        k -> new long[2]);
+                acc[0]++;
+                acc[1] += Math.round(item.calculatePrice() * 100);
+            }
+        }
+
+        assertEquals(expected.size(), slices.size());
+        for (SalesSlice slice : slices) {
+            long[] acc = expected.get(slice.key());
+            assertNotNull(acc, slice.key().toString());
+            assertEquals(acc[0], slice.units());
+            assertEquals(acc[1] / 100.0, slice.revenue(), 1e-9);
+        }
+    }
+
+    @Test
+    void ungroupedQuery_shouldReturnOneTotal() {
+        SalesCube cube = new SalesCube();
+        cube.add(paidOrder(1, "w1", PaymentMethod.CASH, DRINKS[0], DRINKS[2]));
+        cube.add(paidOrder(2, "w2", PaymentMethod.CASH, DRINKS[0]));
+
+        List<SalesSlice> total = cube.aggregate(SalesCube.Query.all());
+        List<SalesSlice> coke = cube.aggregate(SalesCube.Query.all().items(List.of("Coke")));
+        List<SalesSlice> unknown = cube.aggregate(SalesCube.Query.all().waiters(List.of("nobody")));
+
+        assertEquals(List.of(new SalesSlice(List.of(), 3, 12.0)), total);
+        assertEquals(List.of(new SalesSlice(List.of(), 2, 5.0)), coke);
+        assertEquals(List.of(new SalesSlice(List.of(), 0, 0.0)), unknown);
+    }
+
+    @Test
+    void timeDimensions_shouldUsePaymentTime() {
+        SalesCube cube = new SalesCube();
+        Order order = paidOrder(4, "w1", PaymentMethod.DEBIT_CARD, DRINKS[1]);
+        cube.add(order);
+        LocalDateTime paidAt = order.getPayment().getTimestamp();
+
+        List<SalesSlice> byDayAndHour = cube.aggregate(SalesCube.Query.all()
+                .groupBy(Dimension.DAY, Dimension.HOUR, Dimension.TABLE, Dimension.PAYMENT_METHOD));
+        List<SalesSlice> before = cube.aggregate(SalesCube.Query.all()
+                .between(paidAt.minusDays(1), paidAt.minusMinutes(1))
+                .groupBy(Dimension.ITEM));
+
+        assertEquals(List.of(new SalesSlice(List.of(paidAt.toLocalDate().toString(),
+                Integer.toString(paidAt.getHour()), "4", "DEBIT_CARD"), 1, 2.25)), byDayAndHour);
+        assertTrue(before.isEmpty());
+    }
+
+    @Test
+    void rowCap_shouldDropOldestAppendedLines() {
+        SalesCube cube = new SalesCube(4, 8);
+        for (int table = 1; table <= 10; table++) {
+            cube.add(paidOrder(table, "w1", PaymentMethod.CASH, DRINKS[0]));
+        }
+
+        List<String> tables = cube.aggregate(SalesCube.Query.all().groupBy(Dimension.TABLE)).stream()
+                .map(slice -> slice.key().get(0))
+                .toList();
+
+        assertTrue(cube.size() <= 8);
+        assertEquals(cube.size(), tables.size());
+        assertEquals("10", tables.get(tables.size() - 1));
+        assertFalse(tables.contains("1"));
+        assertThrows(IllegalArgumentException.class, () -> new SalesCube(4, 2));
+    }
+
+    @Test
+    void evictBefore_shouldDropLinesPaidBeforeCutoff() {
+        SalesCube cube = new SalesCube();
+        Order order = paidOrder(3, "w1", PaymentMethod.CASH, DRINKS[0], DRINKS[1]);
+        cube.add(order);
+        LocalDateTime paidAt = order.getPayment().getTimestamp();
+
+        assertEquals(0, cube.evictBefore(paidAt.minusDays(1)));
+        assertEquals(2, cube.size());
+        assertEquals(2, cube.evictBefore(paidAt.plusMinutes(1)));
+        assertEquals(0, cube.size());
+        assertEquals(List.of(new SalesSlice(List.of(), 0, 0.0)), cube.aggregate(SalesCube.Query.all()));
+    }
+
+    @Test
+    void invalidQueries_shouldBeRejected() {
+        SalesCube cube = new SalesCube();
+
+        assertThrows(IllegalArgumentException.class, () -> SalesCube.Query.all().groupBy(Dimension.ITEM, Dimension.ITEM));
+        assertThrows(IllegalArgumentException.class,
+                () -> SalesCube.Query.all().between(LocalDateTime.now(), LocalDateTime.now().minusHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> cube.add(new Order(1, "w1")));
+    }
+}
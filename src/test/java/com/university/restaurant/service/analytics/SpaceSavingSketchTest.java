@@ -0,0 +1,125 @@
+package com.university.restaurant.service.analytics;
+
+import com.university.restaurant.model.analytics.ItemSales;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    // Skewed stream: item i is drawn with probability proportional to 1 / (i + 1)
+    private static Map<String, Long> feedSkewed(SpaceSavingSketch sketch, int distinct, int n, long seed) {
+        double[] cdf = new double[distinct];
+        double sum = 0;
+        for (int i = 0; i < distinct; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        Random random = new Random(seed);
+        Map<String, Long> exact = new HashMap<>();
+        for (int j = 0; j < n; j++) {
+            double u = random.nextDouble() * sum;
+            int i = 0;
+            while (cdf[i] < u) i++;
+            String item = "item-" + i;
+            sketch.add(item);
+            exact.merge(item, 1L, Long::sum);
+        }
+        return exact;
+    }
+
+    @Test
+    void topK_withFewDistinctItems_shouldBeExact() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(8);
+        for (int i = 0; i < 5; i++) sketch.add("Burger");
+        for (int i = 0; i < 3; i++) sketch.add("Coke");
+        sketch.add("Salad");
+
+        List<ItemSales> top = sketch.topK(2);
+
+        assertEquals(List.of(new ItemSales("Burger", 5, 0), new ItemSales("Coke", 3, 0)), top);
+        assertEquals(0, sketch.maxError());
+        assertEquals(9, sketch.total());
+    }
+
+    @Test
+    void counts_shouldStayWithinErrorBound() {
+        SpaceSavingSketch sketch = SpaceSavingSketch.withMaxErrorRate(0.01);
+        int n = 50_000;
+        Map<String, Long> exact = feedSkewed(sketch, 2_000, n, 42);
+
+        assertEquals(100, sketch.capacity());
+        assertTrue(sketch.maxError() <= n / sketch.capacity());
+        for (ItemSales s : sketch.topK(sketch.capacity())) {
+            long truth = exact.getOrDefault(s.itemName(), 0L);
+            assertTrue(s.count() >= truth, s.toString());
+            assertTrue(s.guaranteedCount() <= truth, s.toString());
+        }
+        // The heaviest items are all reported, in order
+        List<ItemSales> top = sketch.topK(3);
+        assertEquals(List.of("item-0", "item-1", "item-2"), top.stream().map(ItemSales::itemName).toList());
+    }
+
+    @Test
+    void merge_shouldMatchSingleSketchOverCombinedStream() {
+        SpaceSavingSketch monday = new SpaceSavingSketch(50);
+        SpaceSavingSketch tuesday = new SpaceSavingSketch(50);
+        Map<String, Long> exact = new HashMap<>(feedSkewed(monday, 500, 20_000, 1));
+        feedSkewed(tuesday, 500, 20_000, 2).forEach((k, v) -> exact.merge(k, v, Long::sum));
+
+        SpaceSavingSketch week = monday.merge(tuesday);
+
+        assertEquals(40_000, week.total());
+        assertTrue(week.maxError() <= week.total() / week.capacity());
+        for (ItemSales s : week.topK(50)) {
+            long truth = exact.getOrDefault(s.itemName(), 0L);
+            assertTrue(s.count() >= truth, s.toString());
+            assertTrue(s.guaranteedCount() <= truth, s.toString());
+        }
+        assertEquals("item-0", week.topK(1).get(0).itemName());
+        // Inputs are left untouched
+        assertEquals(20_000, monday.total());
+    }
+
+    @Test
+    void merge_ofUnfilledSketches_shouldBeExact() {
+        SpaceSavingSketch a = new SpaceSavingSketch(4);
+        SpaceSavingSketch b = new SpaceSavingSketch(4);
+        a.add("Coke", 3);
+        b.add("Coke", 2);
+        b.add("Fries", 4);
+
+        assertEquals(List.of(new ItemSales("Coke", 5, 0), new ItemSales("Fries", 4, 0)), a.merge(b).topK(5));
+    }
+
+    @Test
+    void merge_ofFullSketchIntoLargerOne_shouldKeepItsErrorBound() {
+        SpaceSavingSketch small = new SpaceSavingSketch(2);
+        small.add("Coke", 5);
+        small.add("Fries", 3);
+        small.add("Salad", 2);
+        SpaceSavingSketch large = new SpaceSavingSketch(10);
+        large.add("Coke", 1);
+
+        SpaceSavingSketch merged = large.merge(small);
+        merged.add("Soup");
+
+        // Fries may have been sold 3 times in the small sketch's stream before Salad evicted it
+        assertEquals(small.maxError(), merged.maxError());
+        assertTrue(merged.estimate("Fries") >= 3);
+        assertTrue(merged.estimate("Soup") >= 1 + small.maxError());
+    }
+
+    @Test
+    void invalidArguments_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+        assertThrows(IllegalArgumentException.class, () -> SpaceSavingSketch.withMaxErrorRate(0));
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(4).topK(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(4).add("Coke", -1));
+    }
+}